@@ -31,5 +31,11 @@ public @interface Module {
 
 	String displayName() default "";
 
+	/**
+	 * The names of the modules the module is allowed to depend on. Defaults to none, which means the module may depend
+	 * on all other modules.
+	 *
+	 * @return
+	 */
 	String[] allowedDependencies() default {};
 }
@@ -59,4 +59,13 @@ public @interface Modulith {
 	 * @return
 	 */
 	String[] additionalPackages() default {};
+
+	/**
+	 * The names of the modules to activate when the application is started. Only those modules and the ones they
+	 * (transitively) depend on will be bootstrapped. Can be overridden using the {@code moduliths.active-modules}
+	 * property so that a single artifact can be deployed with different subsets of modules. Defaults to all modules.
+	 * 
+	 * @return
+	 */
+	String[] activeModules() default {};
 }
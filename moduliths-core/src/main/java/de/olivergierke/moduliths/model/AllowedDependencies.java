@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * The dependencies between modules allowed via {@link de.olivergierke.moduliths.Module#allowedDependencies()}, compiled
+ * into a module×module matrix of bits so that checking a dependency doesn't require any lookups by name. Modules that
+ * don't declare any allowed dependencies may depend on all other modules.
+ *
+ * @author Oliver Gierke
+ */
+class AllowedDependencies {
+
+	private final int size;
+	private final BitSet allowed;
+
+	private AllowedDependencies(List<Module> modules) {
+
+		this.size = modules.size();
+		this.allowed = new BitSet(size * size);
+
+		Map<String, Integer> indexes = new HashMap<>(size);
+
+		for (int i = 0; i < size; i++) {
+			indexes.put(modules.get(i).getName(), i);
+		}
+
+		for (int i = 0; i < size; i++) {
+
+			Module module = modules.get(i);
+			List<String> declared = module.getAllowedDependencies();
+
+			if (declared.isEmpty()) {
+				allowed.set(i * size, (i + 1) * size);
+				continue;
+			}
+
+			allowed.set(i * size + i);
+
+			for (String name : declared) {
+
+				Integer target = indexes.get(name);
+
+				if (target == null) {
+					throw new IllegalStateException(String.format(
+							"Module '%s' declares unknown module '%s' as allowed dependency!", module.getName(), name));
+				}
+
+				allowed.set(i * size + target);
+			}
+		}
+	}
+
+	/**
+	 * Compiles the allowed dependencies declared by the given {@link Module}s. Modules are referred to by their index in
+	 * the given {@link List}.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @return
+	 * @throws IllegalStateException in case a module declares an allowed dependency to a module that doesn't exist.
+	 */
+	static AllowedDependencies of(List<Module> modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		return new AllowedDependencies(modules);
+	}
+
+	/**
+	 * Returns whether the module with the given origin index may depend on the one with the given target index.
+	 *
+	 * @param origin
+	 * @param target
+	 * @return
+	 */
+	boolean isAllowed(int origin, int target) {
+		return allowed.get(origin * size + target);
+	}
+
+	/**
+	 * Returns a copy of the underlying matrix, in which the bit at {@code origin * size + target} is set if the
+	 * dependency is allowed.
+	 *
+	 * @return
+	 */
+	BitSet toBitSet() {
+		return (BitSet) allowed.clone();
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+
+/**
+ * An inverted index of annotation types to the classes and packages carrying them. Built once for a set of imported
+ * {@link Classes} so that annotation driven lookups don't have to filter all classes over and over again.
+ *
+ * @author Oliver Gierke
+ */
+class AnnotationIndex {
+
+	private static final String PACKAGE_INFO_NAME = "package-info";
+
+	private final Map<String, List<JavaClass>> annotated;
+	private final Map<String, List<JavaClass>> metaAnnotated;
+	private final Map<String, JavaClass> packageInfos;
+
+	private AnnotationIndex(Classes classes) {
+
+		this.annotated = new HashMap<>();
+		this.metaAnnotated = new HashMap<>();
+		this.packageInfos = new HashMap<>();
+
+		classes.forEach(type -> {
+
+			if (type.getSimpleName().equals(PACKAGE_INFO_NAME)) {
+				packageInfos.put(type.getPackage(), type);
+			}
+
+			Set<String> seen = new HashSet<>();
+
+			for (JavaAnnotation annotation : type.getAnnotations()) {
+
+				annotated.computeIfAbsent(annotation.getType().getName(), it -> new ArrayList<>()).add(type);
+
+				registerMetaAnnotated(type, annotation.getType(), seen);
+			}
+		});
+	}
+
+	/**
+	 * Creates a new {@link AnnotationIndex} for the given {@link Classes}.
+	 *
+	 * @param classes must not be {@literal null}.
+	 * @return
+	 */
+	static AnnotationIndex of(Classes classes) {
+
+		Assert.notNull(classes, "Classes must not be null!");
+
+		return new AnnotationIndex(classes);
+	}
+
+	/**
+	 * Returns all types that are directly annotated with the given annotation.
+	 *
+	 * @param annotation must not be {@literal null}.
+	 * @return
+	 */
+	List<JavaClass> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+		return annotated.getOrDefault(annotation.getName(), Collections.emptyList());
+	}
+
+	/**
+	 * Returns all types that are either directly annotated with the given annotation or carry an annotation that is
+	 * (transitively) meta-annotated with it.
+	 *
+	 * @param annotation must not be {@literal null}.
+	 * @return
+	 */
+	List<JavaClass> getTypesMetaAnnotatedWith(Class<? extends Annotation> annotation) {
+		return metaAnnotated.getOrDefault(annotation.getName(), Collections.emptyList());
+	}
+
+	/**
+	 * Returns the annotation of the given type declared on the {@code package-info} of the package with the given name.
+	 *
+	 * @param packageName must not be {@literal null} or empty.
+	 * @param annotationType must not be {@literal null}.
+	 * @return
+	 */
+	<A extends Annotation> Optional<A> getPackageAnnotation(String packageName, Class<A> annotationType) {
+
+		return Optional.ofNullable(packageInfos.get(packageName)) //
+				.filter(it -> it.isAnnotatedWith(annotationType)) //
+				.map(it -> it.getAnnotationOfType(annotationType));
+	}
+
+	private void registerMetaAnnotated(JavaClass type, JavaClass annotationType, Set<String> seen) {
+
+		if (!seen.add(annotationType.getName())) {
+			return;
+		}
+
+		metaAnnotated.computeIfAbsent(annotationType.getName(), it -> new ArrayList<>()).add(type);
+
+		for (JavaAnnotation metaAnnotation : annotationType.getAnnotations()) {
+			registerMetaAnnotated(type, metaAnnotation.getType(), seen);
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A fingerprint of the bytecode of all classes residing in a set of packages (including their sub-packages). Two
+ * fingerprints are equal if the very same set of class files with the very same content was found. Fingerprints of
+ * modules (see {@link #forModules(Class, Collection)}) additionally cover everything else that might change the
+ * outcome of tests of those modules.
+ *
+ * @author Oliver Gierke
+ */
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class BytecodeFingerprint {
+
+	private static final String ALGORITHM = "SHA-256";
+	private static final List<String> CONFIGURATION_FILE_EXTENSIONS = Arrays.asList(".properties", ".yml", ".yaml");
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final String value;
+
+	/**
+	 * Creates a {@link BytecodeFingerprint} for all classes in the root packages of the given modulith type.
+	 *
+	 * @param modulithType must not be {@literal null}.
+	 * @return
+	 */
+	public static BytecodeFingerprint forModulith(Class<?> modulithType) {
+
+		Assert.notNull(modulithType, "Modulith type must not be null!");
+
+		return of(modulithType.getClassLoader(), Modules.getRootPackages(modulithType));
+	}
+
+	/**
+	 * Creates a {@link BytecodeFingerprint} for all classes and resources in the given module packages (including their
+	 * sub-packages) and the ones residing directly in the root packages of the given modulith type. I.e. the
+	 * fingerprint only changes if the classes of the given modules or the ones of the root packages change, but not for
+	 * changes in other modules. Also covers the {@code application*.properties} and {@code application*.yml} files in
+	 * the class path directories as well as the names and sizes of the JAR files on the class path, so that changes to
+	 * the configuration or to dependencies are detected, too.
+	 *
+	 * @param modulithType must not be {@literal null}.
+	 * @param modulePackages must not be {@literal null}.
+	 * @return
+	 */
+	public static BytecodeFingerprint forModules(Class<?> modulithType, Collection<String> modulePackages) {
+
+		Assert.notNull(modulithType, "Modulith type must not be null!");
+		Assert.notNull(modulePackages, "Module packages must not be null!");
+
+		String classPath = System.getProperty("java.class.path", "");
+
+		return forModules(modulithType.getClassLoader(), modulePackages, Modules.getRootPackages(modulithType),
+				Arrays.asList(StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)));
+	}
+
+	/**
+	 * Creates a {@link BytecodeFingerprint} for all classes and resources in the given module packages, the ones residing
+	 * directly in the given root packages, the application configuration files in the directories of the given class
+	 * path and its JAR files.
+	 *
+	 * @param classLoader can be {@literal null}.
+	 * @param modulePackages must not be {@literal null}.
+	 * @param rootPackages must not be {@literal null}.
+	 * @param classPath the entries of the class path, must not be {@literal null}.
+	 * @return
+	 */
+	static BytecodeFingerprint forModules(ClassLoader classLoader, Collection<String> modulePackages,
+			Collection<String> rootPackages, Collection<String> classPath) {
+
+		List<File> entries = classPath.stream().map(File::new).collect(Collectors.toList());
+
+		List<String> jars = entries.stream() //
+				.filter(File::isFile) //
+				.map(it -> it.getName().concat(":").concat(String.valueOf(it.length()))) //
+				.sorted() //
+				.collect(Collectors.toList());
+
+		Map<String, Resource> configurationFiles = new TreeMap<>();
+
+		entries.stream() //
+				.filter(File::isDirectory) //
+				.map(it -> it.listFiles(BytecodeFingerprint::isConfigurationFile)) //
+				.filter(Objects::nonNull) //
+				.flatMap(Arrays::stream) //
+				.forEach(it -> configurationFiles.putIfAbsent(it.getName(), new FileSystemResource(it)));
+
+		return of(classLoader, modulePackages, "/**/*", rootPackages, "/*", configurationFiles, jars);
+	}
+
+	/**
+	 * Creates a {@link BytecodeFingerprint} for all classes found in the given packages (including their sub-packages)
+	 * using the given {@link ClassLoader}.
+	 *
+	 * @param classLoader can be {@literal null}.
+	 * @param packages must not be {@literal null}.
+	 * @return
+	 */
+	public static BytecodeFingerprint of(ClassLoader classLoader, Collection<String> packages) {
+
+		Assert.notNull(packages, "Packages must not be null!");
+
+		return of(classLoader, packages, "/**/*.class", Collections.emptySet(), "/*.class", Collections.emptyMap(),
+				Collections.emptyList());
+	}
+
+	private static BytecodeFingerprint of(ClassLoader classLoader, Collection<String> packages, String pattern,
+			Collection<String> flatPackages, String flatPattern, Map<String, Resource> additionalFiles,
+			List<String> additionalValues) {
+
+		ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+		Map<String, Resource> files = new TreeMap<>();
+
+		try {
+
+			for (String packageName : packages) {
+				collectFiles(resolver, ClassUtils.convertClassNameToResourcePath(packageName), pattern, files);
+			}
+
+			for (String packageName : flatPackages) {
+				collectFiles(resolver, ClassUtils.convertClassNameToResourcePath(packageName), flatPattern, files);
+			}
+
+			additionalFiles.forEach(files::putIfAbsent);
+
+			MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+			byte[] buffer = new byte[8192];
+
+			for (String value : additionalValues) {
+				digest.update(value.getBytes(StandardCharsets.UTF_8));
+			}
+
+			for (Map.Entry<String, Resource> entry : files.entrySet()) {
+
+				digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+
+				try (InputStream stream = entry.getValue().getInputStream()) {
+
+					int read;
+
+					while ((read = stream.read(buffer)) != -1) {
+						digest.update(buffer, 0, read);
+					}
+				}
+			}
+
+			return new BytecodeFingerprint(toHex(digest.digest()));
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns the {@link BytecodeFingerprint} represented by the given {@link String}.
+	 *
+	 * @param value must not be {@literal null} or empty.
+	 * @return
+	 * @see #toString()
+	 */
+	public static BytecodeFingerprint of(String value) {
+
+		Assert.hasText(value, "Fingerprint value must not be null or empty!");
+
+		return new BytecodeFingerprint(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return value;
+	}
+
+	/**
+	 * Collects the files matching the given pattern below the given resource path keyed by their path relative to the
+	 * class path root. Skips directories.
+	 *
+	 * @param resolver must not be {@literal null}.
+	 * @param path the resource path to look up files in, must not be {@literal null}.
+	 * @param pattern must not be {@literal null}.
+	 * @param files must not be {@literal null}.
+	 * @throws IOException
+	 */
+	private static void collectFiles(ResourcePatternResolver resolver, String path, String pattern,
+			Map<String, Resource> files) throws IOException {
+
+		for (Resource resource : resolver.getResources("classpath*:" + path + pattern)) {
+
+			if (!resource.isReadable()) {
+				continue;
+			}
+
+			String location = resource.getURL().toString();
+			files.putIfAbsent(location.substring(location.lastIndexOf(path + "/")), resource);
+		}
+	}
+
+	private static boolean isConfigurationFile(File file) {
+
+		String name = file.getName();
+
+		return file.isFile() //
+				&& name.startsWith("application") //
+				&& CONFIGURATION_FILE_EXTENSIONS.stream().anyMatch(name::endsWith);
+	}
+
+	private static String toHex(byte[] bytes) {
+
+		char[] result = new char[bytes.length * 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			result[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			result[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+
+		return new String(result);
+	}
+}
@@ -15,10 +15,17 @@
  */
 package de.olivergierke.moduliths.model;
 
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -35,10 +42,32 @@ import com.tngtech.archunit.core.domain.properties.HasName;
 /**
  * @author Oliver Gierke
  */
-@RequiredArgsConstructor(staticName = "of")
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class Classes implements DescribedIterable<JavaClass> {
 
-	private final JavaClasses classes;
+	private final List<JavaClass> classes;
+	private final String description;
+
+	/**
+	 * Creates a new {@link Classes} instance for the given {@link JavaClasses}. The classes are materialized eagerly so
+	 * that subsequent filtering doesn't have to re-evaluate the predicates of the source.
+	 *
+	 * @param classes must not be {@literal null}.
+	 * @return
+	 */
+	public static Classes of(JavaClasses classes) {
+
+		Assert.notNull(classes, "JavaClasses must not be null!");
+
+		List<JavaClass> result = StreamSupport.stream(classes.spliterator(), false) //
+				.collect(Collectors.toList());
+
+		return new Classes(Collections.unmodifiableList(result), classes.getDescription());
+	}
+
+	static Classes of(List<JavaClass> classes, String description) {
+		return new Classes(Collections.unmodifiableList(classes), description);
+	}
 
 	/**
 	 * Returns {@link Classes} that match the given {@link DescribedPredicate}.
@@ -50,27 +79,47 @@ public class Classes implements DescribedIterable<JavaClass> {
 
 		Assert.notNull(predicate, "Predicate must not be null!");
 
-		return Classes.of(classes.that(predicate));
+		List<JavaClass> result = classes.stream() //
+				.filter(predicate::apply) //
+				.collect(Collectors.toList());
+
+		return Classes.of(result, String.format("%s that %s", description, predicate.getDescription()));
+	}
+
+	/**
+	 * Returns {@link Classes} containing the current ones as well as the given ones, skipping duplicates.
+	 *
+	 * @param other must not be {@literal null}.
+	 * @return
+	 */
+	public Classes and(Classes other) {
+
+		Assert.notNull(other, "Other Classes must not be null!");
+
+		Set<JavaClass> result = new LinkedHashSet<>(classes);
+		result.addAll(other.classes);
+
+		return Classes.of(new ArrayList<>(result), String.format("%s and %s", description, other.description));
 	}
 
 	public Stream<JavaClass> stream() {
-		return StreamSupport.stream(classes.spliterator(), false);
+		return classes.stream();
 	}
 
 	public boolean isEmpty() {
-		return !classes.iterator().hasNext();
+		return classes.isEmpty();
 	}
 
 	public Optional<JavaClass> toOptional() {
-		return isEmpty() ? Optional.empty() : Optional.of(classes.iterator().next());
+		return isEmpty() ? Optional.empty() : Optional.of(classes.get(0));
 	}
 
 	public boolean contains(JavaClass type) {
-		return classes.that(new SameClass(type)).iterator().hasNext();
+		return stream().anyMatch(new SameClass(type)::apply);
 	}
 
 	public boolean contains(String className) {
-		return classes.that(HasName.Predicates.name(className)).iterator().hasNext();
+		return stream().anyMatch(HasName.Predicates.name(className)::apply);
 	}
 
 	/*
@@ -79,7 +128,7 @@ public class Classes implements DescribedIterable<JavaClass> {
 	 */
 	@Override
 	public String getDescription() {
-		return classes.getDescription();
+		return description;
 	}
 
 	/*
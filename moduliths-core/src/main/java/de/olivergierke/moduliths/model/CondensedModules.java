@@ -0,0 +1,679 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import static java.lang.System.*;
+
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+import de.olivergierke.moduliths.model.ModuleDependencies.DependencyType;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.util.Assert;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaModifier;
+
+/**
+ * A condensed, memory-compact representation of {@link Modules} that doesn't refer to any ArchUnit types anymore, so
+ * that the imported class graph can be garbage collected once it has been created. Types are identified by numeric
+ * ids that are handed out module by module, so that each module occupies a contiguous range of them. Types residing in
+ * the root packages follow the ones of all modules. Exposure, Spring bean and visibility information are kept in
+ * {@link BitSet}s over those ids and dependencies between the types of different modules in a single edge list. The
+ * dependencies allowed between modules are kept as a module×module matrix of bits.
+ *
+ * @author Oliver Gierke
+ * @see Modules#condense()
+ */
+public class CondensedModules implements Iterable<CondensedModules.CondensedModule> {
+
+	static final int ORIGIN = 0, TARGET = 1, TYPE = 2, WIDTH = 3;
+	private static final String PACKAGED_SNAPSHOT_DIRECTORY = "META-INF/moduliths/";
+
+	final String[] types;
+	final BitSet exposed, publicTypes, springBeans, allowedDependencies;
+	final String[] names, displayNames, basePackages, rootPackages;
+	final String[][] namedInterfaces;
+	final int[] typeOffsets, edges, edgeOffsets, typesByName;
+	final boolean verified;
+
+	private final int[][] directDependencies, directDependents;
+	private final List<CondensedModule> modules;
+
+	CondensedModules(String[] types, BitSet exposed, BitSet publicTypes, BitSet springBeans,
+			BitSet allowedDependencies, String[] names, String[] displayNames, String[] basePackages, String[] rootPackages,
+			String[][] namedInterfaces, int[] typeOffsets, int[] edges, int[] edgeOffsets, int[] typesByName,
+			boolean verified) {
+
+		this.types = types;
+		this.exposed = exposed;
+		this.publicTypes = publicTypes;
+		this.springBeans = springBeans;
+		this.allowedDependencies = allowedDependencies;
+		this.names = names;
+		this.displayNames = displayNames;
+		this.basePackages = basePackages;
+		this.rootPackages = rootPackages;
+		this.namedInterfaces = namedInterfaces;
+		this.typeOffsets = typeOffsets;
+		this.edges = edges;
+		this.edgeOffsets = edgeOffsets;
+		this.typesByName = typesByName;
+		this.verified = verified;
+
+		this.directDependencies = IntStream.range(0, names.length) //
+				.mapToObj(this::calculateDirectDependencies) //
+				.toArray(int[][]::new);
+		this.directDependents = calculateDirectDependents(directDependencies);
+
+		this.modules = Collections.unmodifiableList(IntStream.range(0, names.length) //
+				.mapToObj(CondensedModule::new) //
+				.collect(Collectors.toList()));
+	}
+
+	/**
+	 * Condenses the given {@link Modules}. Will calculate the dependencies of all modules.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @return
+	 */
+	static CondensedModules of(Modules modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		TypeIndex index = modules.getTypeIndex();
+		List<Module> moduleList = index.getModules();
+
+		int moduleCount = moduleList.size();
+		List<String> types = new ArrayList<>(index.size());
+		BitSet exposed = new BitSet(), publicTypes = new BitSet(), springBeans = new BitSet();
+		int[] typeOffsets = new int[moduleCount + 1];
+		int[] edgeOffsets = new int[moduleCount + 1];
+		List<int[]> moduleEdges = new ArrayList<>(moduleCount);
+
+		// The TypeIndex hands out ids module by module in iteration order, so we can simply adopt them
+		for (int i = 0; i < moduleCount; i++) {
+
+			Module module = moduleList.get(i);
+			typeOffsets[i] = types.size();
+
+			for (int id = types.size(); id < index.size() && index.getModule(id) == module; id++) {
+
+				JavaClass type = index.getType(id);
+
+				types.add(type.getName());
+				exposed.set(id, module.isExposed(type));
+				publicTypes.set(id, type.getModifiers().contains(JavaModifier.PUBLIC));
+			}
+
+			module.getSpringBeans().forEach(it -> {
+
+				int id = index.getId(it);
+
+				if (id != TypeIndex.UNKNOWN) {
+					springBeans.set(id);
+				}
+			});
+
+			moduleEdges.add(modules.getDependencies(module).getEdges());
+		}
+
+		Assert.state(types.size() == index.size(), "Types of the TypeIndex are expected to be grouped by module!");
+
+		typeOffsets[moduleCount] = types.size();
+
+		modules.getRootPackages().forEach(it -> it.stream() //
+				.filter(type -> index.getId(type) == TypeIndex.UNKNOWN) //
+				.forEach(type -> {
+					publicTypes.set(types.size(), type.getModifiers().contains(JavaModifier.PUBLIC));
+					types.add(type.getName());
+				}));
+
+		int[] edges = new int[moduleEdges.stream().mapToInt(it -> it.length).sum()];
+		int offset = 0;
+
+		for (int i = 0; i < moduleCount; i++) {
+
+			int[] source = moduleEdges.get(i);
+
+			edgeOffsets[i] = offset / WIDTH;
+			System.arraycopy(source, 0, edges, offset, source.length);
+			offset += source.length;
+		}
+
+		edgeOffsets[moduleCount] = offset / WIDTH;
+
+		String[] typeNames = types.toArray(new String[types.size()]);
+		int[] typesByName = IntStream.range(0, typeNames.length).boxed() //
+				.sorted((left, right) -> typeNames[left].compareTo(typeNames[right])) //
+				.mapToInt(Integer::intValue) //
+				.toArray();
+
+		return new CondensedModules(typeNames, exposed, publicTypes, springBeans, //
+				modules.getAllowedDependencies().toBitSet(), //
+				moduleList.stream().map(Module::getName).toArray(String[]::new), //
+				moduleList.stream().map(Module::getDisplayName).toArray(String[]::new), //
+				moduleList.stream().map(it -> it.getBasePackage().getName()).toArray(String[]::new), //
+				modules.getRootPackages().stream().map(JavaPackage::getName).toArray(String[]::new), //
+				moduleList.stream().map(CondensedModules::getNamedInterfaces).toArray(String[][]::new), //
+				typeOffsets, edges, edgeOffsets, typesByName, modules.isVerified());
+	}
+
+	/**
+	 * Reads a {@link CondensedModules} snapshot previously written via {@link #writeTo(Path, BytecodeFingerprint)} from
+	 * the given file by mapping it into memory. Returns {@link Optional#empty()} in case the file doesn't exist, is not a
+	 * valid snapshot or was created for a different {@link BytecodeFingerprint}.
+	 *
+	 * @param file must not be {@literal null}.
+	 * @param fingerprint must not be {@literal null}.
+	 * @return
+	 */
+	public static Optional<CondensedModules> readFrom(Path file, BytecodeFingerprint fingerprint) {
+
+		Assert.notNull(file, "File must not be null!");
+		Assert.notNull(fingerprint, "Fingerprint must not be null!");
+
+		return CondensedModulesSnapshot.read(file, fingerprint);
+	}
+
+	/**
+	 * Reads a {@link CondensedModules} snapshot from the given {@link InputStream}. Other than
+	 * {@link #readFrom(Path, BytecodeFingerprint)}, this doesn't verify the snapshot was created for the current
+	 * classes, so it's meant to be used for snapshots packaged with the application at build time.
+	 *
+	 * @param stream must not be {@literal null}.
+	 * @param source a description of the stream's source for diagnostics, must not be {@literal null}.
+	 * @return the {@link CondensedModules} or {@link Optional#empty()} in case the stream doesn't contain a valid
+	 *         snapshot.
+	 */
+	public static Optional<CondensedModules> readFrom(InputStream stream, Object source) {
+
+		Assert.notNull(stream, "InputStream must not be null!");
+		Assert.notNull(source, "Source must not be null!");
+
+		return CondensedModulesSnapshot.read(stream, source);
+	}
+
+	/**
+	 * Returns the location of the snapshot for the given {@link de.olivergierke.moduliths.Modulith} type when packaged
+	 * with the application, relative to the classpath root.
+	 *
+	 * @param modulithType must not be {@literal null}.
+	 * @return
+	 */
+	public static String getPackagedSnapshotLocation(Class<?> modulithType) {
+
+		Assert.notNull(modulithType, "Modulith type must not be null!");
+
+		return PACKAGED_SNAPSHOT_DIRECTORY.concat(modulithType.getName()).concat(".snapshot");
+	}
+
+	/**
+	 * Writes the current {@link CondensedModules} as binary snapshot to the given file. The file is written to a
+	 * temporary file first and then atomically moved to the given location so that concurrent readers never see a
+	 * partially written snapshot.
+	 *
+	 * @param file must not be {@literal null}.
+	 * @param fingerprint the {@link BytecodeFingerprint} of the classes the model was created from, must not be
+	 *          {@literal null}.
+	 */
+	public void writeTo(Path file, BytecodeFingerprint fingerprint) {
+
+		Assert.notNull(file, "File must not be null!");
+		Assert.notNull(fingerprint, "Fingerprint must not be null!");
+
+		CondensedModulesSnapshot.write(this, file, fingerprint);
+	}
+
+	/**
+	 * Returns the {@link CondensedModule} with the given name.
+	 *
+	 * @param name must not be {@literal null} or empty.
+	 * @return
+	 */
+	public Optional<CondensedModule> getModuleByName(String name) {
+
+		Assert.hasText(name, "Module name must not be null or empty!");
+
+		return modules.stream().filter(it -> it.getName().equals(name)).findFirst();
+	}
+
+	/**
+	 * Returns the {@link CondensedModule} with the given base package.
+	 *
+	 * @param name must not be {@literal null} or empty.
+	 * @return
+	 */
+	public Optional<CondensedModule> getModuleByBasePackage(String name) {
+
+		Assert.hasText(name, "Package name must not be null or empty!");
+
+		return modules.stream().filter(it -> it.getBasePackage().equals(name)).findFirst();
+	}
+
+	/**
+	 * Returns the {@link CondensedModule} containing the type with the given name.
+	 *
+	 * @param className must not be {@literal null} or empty.
+	 * @return
+	 */
+	public Optional<CondensedModule> getModuleByType(String className) {
+
+		Assert.hasText(className, "Class name must not be null or empty!");
+
+		int module = getModuleIndex(getId(className));
+
+		return module == -1 ? Optional.empty() : Optional.of(modules.get(module));
+	}
+
+	/**
+	 * Returns whether the type with the given name is contained in any of the modules.
+	 *
+	 * @param className must not be {@literal null} or empty.
+	 * @return
+	 */
+	public boolean contains(String className) {
+		return getModuleByType(className).isPresent();
+	}
+
+	/**
+	 * Returns whether the type with the given name is contained in one of the root packages (not including
+	 * sub-packages) of the modules.
+	 *
+	 * @param className must not be {@literal null} or empty.
+	 * @return
+	 */
+	public boolean withinRootPackages(String className) {
+
+		Assert.hasText(className, "Class name must not be null or empty!");
+
+		int id = getId(className);
+
+		return id >= typeOffsets[names.length];
+	}
+
+	/**
+	 * Returns all modules ordered so that every module comes after the modules it depends on. Modules that are part of a
+	 * dependency cycle are appended in their original order once all other modules have been sorted.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public List<CondensedModule> sortTopologically() {
+
+		int[] pending = new int[names.length];
+		List<List<Integer>> dependents = IntStream.range(0, names.length) //
+				.mapToObj(it -> new ArrayList<Integer>()) //
+				.collect(Collectors.toList());
+
+		for (int module = 0; module < names.length; module++) {
+			for (int dependency : directDependencies[module]) {
+				if (dependency != module) {
+					pending[module]++;
+					dependents.get(dependency).add(module);
+				}
+			}
+		}
+
+		Deque<Integer> ready = new ArrayDeque<>();
+		IntStream.range(0, names.length).filter(it -> pending[it] == 0).forEach(ready::add);
+
+		Set<Integer> result = new LinkedHashSet<>(names.length);
+
+		while (!ready.isEmpty()) {
+
+			int current = ready.poll();
+			result.add(current);
+
+			for (int dependent : dependents.get(current)) {
+				if (--pending[dependent] == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+
+		IntStream.range(0, names.length).forEach(result::add);
+
+		return result.stream().map(modules::get).collect(Collectors.toList());
+	}
+
+	/**
+	 * Verifies that no module depends on a non-exposed type of another module or on a module it's not allowed to depend
+	 * on. Only inspects the dependencies if the {@link Modules} the current instance was created from haven't been
+	 * verified before condensing. Dependencies into non-exposed types are reported first. Note that this doesn't check
+	 * for cycles between the application's packages, as the condensed model doesn't keep the type dependencies needed to
+	 * do so. Use {@link Modules#verify()} if the model hasn't been verified before condensing (see {@link #isVerified()}).
+	 *
+	 * @throws IllegalStateException in case of a dependency into a non-exposed type or a module not allowed to depend on.
+	 */
+	public void verify() {
+
+		if (verified) {
+			return;
+		}
+
+		int disallowed = -1;
+
+		for (int i = 0; i < edges.length; i += WIDTH) {
+
+			int origin = edges[i + ORIGIN], target = edges[i + TARGET];
+
+			if (!exposed.get(target)) {
+
+				String violationText = String.format("Module '%s' depends on non-exposed type %s within module '%s'!",
+						names[getModuleIndex(origin)], types[target], names[getModuleIndex(target)]);
+
+				throw new IllegalStateException(violationText + lineSeparator() + describe(i));
+			}
+
+			if (disallowed < 0
+					&& !allowedDependencies.get(getModuleIndex(origin) * names.length + getModuleIndex(target))) {
+				disallowed = i;
+			}
+		}
+
+		if (disallowed >= 0) {
+
+			String violationText = String.format(
+					"Module '%s' depends on module '%s' which is not among its allowed dependencies!",
+					names[getModuleIndex(edges[disallowed + ORIGIN])], names[getModuleIndex(edges[disallowed + TARGET])]);
+
+			throw new IllegalStateException(violationText + lineSeparator() + describe(disallowed));
+		}
+	}
+
+	/**
+	 * Returns whether the {@link Modules} the current instance was created from had been fully verified, including the
+	 * check for cycles, before condensing.
+	 *
+	 * @return
+	 */
+	public boolean isVerified() {
+		return verified;
+	}
+
+	private String describe(int edge) {
+
+		return String.format("%s depends on %s via %s", types[edges[edge + ORIGIN]], types[edges[edge + TARGET]],
+				DependencyType.values()[edges[edge + TYPE]].name().toLowerCase(Locale.US).replace('_', ' '));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Iterable#iterator()
+	 */
+	@Override
+	public Iterator<CondensedModule> iterator() {
+		return modules.iterator();
+	}
+
+	private int getId(String className) {
+
+		int low = 0, high = typesByName.length - 1;
+
+		while (low <= high) {
+
+			int middle = (low + high) >>> 1;
+			int comparison = types[typesByName[middle]].compareTo(className);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return typesByName[middle];
+			}
+		}
+
+		return -1;
+	}
+
+	private int getModuleIndex(int id) {
+
+		if (id < 0 || id >= typeOffsets[names.length]) {
+			return -1;
+		}
+
+		int index = Arrays.binarySearch(typeOffsets, 0, names.length, id);
+
+		if (index < 0) {
+			return -index - 2;
+		}
+
+		// Skip modules without any types
+		while (index + 1 < names.length && typeOffsets[index + 1] == id) {
+			index++;
+		}
+
+		return index;
+	}
+
+	private int[] calculateDirectDependencies(int module) {
+
+		Set<Integer> result = new LinkedHashSet<>();
+
+		for (int i = edgeOffsets[module]; i < edgeOffsets[module + 1]; i++) {
+			result.add(getModuleIndex(edges[i * WIDTH + TARGET]));
+		}
+
+		return result.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static int[][] calculateDirectDependents(int[][] dependencies) {
+
+		List<List<Integer>> result = IntStream.range(0, dependencies.length) //
+				.mapToObj(it -> new ArrayList<Integer>()) //
+				.collect(Collectors.toList());
+
+		for (int module = 0; module < dependencies.length; module++) {
+			for (int dependency : dependencies[module]) {
+				result.get(dependency).add(module);
+			}
+		}
+
+		return result.stream() //
+				.map(it -> it.stream().mapToInt(Integer::intValue).toArray()) //
+				.toArray(int[][]::new);
+	}
+
+	/**
+	 * Traverses the given module graph breadth-first starting at the given module up to the given number of levels.
+	 *
+	 * @param graph the adjacency lists of the modules.
+	 * @param start the index of the module to start at, not included in the result.
+	 * @param levels
+	 * @return
+	 */
+	private List<CondensedModule> traverse(int[][] graph, int start, int levels) {
+
+		Set<Integer> result = new LinkedHashSet<>();
+		Deque<Integer> queue = new ArrayDeque<>();
+		Arrays.stream(graph[start]).forEach(queue::add);
+
+		for (int level = 0; level < levels && !queue.isEmpty(); level++) {
+
+			for (int remaining = queue.size(); remaining > 0; remaining--) {
+
+				int current = queue.poll();
+
+				if (current != start && result.add(current)) {
+					Arrays.stream(graph[current]).forEach(queue::add);
+				}
+			}
+		}
+
+		return result.stream().map(modules::get).collect(Collectors.toList());
+	}
+
+	private static String[] getNamedInterfaces(Module module) {
+
+		NamedInterfaces interfaces = module.getNamedInterfaces();
+
+		return interfaces.hasExplicitInterfaces() //
+				? interfaces.stream().map(NamedInterface::toString).toArray(String[]::new) //
+				: new String[0];
+	}
+
+	/**
+	 * A single module within {@link CondensedModules}.
+	 *
+	 * @author Oliver Gierke
+	 */
+	public class CondensedModule {
+
+		private final int index;
+
+		private CondensedModule(int index) {
+			this.index = index;
+		}
+
+		public String getName() {
+			return names[index];
+		}
+
+		public String getDisplayName() {
+			return displayNames[index];
+		}
+
+		public String getBasePackage() {
+			return basePackages[index];
+		}
+
+		/**
+		 * Returns whether the type with the given name is contained in the module.
+		 *
+		 * @param className must not be {@literal null} or empty.
+		 * @return
+		 */
+		public boolean contains(String className) {
+			return getModuleIndex(getId(className)) == index;
+		}
+
+		/**
+		 * Returns whether the type with the given name is exposed by the module.
+		 *
+		 * @param className must not be {@literal null} or empty.
+		 * @return
+		 */
+		public boolean isExposed(String className) {
+
+			int id = getId(className);
+
+			return getModuleIndex(id) == index && exposed.get(id);
+		}
+
+		/**
+		 * Returns all modules the current one depends on, using the given {@link DependencyDepth}.
+		 *
+		 * @param depth must not be {@literal null}.
+		 * @return
+		 */
+		public List<CondensedModule> getDependencies(DependencyDepth depth) {
+
+			Assert.notNull(depth, "Dependency depth must not be null!");
+
+			return getDependencies(depth.getLevels());
+		}
+
+		/**
+		 * Returns all modules the current one depends on, following the dependencies up to the given number of levels by
+		 * a breadth-first traversal of the module graph. Modules are returned in the order they're reached in.
+		 *
+		 * @param levels the number of levels of dependencies to follow, must not be negative.
+		 * @return
+		 */
+		public List<CondensedModule> getDependencies(int levels) {
+
+			Assert.isTrue(levels >= 0, "Number of dependency levels must not be negative!");
+
+			return traverse(directDependencies, index, levels);
+		}
+
+		/**
+		 * Returns all modules depending on the current one, using the given {@link DependencyDepth}. I.e.
+		 * {@link DependencyDepth#ALL} returns all modules that depend on the current one directly or transitively.
+		 *
+		 * @param depth must not be {@literal null}.
+		 * @return
+		 */
+		public List<CondensedModule> getDependents(DependencyDepth depth) {
+
+			Assert.notNull(depth, "Dependency depth must not be null!");
+
+			return traverse(directDependents, index, depth.getLevels());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+
+			StringBuilder builder = new StringBuilder("## ").append(getDisplayName()).append(" ##\n");
+			builder.append("> Logical name: ").append(getName()).append('\n');
+			builder.append("> Base package: ").append(getBasePackage()).append('\n');
+
+			if (namedInterfaces[index].length != 0) {
+
+				builder.append("> Named interfaces:\n");
+
+				Arrays.stream(namedInterfaces[index]).forEach(it -> builder.append("  + ") //
+						.append(it) //
+						.append('\n'));
+			}
+
+			List<CondensedModule> dependencies = getDependencies(DependencyDepth.IMMEDIATE);
+
+			builder.append("> Direct dependencies: ");
+			builder.append(dependencies.isEmpty() ? "none"
+					: dependencies.stream().map(CondensedModule::getName).collect(Collectors.joining(", ")));
+			builder.append('\n');
+
+			BitSet beans = springBeans.get(typeOffsets[index], typeOffsets[index + 1]);
+
+			if (beans.isEmpty()) {
+
+				builder.append("> Spring beans: none\n");
+
+			} else {
+
+				builder.append("> Spring beans:\n");
+				beans.stream().map(it -> it + typeOffsets[index]).forEach(it -> builder.append("  ") //
+						.append(publicTypes.get(it) ? "+" : "o") //
+						.append(' ') //
+						.append(types[it].replace(getBasePackage(), "…")) //
+						.append('\n'));
+			}
+
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Optional;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Reads and writes {@link CondensedModules} from and to a binary snapshot file. Snapshots are read by mapping the file
+ * into memory read-only, so that multiple JVMs reading the same snapshot share the operating system's page cache. The
+ * layout is:
+ * <ol>
+ * <li>Magic number, format version, the {@link BytecodeFingerprint} and the verification flag.</li>
+ * <li>The type name table and the ids of the types sorted by name.</li>
+ * <li>Name, display name, base package and named interfaces of each module.</li>
+ * <li>The root packages.</li>
+ * <li>Type and edge offsets per module, followed by the edge list.</li>
+ * <li>Exposed, public and Spring bean types as bit sets.</li>
+ * </ol>
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+class CondensedModulesSnapshot {
+
+	private static final int MAGIC = 0x4D4F444C; // MODL
+	private static final int VERSION = 2;
+
+	/**
+	 * Writes the given {@link CondensedModules} to the given file.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @param file must not be {@literal null}.
+	 * @param fingerprint must not be {@literal null}.
+	 */
+	static void write(CondensedModules modules, Path file, BytecodeFingerprint fingerprint) {
+
+		try {
+
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+
+			Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeString(out, fingerprint.toString());
+				out.writeBoolean(modules.verified);
+
+				writeStrings(out, modules.types);
+				writeInts(out, modules.typesByName);
+
+				out.writeInt(modules.names.length);
+
+				for (int i = 0; i < modules.names.length; i++) {
+					writeString(out, modules.names[i]);
+					writeString(out, modules.displayNames[i]);
+					writeString(out, modules.basePackages[i]);
+					writeStrings(out, modules.namedInterfaces[i]);
+				}
+
+				writeStrings(out, modules.rootPackages);
+				writeInts(out, modules.typeOffsets);
+				writeInts(out, modules.edgeOffsets);
+				writeInts(out, modules.edges);
+				writeBits(out, modules.exposed);
+				writeBits(out, modules.publicTypes);
+				writeBits(out, modules.springBeans);
+				writeBits(out, modules.allowedDependencies);
+			}
+
+			try {
+				Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the {@link CondensedModules} from the given file in case it exists and was written for the given
+	 * {@link BytecodeFingerprint}.
+	 *
+	 * @param file must not be {@literal null}.
+	 * @param fingerprint must not be {@literal null}.
+	 * @return
+	 */
+	static Optional<CondensedModules> read(Path file, BytecodeFingerprint fingerprint) {
+
+		if (!Files.isRegularFile(file)) {
+			return Optional.empty();
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return read(buffer, file, fingerprint);
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the {@link CondensedModules} from the given {@link InputStream} without checking the
+	 * {@link BytecodeFingerprint} it was written for. Meant for snapshots packaged with the application they were created
+	 * for.
+	 *
+	 * @param stream must not be {@literal null}.
+	 * @param source a description of the stream's source for diagnostics, must not be {@literal null}.
+	 * @return
+	 */
+	static Optional<CondensedModules> read(InputStream stream, Object source) {
+
+		try {
+			return read(ByteBuffer.wrap(StreamUtils.copyToByteArray(stream)), source, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Optional<CondensedModules> read(ByteBuffer buffer, Object source,
+			@Nullable BytecodeFingerprint fingerprint) {
+
+		try {
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+
+				LOG.debug("Ignoring snapshot {} as it's not a modules snapshot of version {}.", source, VERSION);
+				return Optional.empty();
+			}
+
+			String recordedFingerprint = readString(buffer);
+
+			if (fingerprint != null && !fingerprint.toString().equals(recordedFingerprint)) {
+
+				LOG.debug("Ignoring snapshot {} as it was created for different classes.", source);
+				return Optional.empty();
+			}
+
+			boolean verified = buffer.get() != 0;
+			String[] types = readStrings(buffer);
+			int[] typesByName = readInts(buffer);
+
+			int moduleCount = buffer.getInt();
+			String[] names = new String[moduleCount], displayNames = new String[moduleCount],
+					basePackages = new String[moduleCount];
+			String[][] namedInterfaces = new String[moduleCount][];
+
+			for (int i = 0; i < moduleCount; i++) {
+				names[i] = readString(buffer);
+				displayNames[i] = readString(buffer);
+				basePackages[i] = readString(buffer);
+				namedInterfaces[i] = readStrings(buffer);
+			}
+
+			String[] rootPackages = readStrings(buffer);
+			int[] typeOffsets = readInts(buffer);
+			int[] edgeOffsets = readInts(buffer);
+			int[] edges = readInts(buffer);
+			BitSet exposed = readBits(buffer);
+			BitSet publicTypes = readBits(buffer);
+			BitSet springBeans = readBits(buffer);
+			BitSet allowedDependencies = readBits(buffer);
+
+			return Optional.of(new CondensedModules(types, exposed, publicTypes, springBeans, allowedDependencies, names,
+					displayNames, basePackages, rootPackages, namedInterfaces, typeOffsets, edges, edgeOffsets, typesByName,
+					verified));
+
+		} catch (BufferUnderflowException e) {
+
+			LOG.debug("Ignoring truncated snapshot {}.", source);
+			return Optional.empty();
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+
+		out.writeInt(values.length);
+
+		for (String value : values) {
+			writeString(out, value);
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+
+		out.writeInt(values.length);
+
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static void writeBits(DataOutputStream out, BitSet bits) throws IOException {
+
+		long[] words = bits.toLongArray();
+
+		out.writeInt(words.length);
+
+		for (long word : words) {
+			out.writeLong(word);
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String[] readStrings(ByteBuffer buffer) {
+
+		String[] result = new String[buffer.getInt()];
+
+		for (int i = 0; i < result.length; i++) {
+			result[i] = readString(buffer);
+		}
+
+		return result;
+	}
+
+	private static int[] readInts(ByteBuffer buffer) {
+
+		int[] result = new int[buffer.getInt()];
+
+		buffer.asIntBuffer().get(result);
+		buffer.position(buffer.position() + result.length * Integer.BYTES);
+
+		return result;
+	}
+
+	private static BitSet readBits(ByteBuffer buffer) {
+
+		long[] words = new long[buffer.getInt()];
+
+		buffer.asLongBuffer().get(words);
+		buffer.position(buffer.position() + words.length * Long.BYTES);
+
+		return BitSet.valueOf(words);
+	}
+}
@@ -17,59 +17,59 @@ package de.olivergierke.moduliths.model;
 
 import static com.tngtech.archunit.core.domain.JavaClass.Predicates.*;
 
-import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.springframework.util.Assert;
+
 import com.tngtech.archunit.base.DescribedIterable;
 import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.core.domain.JavaClass;
-import com.tngtech.archunit.core.domain.properties.CanBeAnnotated;
 import com.tngtech.archunit.thirdparty.com.google.common.base.Supplier;
 import com.tngtech.archunit.thirdparty.com.google.common.base.Suppliers;
 
 /**
  * @author Oliver Gierke
  */
-@EqualsAndHashCode
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode(of = { "name", "includeSubPackages" })
 public class JavaPackage implements DescribedIterable<JavaClass> {
 
-	private static final String PACKAGE_INFO_NAME = "package-info";
-
 	private final @Getter String name;
-	private final Classes classes, packageClasses;
+	private final JavaPackages packages;
+	private final Classes packageClasses;
+	private final boolean includeSubPackages;
 	private final Supplier<Set<JavaPackage>> directSubPackages;
 
-	private JavaPackage(Classes classes, String name, boolean includeSubPackages) {
+	JavaPackage(JavaPackages packages, String name, boolean includeSubPackages) {
 
-		this.classes = classes;
-		this.packageClasses = classes.that(resideInAPackage(includeSubPackages ? name.concat("..") : name));
+		this.packages = packages;
+		this.includeSubPackages = includeSubPackages;
+		this.packageClasses = packages.getClasses().that(resideInAPackage(includeSubPackages ? name.concat("..") : name));
 		this.name = name;
 		this.directSubPackages = Suppliers.memoize(() -> packageClasses.stream() //
 				.map(it -> it.getPackage()) //
 				.filter(it -> !it.equals(name)) //
 				.map(it -> extractDirectSubPackage(it)) //
 				.distinct() //
-				.map(it -> forNested(classes, it)) //
+				.map(packages::getNested) //
 				.collect(Collectors.toSet()));
 	}
 
 	public static JavaPackage forNested(Classes classes, String name) {
-		return new JavaPackage(classes, name, true);
+		return JavaPackages.of(classes).getNested(name);
 	}
 
 	public JavaPackage toSingle() {
-		return new JavaPackage(classes, name, false);
+		return packages.getSingle(name);
 	}
 
 	public String getLocalName() {
@@ -100,10 +100,29 @@ public class JavaPackage implements DescribedIterable<JavaClass> {
 
 	public Stream<JavaPackage> getSubPackagesAnnotatedWith(Class<? extends Annotation> annotation) {
 
-		return packageClasses.that(CanBeAnnotated.Predicates.annotatedWith(annotation)).stream() //
+		return packages.getAnnotations().getTypesAnnotatedWith(annotation).stream() //
 				.map(JavaClass::getPackage) //
+				.filter(this::isWithin) //
 				.distinct() //
-				.map(it -> forNested(classes, it));
+				.map(packages::getNested);
+	}
+
+	/**
+	 * Returns all types of the package that are annotated with the given annotation, either directly or via a
+	 * meta-annotation.
+	 *
+	 * @param annotation must not be {@literal null}.
+	 * @return
+	 */
+	public Classes getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+
+		Assert.notNull(annotation, "Annotation type must not be null!");
+
+		List<JavaClass> result = packages.getAnnotations().getTypesMetaAnnotatedWith(annotation).stream() //
+				.filter(it -> isWithin(it.getPackage())) //
+				.collect(Collectors.toList());
+
+		return Classes.of(result, String.format("classes in %s annotated with @%s", name, annotation.getSimpleName()));
 	}
 
 	public Classes that(DescribedPredicate<? super JavaClass> predicate) {
@@ -122,12 +141,21 @@ public class JavaPackage implements DescribedIterable<JavaClass> {
 		return packageClasses.stream();
 	}
 
+	/**
+	 * Returns the annotation of the given type declared on the package, i.e. its {@code package-info} type.
+	 *
+	 * @param annotationType must not be {@literal null}.
+	 * @return
+	 */
 	public <A extends Annotation> Optional<A> getAnnotation(Class<A> annotationType) {
+		return packages.getAnnotations().getPackageAnnotation(name, annotationType);
+	}
+
+	private boolean isWithin(String packageName) {
 
-		return packageClasses.that(JavaClass.Predicates.simpleName(PACKAGE_INFO_NAME) //
-				.and(CanBeAnnotated.Predicates.annotatedWith(annotationType))) //
-				.toOptional() //
-				.map(it -> it.getAnnotationOfType(annotationType));
+		return includeSubPackages //
+				? packageName.equals(name) || packageName.startsWith(name.concat(".")) //
+				: packageName.equals(name);
 	}
 
 	/* 
@@ -136,7 +164,7 @@ public class JavaPackage implements DescribedIterable<JavaClass> {
 	 */
 	@Override
 	public String getDescription() {
-		return classes.getDescription();
+		return packages.getClasses().getDescription();
 	}
 
 	/* 
@@ -145,7 +173,7 @@ public class JavaPackage implements DescribedIterable<JavaClass> {
 	 */
 	@Override
 	public Iterator<JavaClass> iterator() {
-		return classes.iterator();
+		return packages.getClasses().iterator();
 	}
 
 	/* 
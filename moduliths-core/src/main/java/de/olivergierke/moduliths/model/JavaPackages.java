@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * Hands out canonical {@link JavaPackage} instances for a set of imported {@link Classes}, so that each package is only
+ * set up once and identity checks on packages are cheap.
+ *
+ * @author Oliver Gierke
+ */
+class JavaPackages {
+
+	private final @Getter Classes classes;
+	private final @Getter AnnotationIndex annotations;
+	private final Map<String, JavaPackage> nested, single;
+
+	private JavaPackages(Classes classes) {
+
+		this.classes = classes;
+		this.annotations = AnnotationIndex.of(classes);
+		this.nested = new ConcurrentHashMap<>();
+		this.single = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Creates a new {@link JavaPackages} for the given {@link Classes}.
+	 *
+	 * @param classes must not be {@literal null}.
+	 * @return
+	 */
+	static JavaPackages of(Classes classes) {
+
+		Assert.notNull(classes, "Classes must not be null!");
+
+		return new JavaPackages(classes);
+	}
+
+	/**
+	 * Returns the {@link JavaPackage} with the given name including all its sub-packages.
+	 *
+	 * @param name must not be {@literal null} or empty.
+	 * @return
+	 */
+	JavaPackage getNested(String name) {
+		return nested.computeIfAbsent(name, it -> new JavaPackage(this, it, true));
+	}
+
+	/**
+	 * Returns the {@link JavaPackage} with the given name, not including its sub-packages.
+	 *
+	 * @param name must not be {@literal null} or empty.
+	 * @return
+	 */
+	JavaPackage getSingle(String name) {
+		return single.computeIfAbsent(name, it -> new JavaPackage(this, it, false));
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.thirdparty.com.google.common.base.Supplier;
+import com.tngtech.archunit.thirdparty.com.google.common.base.Suppliers;
+
+/**
+ * @author Oliver Gierke
+ */
+@EqualsAndHashCode(of = "basePackage")
+public class Module {
+
+	private static final String REPOSITORY_TYPE = "org.springframework.data.repository.Repository";
+
+	private final @Getter JavaPackage basePackage;
+	private final Optional<de.olivergierke.moduliths.Module> moduleAnnotation;
+	private final @Getter NamedInterfaces namedInterfaces;
+	private final Set<String> exposedTypes;
+	private final boolean useFullyQualifiedModuleNames;
+
+	private final Supplier<Classes> springBeans;
+
+	Module(JavaPackage basePackage, boolean useFullyQualifiedModuleNames) {
+
+		this.basePackage = basePackage;
+		this.moduleAnnotation = basePackage.getAnnotation(de.olivergierke.moduliths.Module.class);
+		this.namedInterfaces = discoverNamedInterfaces(basePackage);
+		this.exposedTypes = namedInterfaces.stream() //
+				.flatMap(it -> it.getTypeNames().stream()) //
+				.collect(Collectors.toSet());
+		this.useFullyQualifiedModuleNames = useFullyQualifiedModuleNames;
+
+		this.springBeans = Suppliers.memoize(() -> basePackage.getTypesAnnotatedWith(Component.class) //
+				.and(basePackage.that(JavaClass.Predicates.assignableTo(REPOSITORY_TYPE))));
+	}
+
+	private static NamedInterfaces discoverNamedInterfaces(JavaPackage basePackage) {
+
+		List<NamedInterface> explicitlyAnnotated = basePackage
+				.getSubPackagesAnnotatedWith(de.olivergierke.moduliths.NamedInterface.class) //
+				.map(NamedInterface::of) //
+				.collect(Collectors.toList());
+
+		return NamedInterfaces.of(explicitlyAnnotated.isEmpty() //
+				? Collections.singletonList(NamedInterface.unnamed(basePackage)) //
+				: explicitlyAnnotated);
+	}
+
+	public String getName() {
+		return useFullyQualifiedModuleNames ? basePackage.getName() : basePackage.getLocalName();
+	}
+
+	public String getDisplayName() {
+
+		return moduleAnnotation.map(de.olivergierke.moduliths.Module::displayName) //
+				.orElseGet(() -> basePackage.getLocalName());
+	}
+
+	/**
+	 * Returns the names of the modules the current one is explicitly allowed to depend on. An empty {@link List} means
+	 * that no restrictions have been declared.
+	 *
+	 * @return
+	 * @see de.olivergierke.moduliths.Module#allowedDependencies()
+	 */
+	public List<String> getAllowedDependencies() {
+
+		return moduleAnnotation.map(it -> Arrays.asList(it.allowedDependencies())) //
+				.orElseGet(Collections::emptyList);
+	}
+
+	/**
+	 * Returns all modules that contain types which the types of the current module depend on.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @return
+	 */
+	public List<Module> getDependencies(Modules modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		return getDependencies(modules, DependencyDepth.IMMEDIATE);
+	}
+
+	public List<Module> getDependencies(Modules modules, DependencyDepth depth) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.notNull(depth, "Dependency depth must not be null!");
+
+		return getDependencies(modules, depth.getLevels());
+	}
+
+	/**
+	 * Returns all modules that contain types which the types of the current module depend on, following the
+	 * dependencies up to the given number of levels.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @param levels the number of levels of dependencies to follow, must not be negative.
+	 * @return
+	 */
+	public List<Module> getDependencies(Modules modules, int levels) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.isTrue(levels >= 0, "Number of dependency levels must not be negative!");
+
+		Set<Module> result = new LinkedHashSet<>();
+		List<Module> current = Collections.singletonList(this);
+
+		for (int level = 0; level < levels && !current.isEmpty(); level++) {
+
+			List<Module> next = new ArrayList<>();
+
+			for (Module module : current) {
+				module.getDirectDependencies(modules) //
+						.filter(it -> !it.equals(this) && result.add(it)) //
+						.forEach(next::add);
+			}
+
+			current = next;
+		}
+
+		return new ArrayList<>(result);
+	}
+
+	/**
+	 * Returns all {@link JavaPackage} for the current module including the ones by its dependencies.
+	 * 
+	 * @param modules must not be {@literal null}.
+	 * @param depth must not be {@literal null}.
+	 * @return
+	 */
+	public Stream<JavaPackage> getBasePackages(Modules modules, DependencyDepth depth) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.notNull(depth, "Dependency depth must not be null!");
+
+		Stream<Module> dependencies = getDependencies(modules, depth).stream();
+
+		return Stream.concat(Stream.of(this), dependencies) //
+				.map(Module::getBasePackage);
+	}
+
+	public Classes getSpringBeans() {
+		return springBeans.get();
+	}
+
+	/**
+	 * Returns all types of the module annotated with the given annotation, either directly or via a meta-annotation.
+	 *
+	 * @param annotation must not be {@literal null}.
+	 * @return
+	 */
+	public Classes getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+		return basePackage.getTypesAnnotatedWith(annotation);
+	}
+
+	public boolean contains(JavaClass type) {
+		return basePackage.contains(type);
+	}
+
+	/**
+	 * Returns whether the given {@link JavaClass} is exposed by the current module, i.e. whether it's part of any of the
+	 * module's named interfaces.
+	 * 
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	public boolean isExposed(JavaClass type) {
+
+		Assert.notNull(type, "Type must not be null!");
+
+		return exposedTypes.contains(type.getName());
+	}
+
+	public void verifyDependencies(Modules modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		modules.getDependencies(this).verify(modules.getAllowedDependencies());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return toString(null);
+	}
+
+	public String toString(@Nullable Modules modules) {
+
+		StringBuilder builder = new StringBuilder("## ").append(getDisplayName()).append(" ##\n");
+		builder.append("> Logical name: ").append(getName()).append('\n');
+		builder.append("> Base package: ").append(basePackage.getName()).append('\n');
+
+		if (namedInterfaces.hasExplicitInterfaces()) {
+
+			builder.append("> Named interfaces:\n");
+
+			namedInterfaces.forEach(it -> builder.append("  + ") //
+					.append(it.toString()) //
+					.append('\n'));
+		}
+
+		if (modules != null) {
+
+			List<Module> dependencies = getDependencies(modules);
+
+			builder.append("> Direct dependencies: ");
+			builder.append(dependencies.isEmpty() ? "none"
+					: dependencies.stream().map(Module::getName).collect(Collectors.joining(", ")));
+			builder.append('\n');
+		}
+
+		Classes beans = getSpringBeans();
+
+		if (beans.isEmpty()) {
+
+			builder.append("> Spring beans: none\n");
+
+		} else {
+
+			builder.append("> Spring beans:\n");
+			beans.forEach(it -> builder.append("  ") //
+					.append(Classes.format(it, basePackage.getName()))//
+					.append('\n'));
+		}
+
+		return builder.toString();
+	}
+
+	private Stream<Module> getDirectDependencies(Modules modules) {
+		return modules.getDependencies(this).getTargetModules().stream();
+	}
+
+	/**
+	 * The depth up to which to follow the dependencies of a module.
+	 *
+	 * @author Oliver Gierke
+	 * @see Module#getDependencies(Modules, int)
+	 */
+	@RequiredArgsConstructor
+	public enum DependencyDepth {
+
+		NONE(0),
+
+		IMMEDIATE(1),
+
+		ALL(Integer.MAX_VALUE);
+
+		/**
+		 * The number of levels of dependencies to follow.
+		 */
+		private final @Getter int levels;
+	}
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import static com.tngtech.archunit.core.domain.Formatters.*;
+import static java.lang.System.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.util.Assert;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+
+/**
+ * The dependencies of the types of a {@link Module} to types of other modules. Every dependency is stored as a triple
+ * of primitive values: the id of the origin type, the id of the target type (both as assigned by the {@link TypeIndex})
+ * and the ordinal of its {@link DependencyType}. The human readable description of a dependency is only rendered once
+ * it's actually reported as violation.
+ *
+ * @author Oliver Gierke
+ */
+class ModuleDependencies {
+
+	private static final int ORIGIN = 0, TARGET = 1, TYPE = 2, WIDTH = 3;
+	private static final DependencyType[] TYPES = DependencyType.values();
+
+	private final Module module;
+	private final TypeIndex types;
+
+	private int[] edges;
+	private int size;
+
+	private ModuleDependencies(Module module, TypeIndex types) {
+
+		this.module = module;
+		this.types = types;
+		this.edges = new int[16 * WIDTH];
+
+		module.getBasePackage().stream().forEach(this::addDependenciesOf);
+	}
+
+	/**
+	 * Creates the {@link ModuleDependencies} of the given {@link Module}.
+	 *
+	 * @param module must not be {@literal null}.
+	 * @param types must not be {@literal null}.
+	 * @return
+	 */
+	static ModuleDependencies of(Module module, TypeIndex types) {
+
+		Assert.notNull(module, "Module must not be null!");
+		Assert.notNull(types, "TypeIndex must not be null!");
+
+		return new ModuleDependencies(module, types);
+	}
+
+	/**
+	 * Returns all modules the types of the current module depend on in the order they're first referred to.
+	 *
+	 * @return
+	 */
+	List<Module> getTargetModules() {
+
+		Set<Module> result = new LinkedHashSet<>();
+
+		for (int i = 0; i < size; i++) {
+			result.add(types.getModule(edges[i * WIDTH + TARGET]));
+		}
+
+		return new ArrayList<>(result);
+	}
+
+	/**
+	 * Verifies that all dependencies only refer to types exposed by the target module and only to modules the current
+	 * one is allowed to depend on. Dependencies into non-exposed types are reported first.
+	 *
+	 * @param allowed must not be {@literal null}.
+	 * @throws IllegalStateException in case a dependency to a non-exposed type or a module not allowed to depend on is
+	 *           found.
+	 */
+	void verify(AllowedDependencies allowed) {
+
+		Assert.notNull(allowed, "AllowedDependencies must not be null!");
+
+		int disallowed = -1;
+
+		for (int i = 0; i < size; i++) {
+
+			int target = edges[i * WIDTH + TARGET];
+			Module targetModule = types.getModule(target);
+			JavaClass targetType = types.getType(target);
+
+			if (!targetModule.isExposed(targetType)) {
+
+				String violationText = String.format("Module '%s' depends on non-exposed type %s within module '%s'!",
+						module.getName(), targetType.getName(), targetModule.getName());
+
+				throw new IllegalStateException(violationText + lineSeparator() + describe(i));
+			}
+
+			if (disallowed < 0 && !allowed.isAllowed(types.getModuleIndex(edges[i * WIDTH + ORIGIN]),
+					types.getModuleIndex(target))) {
+				disallowed = i;
+			}
+		}
+
+		if (disallowed >= 0) {
+
+			String violationText = String.format(
+					"Module '%s' depends on module '%s' which is not among its allowed dependencies!", module.getName(),
+					types.getModule(edges[disallowed * WIDTH + TARGET]).getName());
+
+			throw new IllegalStateException(violationText + lineSeparator() + describe(disallowed));
+		}
+	}
+
+	/**
+	 * Returns a copy of all dependencies as consecutive triples of origin type id, target type id and the ordinal of the
+	 * {@link DependencyType}.
+	 *
+	 * @return
+	 */
+	int[] getEdges() {
+		return Arrays.copyOf(edges, size * WIDTH);
+	}
+
+	/**
+	 * Renders the description of the dependency with the given index.
+	 *
+	 * @param index
+	 * @return
+	 */
+	private String describe(int index) {
+
+		JavaClass origin = types.getType(edges[index * WIDTH + ORIGIN]);
+		JavaClass target = types.getType(edges[index * WIDTH + TARGET]);
+
+		return TYPES[edges[index * WIDTH + TYPE]].describe(origin, target) //
+				.collect(Collectors.joining(lineSeparator()));
+	}
+
+	private void addDependenciesOf(JavaClass type) {
+
+		int origin = types.getId(type);
+
+		if (origin == TypeIndex.UNKNOWN) {
+			return;
+		}
+
+		Set<Long> seen = new HashSet<>();
+
+		type.getDirectDependenciesFromSelf().forEach(it -> add(origin, it.getTargetClass(), DependencyType.DIRECT, seen));
+
+		type.getCodeUnits().forEach(it -> {
+			it.getParameters().forEach(parameter -> add(origin, parameter, DependencyType.PARAMETER, seen));
+			add(origin, it.getReturnType(), DependencyType.RETURN_TYPE, seen);
+		});
+
+		type.getFields().forEach(it -> add(origin, it.getType(), DependencyType.FIELD, seen));
+	}
+
+	private void add(int origin, JavaClass targetType, DependencyType type, Set<Long> seen) {
+
+		int target = types.getId(targetType);
+
+		if (target == TypeIndex.UNKNOWN || types.getModule(target) == module) {
+			return;
+		}
+
+		if (!seen.add(((long) target << 8) | type.ordinal())) {
+			return;
+		}
+
+		if ((size + 1) * WIDTH > edges.length) {
+			edges = Arrays.copyOf(edges, edges.length * 2);
+		}
+
+		int offset = size++ * WIDTH;
+
+		edges[offset + ORIGIN] = origin;
+		edges[offset + TARGET] = target;
+		edges[offset + TYPE] = type.ordinal();
+	}
+
+	/**
+	 * The different kinds of type dependencies we detect.
+	 *
+	 * @author Oliver Gierke
+	 */
+	enum DependencyType {
+
+		/**
+		 * A dependency detected by ArchUnit, like method calls, field accesses or inheritance.
+		 */
+		DIRECT {
+
+			@Override
+			Stream<String> describe(JavaClass origin, JavaClass target) {
+
+				return origin.getDirectDependenciesFromSelf().stream() //
+						.filter(it -> it.getTargetClass().getName().equals(target.getName())) //
+						.map(Dependency::getDescription);
+			}
+		},
+
+		/**
+		 * A constructor or method parameter.
+		 */
+		PARAMETER {
+
+			@Override
+			Stream<String> describe(JavaClass origin, JavaClass target) {
+
+				return origin.getCodeUnits().stream() //
+						.filter(it -> it.getParameters().stream().anyMatch(parameter -> isSame(parameter, target))) //
+						.map(it -> createDescription(it, target, "parameter"));
+			}
+		},
+
+		/**
+		 * A method return type.
+		 */
+		RETURN_TYPE {
+
+			@Override
+			Stream<String> describe(JavaClass origin, JavaClass target) {
+
+				return origin.getCodeUnits().stream() //
+						.filter(it -> isSame(it.getReturnType(), target)) //
+						.map(it -> createDescription(it, target, "return type"));
+			}
+		},
+
+		/**
+		 * The type of a field.
+		 */
+		FIELD {
+
+			@Override
+			Stream<String> describe(JavaClass origin, JavaClass target) {
+
+				return origin.getFields().stream() //
+						.filter(it -> isSame(it.getType(), target)) //
+						.map(it -> String.format("field %s is of type %s in %s", it.getFullName(), it.getType().getName(),
+								formatLocation(it.getOwner(), 0)));
+			}
+		};
+
+		/**
+		 * Renders the descriptions of all dependencies of the given kind between the given origin and target type.
+		 *
+		 * @param origin must not be {@literal null}.
+		 * @param target must not be {@literal null}.
+		 * @return
+		 */
+		abstract Stream<String> describe(JavaClass origin, JavaClass target);
+
+		private static boolean isSame(JavaClass left, JavaClass right) {
+			return left.getName().equals(right.getName());
+		}
+
+		private static String createDescription(JavaCodeUnit codeUnit, JavaClass declaredElement,
+				String declarationDescription) {
+
+			String codeUnitDescription = formatMethod(codeUnit.getOwner().getName(), codeUnit.getName(),
+					codeUnit.getParameters());
+			String declaration = declarationDescription + " " + declaredElement.getName();
+			String location = formatLocation(codeUnit.getOwner(), 0);
+
+			return String.format("%s declares %s in %s", codeUnitDescription, declaration, location);
+		}
+	}
+}
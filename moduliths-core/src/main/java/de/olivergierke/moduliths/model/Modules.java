@@ -20,27 +20,35 @@ import static java.util.stream.Collectors.*;
 
 import de.olivergierke.moduliths.Modulith;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.core.importer.ClassFileImporter;
 import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.core.importer.Locations;
 import com.tngtech.archunit.library.dependencies.SlicesRuleDefinition;
 
 /**
@@ -57,10 +65,13 @@ public class Modules implements Iterable<Module> {
 	private final Map<String, Module> modules;
 	private final JavaClasses allClasses;
 	private final List<JavaPackage> rootPackages;
+	private final TypeIndex types;
+	private final AllowedDependencies allowedDependencies;
+	private final Map<String, ModuleDependencies> dependencies;
 
 	private boolean verified;
 
-	private Modules(Collection<String> packages, DescribedPredicate<JavaClass> ignored,
+	private Modules(ClassLoader classLoader, Collection<String> packages, DescribedPredicate<JavaClass> ignored,
 			boolean useFullyQualifiedModuleNames) {
 
 		List<String> toImport = new ArrayList<>(packages);
@@ -68,19 +79,23 @@ public class Modules implements Iterable<Module> {
 
 		this.allClasses = new ClassFileImporter() //
 				.withImportOption(new ImportOption.DontIncludeTests()) //
-				.importPackages(toImport) //
+				.importLocations(getPackageLocations(classLoader, toImport)) //
 				.that(not(ignored));
 
-		Classes classes = Classes.of(allClasses);
+		JavaPackages javaPackages = JavaPackages.of(Classes.of(allClasses));
 
 		this.modules = packages.stream() //
-				.flatMap(it -> getSubpackages(classes, it)) //
+				.flatMap(it -> javaPackages.getNested(it).getDirectSubPackages().stream()) //
 				.map(it -> new Module(it, useFullyQualifiedModuleNames)) //
 				.collect(toMap(Module::getName, Function.identity()));
 
 		this.rootPackages = packages.stream() //
-				.map(it -> JavaPackage.forNested(classes, it).toSingle()) //
+				.map(javaPackages::getSingle) //
 				.collect(Collectors.toList());
+
+		this.types = TypeIndex.of(modules.values());
+		this.allowedDependencies = AllowedDependencies.of(types.getModules());
+		this.dependencies = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -108,17 +123,80 @@ public class Modules implements Iterable<Module> {
 		Assert.notNull(modulithType, "Modulith root type must not be null!");
 		Assert.notNull(ignored, "Predicate to describe ignored types must not be null!");
 
-		Modulith modulith = AnnotatedElementUtils.findMergedAnnotation(modulithType, Modulith.class);
+		Modulith modulith = getModulith(modulithType);
 
-		Assert.notNull(modulith,
-				() -> String.format("Modules can only be retrieved from a @%s root type, but %s is not annotated with @%s",
-						Modulith.class.getSimpleName(), modulithType.getSimpleName(), Modulith.class.getSimpleName()));
+		ClassLoader classLoader = modulithType.getClassLoader() == null //
+				? ClassUtils.getDefaultClassLoader() //
+				: modulithType.getClassLoader();
+
+		return new Modules(classLoader, getRootPackages(modulithType, modulith), ignored,
+				modulith.useFullyQualifiedModuleNames());
+	}
+
+	/**
+	 * Returns the {@link Location}s of the given packages as seen by the given {@link ClassLoader}. We don't let ArchUnit
+	 * resolve the packages itself in the first place, as it only considers the JVM's classpath, which doesn't include the
+	 * application's classes when running inside a build tool. However, {@link ClassLoader#getResources(String)} doesn't
+	 * find packages in JARs built without directory entries, so we fall back to ArchUnit's resolution for packages the
+	 * {@link ClassLoader} doesn't find.
+	 *
+	 * @param classLoader must not be {@literal null}.
+	 * @param packages must not be {@literal null}.
+	 * @return
+	 */
+	private static Set<Location> getPackageLocations(ClassLoader classLoader, Collection<String> packages) {
+
+		Set<Location> locations = new LinkedHashSet<>();
+
+		try {
+
+			for (String packageName : packages) {
+
+				List<URL> urls = Collections
+						.list(classLoader.getResources(ClassUtils.convertClassNameToResourcePath(packageName)));
+
+				locations.addAll(urls.isEmpty() ? Locations.ofPackage(packageName) : Locations.of(urls));
+			}
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return locations;
+	}
+
+	/**
+	 * Returns the names of the root packages of the given modulith type, i.e. its own package as well as the additional
+	 * ones declared on {@link Modulith}.
+	 *
+	 * @param modulithType must not be {@literal null}.
+	 * @return
+	 */
+	static Set<String> getRootPackages(Class<?> modulithType) {
+
+		Assert.notNull(modulithType, "Modulith root type must not be null!");
+
+		return getRootPackages(modulithType, getModulith(modulithType));
+	}
+
+	private static Set<String> getRootPackages(Class<?> modulithType, Modulith modulith) {
 
 		Set<String> basePackages = new HashSet<>();
 		basePackages.add(modulithType.getPackage().getName());
 		basePackages.addAll(Arrays.asList(modulith.additionalPackages()));
 
-		return new Modules(basePackages, ignored, modulith.useFullyQualifiedModuleNames());
+		return basePackages;
+	}
+
+	private static Modulith getModulith(Class<?> modulithType) {
+
+		Modulith modulith = AnnotatedElementUtils.findMergedAnnotation(modulithType, Modulith.class);
+
+		Assert.notNull(modulith,
+				() -> String.format("Modules can only be retrieved from a @%s root type, but %s is not annotated with @%s",
+						Modulith.class.getSimpleName(), modulithType.getSimpleName(), Modulith.class.getSimpleName()));
+
+		return modulith;
 	}
 
 	/**
@@ -131,8 +209,7 @@ public class Modules implements Iterable<Module> {
 
 		Assert.notNull(type, "Type must not be null!");
 
-		return modules.values().stream() //
-				.anyMatch(module -> module.contains(type));
+		return types.getId(type) != TypeIndex.UNKNOWN;
 	}
 
 	/**
@@ -172,9 +249,7 @@ public class Modules implements Iterable<Module> {
 
 		Assert.notNull(type, "Type must not be null!");
 
-		return modules.values().stream() //
-				.filter(it -> it.contains(type)) //
-				.findFirst();
+		return types.getModule(type);
 	}
 
 	public Optional<Module> getModuleByBasePackage(String name) {
@@ -201,6 +276,44 @@ public class Modules implements Iterable<Module> {
 		this.verified = true;
 	}
 
+	/**
+	 * Condenses the current {@link Modules} into a memory-compact model that doesn't refer to the imported ArchUnit types
+	 * anymore. Calculates the dependencies of all modules. Will carry over the verification state, so that
+	 * {@link CondensedModules#verify()} doesn't have to check the dependencies again in case the current instance has
+	 * been verified already.
+	 *
+	 * @return
+	 */
+	public CondensedModules condense() {
+		return CondensedModules.of(this);
+	}
+
+	/**
+	 * Returns the {@link ModuleDependencies} of the given {@link Module}, calculating them on first access.
+	 *
+	 * @param module must not be {@literal null}.
+	 * @return
+	 */
+	ModuleDependencies getDependencies(Module module) {
+		return dependencies.computeIfAbsent(module.getName(), it -> ModuleDependencies.of(module, types));
+	}
+
+	AllowedDependencies getAllowedDependencies() {
+		return allowedDependencies;
+	}
+
+	TypeIndex getTypeIndex() {
+		return types;
+	}
+
+	List<JavaPackage> getRootPackages() {
+		return rootPackages;
+	}
+
+	boolean isVerified() {
+		return verified;
+	}
+
 	/* 
 	 * (non-Javadoc)
 	 * @see java.lang.Iterable#iterator()
@@ -209,8 +322,4 @@ public class Modules implements Iterable<Module> {
 	public Iterator<Module> iterator() {
 		return modules.values().iterator();
 	}
-
-	private static Stream<JavaPackage> getSubpackages(Classes types, String rootPackage) {
-		return JavaPackage.forNested(types, rootPackage).getDirectSubPackages().stream();
-	}
 }
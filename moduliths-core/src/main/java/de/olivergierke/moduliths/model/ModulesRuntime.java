@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import de.olivergierke.moduliths.Modulith;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Provides access to the {@link CondensedModules} of a running application. The model is created once per
+ * {@link Modulith} type and shared by all application contexts bootstrapped for it, so that runtime components don't
+ * have to keep the imported class graph around. The models are only weakly referenced by their {@link Modulith} type,
+ * so that they don't keep the class loaders of discarded applications (e.g. after a restart by Spring Boot's devtools)
+ * from being garbage collected.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+public class ModulesRuntime {
+
+	private static final Map<Class<?>, CondensedModules> MODELS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final Class<?> modulithType;
+
+	private ModulesRuntime(Class<?> modulithType) {
+		this.modulithType = modulithType;
+	}
+
+	/**
+	 * Creates a new {@link ModulesRuntime} for the given modulith type.
+	 *
+	 * @param modulithType must not be {@literal null}.
+	 * @return
+	 */
+	public static ModulesRuntime of(Class<?> modulithType) {
+
+		Assert.notNull(modulithType, "Modulith type must not be null!");
+		Assert.isTrue(AnnotatedElementUtils.hasAnnotation(modulithType, Modulith.class),
+				() -> String.format("%s is not annotated with @%s!", modulithType.getName(), Modulith.class.getSimpleName()));
+
+		return new ModulesRuntime(modulithType);
+	}
+
+	/**
+	 * Creates a new {@link ModulesRuntime} for the {@link Modulith} type registered as bean definition in the given
+	 * {@link ConfigurableListableBeanFactory}. Only inspects the bean definitions, i.e. doesn't cause any beans to be
+	 * instantiated.
+	 *
+	 * @param beanFactory must not be {@literal null}.
+	 * @return
+	 * @throws IllegalStateException in case no bean definition of a type annotated with {@link Modulith} can be found.
+	 */
+	public static ModulesRuntime of(ConfigurableListableBeanFactory beanFactory) {
+
+		Assert.notNull(beanFactory, "BeanFactory must not be null!");
+
+		return Arrays.stream(beanFactory.getBeanDefinitionNames()) //
+				.map(beanFactory::getBeanDefinition) //
+				.map(it -> resolveType(it, beanFactory.getBeanClassLoader())) //
+				.flatMap(it -> it.map(Stream::of).orElseGet(Stream::empty)) //
+				.filter(it -> AnnotatedElementUtils.hasAnnotation(it, Modulith.class)) //
+				.findFirst() //
+				.map(ModulesRuntime::new) //
+				.orElseThrow(() -> new IllegalStateException(
+						String.format("Couldn't find a bean definition of a type annotated with @%s!", Modulith.class.getSimpleName())));
+	}
+
+	/**
+	 * Returns the type annotated with {@link Modulith}.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Class<?> getModulithType() {
+		return modulithType;
+	}
+
+	/**
+	 * Returns the {@link CondensedModules} of the application. Uses the snapshot packaged with the application at build
+	 * time if present (see {@link CondensedModules#getPackagedSnapshotLocation(Class)}), so that no bytecode has to be
+	 * imported at runtime. Otherwise imports and condenses the application's types on first access, which is logged as
+	 * warning as it considerably slows down the startup.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public CondensedModules getModules() {
+
+		return MODELS.computeIfAbsent(modulithType, it -> readPackagedSnapshot(it).orElseGet(() -> {
+
+			LOG.warn("No module model snapshot found at {}! Importing the bytecode of {} to create the module model, which "
+					+ "slows down the startup. Package a snapshot with the application by running the moduliths-maven-plugin's "
+					+ "verify-modules goal with writeSnapshot enabled.", CondensedModules.getPackagedSnapshotLocation(it),
+					it.getName());
+
+			return Modules.of(it).condense();
+		}));
+	}
+
+	private static Optional<CondensedModules> readPackagedSnapshot(Class<?> modulithType) {
+
+		String location = CondensedModules.getPackagedSnapshotLocation(modulithType);
+		ClassLoader classLoader = modulithType.getClassLoader();
+		URL resource = classLoader == null ? null : classLoader.getResource(location);
+
+		if (resource == null) {
+			return Optional.empty();
+		}
+
+		LOG.debug("Using packaged module model snapshot {}.", resource);
+
+		try (InputStream stream = resource.openStream()) {
+			return CondensedModules.readFrom(stream, resource);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Optional<Class<?>> resolveType(BeanDefinition definition, ClassLoader classLoader) {
+
+		String className = definition.getBeanClassName();
+
+		if (className == null || definition.getFactoryMethodName() != null) {
+			return Optional.empty();
+		}
+
+		try {
+			return Optional.of(ClassUtils.forName(className, classLoader));
+		} catch (ClassNotFoundException | LinkageError e) {
+			return Optional.empty();
+		}
+	}
+}
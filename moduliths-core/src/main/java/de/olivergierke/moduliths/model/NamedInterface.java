@@ -15,8 +15,12 @@
  */
 package de.olivergierke.moduliths.model;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.util.Assert;
 
 import com.tngtech.archunit.core.domain.JavaClass;
@@ -24,12 +28,14 @@ import com.tngtech.archunit.core.domain.JavaClass;
 /**
  * @author Oliver Gierke
  */
+@EqualsAndHashCode(of = { "javaPackage", "name" })
 public class NamedInterface {
 
 	private static final String UNNAMED_NAME = "<<UNNAMED>>";
 
 	private final JavaPackage javaPackage;
 	private final @Getter String name;
+	private final Set<String> typeNames;
 
 	private NamedInterface(JavaPackage javaPackage, String name) {
 
@@ -38,6 +44,9 @@ public class NamedInterface {
 
 		this.javaPackage = javaPackage.toSingle();
 		this.name = name;
+		this.typeNames = this.javaPackage.stream() //
+				.map(JavaClass::getName) //
+				.collect(Collectors.toSet());
 	}
 
 	static NamedInterface unnamed(JavaPackage javaPackage) {
@@ -58,7 +67,16 @@ public class NamedInterface {
 	}
 
 	public boolean contains(JavaClass type) {
-		return javaPackage.contains(type);
+		return typeNames.contains(type.getName());
+	}
+
+	/**
+	 * Returns the names of all types that are part of the named interface.
+	 *
+	 * @return
+	 */
+	Set<String> getTypeNames() {
+		return typeNames;
 	}
 
 	/*
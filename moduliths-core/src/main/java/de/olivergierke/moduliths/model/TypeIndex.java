@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.util.Assert;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+
+/**
+ * Assigns numeric ids to all types contained in {@link Module}s. Ids are handed out module by module, so that the types
+ * of a single module occupy a contiguous id range. Modules themselves are numbered in iteration order as well.
+ *
+ * @author Oliver Gierke
+ */
+class TypeIndex {
+
+	static final int UNKNOWN = -1;
+
+	private final List<Module> modules;
+	private final List<JavaClass> types;
+	private final List<Module> owners;
+	private final Map<String, Integer> ids;
+
+	private int[] ownerIndexes;
+
+	private TypeIndex(Collection<Module> modules) {
+
+		this.modules = new ArrayList<>(modules);
+		this.types = new ArrayList<>();
+		this.owners = new ArrayList<>();
+		this.ids = new HashMap<>();
+		this.ownerIndexes = new int[16];
+
+		for (int i = 0; i < this.modules.size(); i++) {
+
+			Module module = this.modules.get(i);
+			int moduleIndex = i;
+
+			module.getBasePackage().stream().forEach(type -> {
+
+				if (ids.putIfAbsent(type.getName(), types.size()) == null) {
+
+					if (types.size() == ownerIndexes.length) {
+						ownerIndexes = Arrays.copyOf(ownerIndexes, ownerIndexes.length * 2);
+					}
+
+					ownerIndexes[types.size()] = moduleIndex;
+					types.add(type);
+					owners.add(module);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Creates a new {@link TypeIndex} for all types contained in the given {@link Module}s.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @return
+	 */
+	static TypeIndex of(Collection<Module> modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		return new TypeIndex(modules);
+	}
+
+	/**
+	 * Returns the id of the given type or {@value #UNKNOWN} in case the type is not contained in any module.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	int getId(JavaClass type) {
+		return ids.getOrDefault(type.getName(), UNKNOWN);
+	}
+
+	JavaClass getType(int id) {
+		return types.get(id);
+	}
+
+	Module getModule(int id) {
+		return owners.get(id);
+	}
+
+	/**
+	 * Returns the index of the {@link Module} the type with the given id is contained in.
+	 *
+	 * @param id
+	 * @return
+	 * @see #getModules()
+	 */
+	int getModuleIndex(int id) {
+		return ownerIndexes[id];
+	}
+
+	/**
+	 * Returns all {@link Module}s in the order they were indexed in.
+	 *
+	 * @return
+	 */
+	List<Module> getModules() {
+		return modules;
+	}
+
+	/**
+	 * Returns the {@link Module} the given type is contained in.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	Optional<Module> getModule(JavaClass type) {
+
+		int id = getId(type);
+
+		return id == UNKNOWN ? Optional.empty() : Optional.of(owners.get(id));
+	}
+
+	int size() {
+		return types.size();
+	}
+}
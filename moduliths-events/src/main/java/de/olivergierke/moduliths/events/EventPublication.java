@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.util.Assert;
+
+/**
+ * The publication of an event to a listener of another module, tracked by an {@link EventPublicationRegistry} until
+ * the listener has completed successfully.
+ *
+ * @author Oliver Gierke
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class EventPublication {
+
+	String id;
+	Object event;
+	String publishingModule, listenerModule, listenerId;
+	Instant publicationDate;
+
+	/**
+	 * Creates a new {@link EventPublication} of the given event to the listener with the given identifier.
+	 *
+	 * @param event must not be {@literal null}.
+	 * @param publishingModule must not be {@literal null} or empty.
+	 * @param listenerModule must not be {@literal null} or empty.
+	 * @param listenerId must not be {@literal null} or empty.
+	 * @return
+	 */
+	public static EventPublication of(Object event, String publishingModule, String listenerModule, String listenerId) {
+
+		Assert.notNull(event, "Event must not be null!");
+		Assert.hasText(publishingModule, "Publishing module must not be null or empty!");
+		Assert.hasText(listenerModule, "Listener module must not be null or empty!");
+		Assert.hasText(listenerId, "Listener identifier must not be null or empty!");
+
+		return new EventPublication(UUID.randomUUID().toString(), event, publishingModule, listenerModule, listenerId,
+				Instant.now());
+	}
+}
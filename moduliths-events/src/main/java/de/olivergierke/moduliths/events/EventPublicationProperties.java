@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the {@link JdbcEventPublicationRegistry}.
+ *
+ * @author Oliver Gierke
+ */
+@Data
+@ConfigurationProperties("moduliths.events.jdbc")
+public class EventPublicationProperties {
+
+	/**
+	 * Whether to log the asynchronous dispatch of events between modules in the database.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Whether to create the {@code EVENT_PUBLICATION} table on startup if it doesn't exist yet.
+	 */
+	private boolean initializeSchema;
+
+	/**
+	 * The maximum number of statements per JDBC batch.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * The interval to write buffered completions of publications in.
+	 */
+	private Duration flushInterval = Duration.ofSeconds(1);
+}
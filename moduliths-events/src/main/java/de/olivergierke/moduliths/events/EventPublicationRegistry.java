@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import java.util.List;
+
+/**
+ * Durable log of {@link EventPublication}s, so that publications not completed before the application went down can
+ * be resubmitted on restart.
+ *
+ * @author Oliver Gierke
+ * @see ModuleAwareApplicationEventMulticaster#resubmitIncompletePublications()
+ */
+public interface EventPublicationRegistry {
+
+	/**
+	 * Stores the given {@link EventPublication}s and invokes the given callback once they're stored durably. If a
+	 * transaction is active, the publications are stored right before it commits and the callback is invoked after the
+	 * commit. No publication is stored and the callback is not invoked at all if the transaction rolls back.
+	 *
+	 * @param publications must not be {@literal null}.
+	 * @param callback must not be {@literal null}.
+	 */
+	void store(List<EventPublication> publications, Runnable callback);
+
+	/**
+	 * Marks the given {@link EventPublication} as completed. Implementations are free to defer that to batch updates.
+	 *
+	 * @param publication must not be {@literal null}.
+	 */
+	void markCompleted(EventPublication publication);
+
+	/**
+	 * Returns all {@link EventPublication}s not marked as completed yet, ordered by their publication date.
+	 *
+	 * @return
+	 */
+	List<EventPublication> findIncompletePublications();
+}
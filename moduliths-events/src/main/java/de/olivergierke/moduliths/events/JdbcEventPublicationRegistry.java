@@ -0,0 +1,411 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.ResourceHolderSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link EventPublicationRegistry} storing {@link EventPublication}s in a relational database table named
+ * {@code EVENT_PUBLICATION} (see {@code schema.sql} next to this class). Events are persisted using Java
+ * serialization, so only publications of {@link java.io.Serializable} events can be stored. When reading them, only
+ * the recorded event type, JDK types and types located in the event type's package (or below) are resolved, so that
+ * the table can't be abused to instantiate arbitrary classes.
+ * <p>
+ * To keep the number of round trips low, all publications of a transaction are inserted using a single JDBC batch right
+ * before the transaction commits. Completions are buffered and written in batches, either once the configured batch
+ * size is reached or periodically. Completions not written before the application goes down result in the
+ * corresponding publications being resubmitted on restart, i.e. listeners are invoked at least once.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+public class JdbcEventPublicationRegistry implements EventPublicationRegistry, DisposableBean {
+
+	private static final String SQL_INSERT = "INSERT INTO EVENT_PUBLICATION "
+			+ "(ID, EVENT_TYPE, SERIALIZED_EVENT, PUBLISHING_MODULE, LISTENER_MODULE, LISTENER_ID, PUBLICATION_DATE) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String SQL_COMPLETE = "UPDATE EVENT_PUBLICATION SET COMPLETION_DATE = ? WHERE ID = ?";
+
+	private static final String SQL_FIND_INCOMPLETE = "SELECT "
+			+ "ID, EVENT_TYPE, SERIALIZED_EVENT, PUBLISHING_MODULE, LISTENER_MODULE, LISTENER_ID, PUBLICATION_DATE "
+			+ "FROM EVENT_PUBLICATION WHERE COMPLETION_DATE IS NULL ORDER BY PUBLICATION_DATE";
+
+	private final JdbcOperations jdbc;
+	private final int batchSize;
+	private final Queue<Completion> completions;
+	private final AtomicInteger pendingCompletions;
+	private final ScheduledExecutorService flusher;
+
+	/**
+	 * Creates a new {@link JdbcEventPublicationRegistry} for the given {@link JdbcOperations}.
+	 *
+	 * @param jdbc must not be {@literal null}.
+	 * @param batchSize the maximum number of statements per JDBC batch, must be greater than zero.
+	 * @param flushInterval the interval to write buffered completions in, must not be {@literal null} and at least one
+	 *          millisecond.
+	 */
+	public JdbcEventPublicationRegistry(JdbcOperations jdbc, int batchSize, Duration flushInterval) {
+
+		Assert.notNull(jdbc, "JdbcOperations must not be null!");
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+		Assert.notNull(flushInterval, "Flush interval must not be null!");
+
+		long interval = flushInterval.toMillis();
+
+		Assert.isTrue(interval > 0, "Flush interval must be at least one millisecond!");
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("moduliths-event-publications-");
+		threadFactory.setDaemon(true);
+
+		this.jdbc = jdbc;
+		this.batchSize = batchSize;
+		this.completions = new ConcurrentLinkedQueue<>();
+		this.pendingCompletions = new AtomicInteger();
+		this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+		flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.events.EventPublicationRegistry#store(java.util.List, java.lang.Runnable)
+	 */
+	@Override
+	public void store(List<EventPublication> publications, Runnable callback) {
+
+		Assert.notNull(publications, "Publications must not be null!");
+		Assert.notNull(callback, "Callback must not be null!");
+
+		if (!TransactionSynchronizationManager.isActualTransactionActive()
+				|| !TransactionSynchronizationManager.isSynchronizationActive()) {
+
+			insert(publications);
+			callback.run();
+
+			return;
+		}
+
+		PendingPublications pending = (PendingPublications) TransactionSynchronizationManager.getResource(this);
+
+		// Bound as resource holder so that the pending publications get suspended along with a transaction (e.g. for
+		// REQUIRES_NEW) instead of leaking into the nested one
+		if (pending == null) {
+
+			pending = new PendingPublications();
+			pending.setSynchronizedWithTransaction(true);
+
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(new PendingPublicationsSynchronization(pending));
+		}
+
+		pending.publications.addAll(publications);
+		pending.callbacks.add(callback);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.events.EventPublicationRegistry#markCompleted(de.olivergierke.moduliths.events.EventPublication)
+	 */
+	@Override
+	public void markCompleted(EventPublication publication) {
+
+		Assert.notNull(publication, "Publication must not be null!");
+
+		completions.add(new Completion(publication.getId(), Instant.now()));
+
+		if (pendingCompletions.incrementAndGet() >= batchSize) {
+			flusher.execute(this::flush);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.events.EventPublicationRegistry#findIncompletePublications()
+	 */
+	@Override
+	public List<EventPublication> findIncompletePublications() {
+
+		return jdbc.query(SQL_FIND_INCOMPLETE, this::toPublication).stream() //
+				.filter(Objects::nonNull) //
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Writes all buffered completions to the database.
+	 */
+	public synchronized void flush() {
+
+		List<Completion> batch = new ArrayList<>();
+
+		for (Completion completion = completions.poll(); completion != null; completion = completions.poll()) {
+			batch.add(completion);
+		}
+
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		pendingCompletions.addAndGet(-batch.size());
+
+		try {
+
+			jdbc.batchUpdate(SQL_COMPLETE, batch, batchSize, (statement, completion) -> {
+				statement.setTimestamp(1, Timestamp.from(completion.date));
+				statement.setString(2, completion.id);
+			});
+
+		} catch (DataAccessException e) {
+			LOG.warn(String.format("Could not mark %s event publications as completed!", batch.size()), e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public void destroy() {
+
+		flusher.shutdown();
+		flush();
+	}
+
+	private void insert(List<EventPublication> publications) {
+
+		jdbc.batchUpdate(SQL_INSERT, publications, batchSize, (statement, publication) -> {
+			statement.setString(1, publication.getId());
+			statement.setString(2, publication.getEvent().getClass().getName());
+			statement.setBytes(3, serialize(publication.getEvent()));
+			statement.setString(4, publication.getPublishingModule());
+			statement.setString(5, publication.getListenerModule());
+			statement.setString(6, publication.getListenerId());
+			statement.setTimestamp(7, Timestamp.from(publication.getPublicationDate()));
+		});
+	}
+
+	@Nullable
+	private EventPublication toPublication(ResultSet resultSet, int row) throws SQLException {
+
+		String id = resultSet.getString("ID");
+
+		try {
+
+			return new EventPublication(id,
+					deserialize(resultSet.getBytes("SERIALIZED_EVENT"), resultSet.getString("EVENT_TYPE")),
+					resultSet.getString("PUBLISHING_MODULE"), resultSet.getString("LISTENER_MODULE"),
+					resultSet.getString("LISTENER_ID"), resultSet.getTimestamp("PUBLICATION_DATE").toInstant());
+
+		} catch (IOException | ClassNotFoundException e) {
+
+			LOG.warn(String.format("Could not deserialize event of publication %s, skipping!", id), e);
+
+			return null;
+		}
+	}
+
+	private static byte[] serialize(Object event) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(event);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(String.format("Could not serialize event %s!", event), e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes, String eventType) throws IOException, ClassNotFoundException {
+
+		try (ObjectInputStream in = new EventObjectInputStream(new ByteArrayInputStream(bytes), eventType)) {
+
+			Object event = in.readObject();
+
+			if (!event.getClass().getName().equals(eventType)) {
+				throw new InvalidClassException(event.getClass().getName(),
+						String.format("Expected event of type %s!", eventType));
+			}
+
+			return event;
+		}
+	}
+
+	/**
+	 * The completion of an {@link EventPublication} waiting to be written.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@RequiredArgsConstructor
+	private static class Completion {
+
+		private final String id;
+		private final Instant date;
+	}
+
+	/**
+	 * The {@link EventPublication}s of the current transaction, inserted right before it commits.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class PendingPublications extends ResourceHolderSupport {
+
+		private final List<EventPublication> publications = new ArrayList<>();
+		private final List<Runnable> callbacks = new ArrayList<>();
+	}
+
+	/**
+	 * Inserts the {@link PendingPublications} of a transaction before it commits and invokes their callbacks after it
+	 * committed. Suspending and resuming them along with the transaction is handled by
+	 * {@link ResourceHolderSynchronization}.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private class PendingPublicationsSynchronization
+			extends ResourceHolderSynchronization<PendingPublications, JdbcEventPublicationRegistry> {
+
+		private final PendingPublications pending;
+
+		PendingPublicationsSynchronization(PendingPublications pending) {
+
+			super(pending, JdbcEventPublicationRegistry.this);
+
+			this.pending = pending;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.transaction.support.ResourceHolderSynchronization#beforeCommit(boolean)
+		 */
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			insert(pending.publications);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.transaction.support.ResourceHolderSynchronization#afterCommit()
+		 */
+		@Override
+		public void afterCommit() {
+			pending.callbacks.forEach(Runnable::run);
+		}
+	}
+
+	/**
+	 * {@link ObjectInputStream} only resolving the given event type, JDK types and types located in the event type's
+	 * package or below. Proxies are rejected entirely.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class EventObjectInputStream extends ConfigurableObjectInputStream {
+
+		private final String eventType;
+		private final String packagePrefix;
+
+		EventObjectInputStream(InputStream in, String eventType) throws IOException {
+
+			super(in, ClassUtils.getDefaultClassLoader());
+
+			this.eventType = eventType;
+			this.packagePrefix = ClassUtils.getPackageName(eventType).concat(".");
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.core.ConfigurableObjectInputStream#resolveClass(java.io.ObjectStreamClass)
+		 */
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+
+			String name = descriptor.getName();
+
+			if (!isAllowed(name)) {
+				throw new InvalidClassException(name, String.format("Not allowed in event of type %s!", eventType));
+			}
+
+			return super.resolveClass(descriptor);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.core.ConfigurableObjectInputStream#resolveProxyClass(java.lang.String[])
+		 */
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			throw new InvalidClassException(String.format("Proxies are not allowed in event of type %s!", eventType));
+		}
+
+		private boolean isAllowed(String name) {
+
+			String type = name;
+
+			if (type.startsWith("[")) {
+
+				type = type.substring(type.lastIndexOf('[') + 1);
+
+				// Primitive array
+				if (!type.startsWith("L")) {
+					return true;
+				}
+
+				type = type.substring(1, type.length() - 1);
+			}
+
+			return type.equals(eventType) //
+					|| type.startsWith("java.") //
+					|| type.startsWith(packagePrefix);
+		}
+	}
+}
@@ -0,0 +1,583 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import de.olivergierke.moduliths.events.ModuleEventListenerFactory.ModuleListenerMethodAdapter;
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+import de.olivergierke.moduliths.model.ModulesRuntime;
+
+import java.io.Serializable;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * An {@link org.springframework.context.event.ApplicationEventMulticaster} that dispatches events published by one
+ * module to the listeners of other modules asynchronously. The module publishing an event is considered to be the one
+ * that contains the event type (or the payload type in case of a {@link PayloadApplicationEvent}). Listeners residing
+ * in a different module are invoked on a {@link ModuleEventExecutor} dedicated to the listening module, so that a slow
+ * module neither blocks the publisher nor the listeners of other modules. All other listeners, i.e. the ones within the
+ * publishing module, the ones for events not declared in any module and specialized listeners like transactional event
+ * listeners, are invoked synchronously.
+ * <p>
+ * The listeners of an event type are resolved into {@link Route}s once, so that publishing an event only requires a
+ * single lookup. The routes for the payload types declared by {@code @EventListener} methods, including generic ones,
+ * are resolved when the context is refreshed, the ones for all other event types on their first publication. Changes
+ * to the registered listeners atomically replace the resolved routes.
+ * <p>
+ * If an {@link EventPublicationRegistry} is configured, the asynchronous invocations of listeners for
+ * {@link Serializable} events are logged and marked as completed once the listener succeeded. Publications not
+ * completed in a previous run of the application are resubmitted once the context is refreshed.
+ *
+ * @author Oliver Gierke
+ * @see ModuleEventListenerFactory
+ */
+@Slf4j
+public class ModuleAwareApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+		implements DisposableBean {
+
+	private static final Object PLACEHOLDER = new Object();
+
+	private final Function<String, ModuleEventExecutor> executorFactory;
+	private final long shutdownTimeoutMillis;
+	private final Map<String, ModuleEventExecutor> executors;
+	private final Map<Class<?>, Optional<CondensedModule>> eventModules;
+	private final Map<ApplicationListener<?>, Optional<CondensedModule>> listenerModules;
+	private volatile Map<RouteKey, Route[]> routes;
+	private final Instant startup;
+	private final AtomicBoolean resubmitted;
+
+	private @Nullable ConfigurableListableBeanFactory beanFactory;
+	private volatile @Nullable CondensedModules modules;
+	private boolean restrictToDependents;
+	private @Nullable EventPublicationRegistry registry;
+
+	/**
+	 * Creates a new {@link ModuleAwareApplicationEventMulticaster} using the given factory to create the
+	 * {@link ModuleEventExecutor} for a module with the given name.
+	 *
+	 * @param executorFactory must not be {@literal null}.
+	 * @param shutdownTimeoutMillis the time to wait for queued events to be processed on shutdown.
+	 */
+	public ModuleAwareApplicationEventMulticaster(Function<String, ModuleEventExecutor> executorFactory,
+			long shutdownTimeoutMillis) {
+
+		Assert.notNull(executorFactory, "Executor factory must not be null!");
+
+		this.executorFactory = executorFactory;
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+		this.executors = new ConcurrentHashMap<>();
+		this.eventModules = new ConcurrentReferenceHashMap<>();
+		this.listenerModules = new ConcurrentReferenceHashMap<>();
+		this.routes = createRoutes();
+		this.startup = Instant.now();
+		this.resubmitted = new AtomicBoolean();
+	}
+
+	/**
+	 * Configures the {@link EventPublicationRegistry} to log the asynchronous invocations of listeners with.
+	 *
+	 * @param registry can be {@literal null}.
+	 */
+	public void setPublicationRegistry(@Nullable EventPublicationRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Configures whether events published by a module shall only be delivered to the listeners of modules that directly
+	 * depend on the publishing module, and only if the event type is exposed by it. Listeners within the publishing
+	 * module and outside of any module are not affected. Defaults to {@literal false}.
+	 *
+	 * @param restrictToDependents
+	 */
+	public void setRestrictToDependents(boolean restrictToDependents) {
+
+		this.restrictToDependents = restrictToDependents;
+		this.routes = createRoutes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.AbstractApplicationEventMulticaster#setBeanFactory(org.springframework.beans.factory.BeanFactory)
+	 */
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+
+		super.setBeanFactory(beanFactory);
+
+		Assert.isInstanceOf(ConfigurableListableBeanFactory.class, beanFactory);
+
+		this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.AbstractApplicationEventMulticaster#addApplicationListener(org.springframework.context.ApplicationListener)
+	 */
+	@Override
+	public void addApplicationListener(ApplicationListener<?> listener) {
+
+		super.addApplicationListener(listener);
+		routes = createRoutes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.AbstractApplicationEventMulticaster#addApplicationListenerBean(java.lang.String)
+	 */
+	@Override
+	public void addApplicationListenerBean(String listenerBeanName) {
+
+		super.addApplicationListenerBean(listenerBeanName);
+		routes = createRoutes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.AbstractApplicationEventMulticaster#removeApplicationListener(org.springframework.context.ApplicationListener)
+	 */
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+
+		super.removeApplicationListener(listener);
+		routes = createRoutes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.AbstractApplicationEventMulticaster#removeApplicationListenerBean(java.lang.String)
+	 */
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+
+		super.removeApplicationListenerBean(listenerBeanName);
+		routes = createRoutes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.AbstractApplicationEventMulticaster#removeAllListeners()
+	 */
+	@Override
+	public void removeAllListeners() {
+
+		super.removeAllListeners();
+		routes = createRoutes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.SimpleApplicationEventMulticaster#multicastEvent(org.springframework.context.ApplicationEvent, org.springframework.core.ResolvableType)
+	 */
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+
+		ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+		List<Route> logged = null;
+
+		for (Route route : getRoutes(event, type)) {
+
+			if (registry != null && route.isLoggable(event)) {
+
+				logged = logged == null ? new ArrayList<>() : logged;
+				logged.add(route);
+
+			} else {
+				route.dispatch(event, null);
+			}
+		}
+
+		if (logged != null) {
+			publish(event, logged);
+		}
+
+		if (event instanceof ContextRefreshedEvent) {
+
+			prepareRoutes(event.getSource());
+
+			if (resubmitted.compareAndSet(false, true)) {
+				resubmitIncompletePublications();
+			}
+		}
+	}
+
+	/**
+	 * Resubmits all publications that were logged before the current instance was created but never completed, i.e.
+	 * the ones published in a previous run of the application. Invoked once the application context is refreshed.
+	 */
+	public void resubmitIncompletePublications() {
+
+		EventPublicationRegistry registry = this.registry;
+
+		if (registry == null) {
+			return;
+		}
+
+		Map<String, ApplicationListener<?>> listeners = getApplicationListeners().stream() //
+				.collect(Collectors.toMap(ModuleAwareApplicationEventMulticaster::getListenerId, Function.identity(),
+						(left, right) -> left));
+
+		registry.findIncompletePublications().stream() //
+				.filter(it -> it.getPublicationDate().isBefore(startup)) //
+				.forEach(it -> {
+
+					ApplicationListener<?> listener = listeners.get(it.getListenerId());
+
+					if (listener == null) {
+						LOG.warn("No listener {} found to resubmit event publication {} to!", it.getListenerId(), it.getId());
+						return;
+					}
+
+					ApplicationEvent event = it.getEvent() instanceof ApplicationEvent //
+							? (ApplicationEvent) it.getEvent() //
+							: new PayloadApplicationEvent<>(this, it.getEvent());
+
+					LOG.debug("Resubmitting event publication {} to listener {}.", it.getId(), it.getListenerId());
+
+					executors.computeIfAbsent(it.getListenerModule(), executorFactory).execute(() -> {
+						invokeListener(listener, event);
+						registry.markCompleted(it);
+					});
+				});
+	}
+
+	/**
+	 * Returns the {@link ModuleEventExecutor}s created so far, keyed by module name.
+	 *
+	 * @return
+	 */
+	public Map<String, ModuleEventExecutor> getExecutors() {
+		return Collections.unmodifiableMap(executors);
+	}
+
+	/**
+	 * Blocks until the listener invocations dispatched asynchronously so far have completed or the given timeout has
+	 * elapsed.
+	 *
+	 * @param timeout
+	 * @param unit must not be {@literal null}.
+	 * @return whether all listener invocations have completed.
+	 * @throws InterruptedException
+	 */
+	public boolean awaitListenerCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		for (ModuleEventExecutor executor : executors.values()) {
+			if (!executor.awaitIdle(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public void destroy() {
+		executors.values().forEach(it -> it.shutdown(shutdownTimeoutMillis, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Returns the event types routes have been resolved for so far.
+	 *
+	 * @return
+	 */
+	Set<ResolvableType> getRoutedEventTypes() {
+		return routes.keySet().stream().map(it -> it.eventType).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Resolves the routes for all concrete payload types declared by {@link ModuleListenerMethodAdapter}s, as those are
+	 * published with the application context as source. Generic payload types are published with their raw type unless
+	 * they provide their generic type themselves (see {@link org.springframework.core.ResolvableTypeProvider}), so we
+	 * resolve the routes for both.
+	 *
+	 * @param source must not be {@literal null}.
+	 */
+	private void prepareRoutes(Object source) {
+
+		getApplicationListeners().stream() //
+				.filter(ModuleListenerMethodAdapter.class::isInstance) //
+				.map(ModuleListenerMethodAdapter.class::cast) //
+				.flatMap(it -> it.getDeclaredEventTypes().stream()) //
+				.filter(it -> isConcretePayloadType(it.resolve())) //
+				.flatMap(it -> it.hasGenerics() && !it.hasUnresolvableGenerics() //
+						? Stream.of(ResolvableType.forClass(it.resolve()), it) //
+						: Stream.of(ResolvableType.forClass(it.resolve()))) //
+				.distinct() //
+				.forEach(it -> getRoutes(new PayloadApplicationEvent<>(source, PLACEHOLDER),
+						ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, it)));
+	}
+
+	private static boolean isConcretePayloadType(@Nullable Class<?> type) {
+
+		return type != null //
+				&& !type.isInterface() //
+				&& !Modifier.isAbstract(type.getModifiers()) //
+				&& !ApplicationEvent.class.isAssignableFrom(type);
+	}
+
+	private void publish(ApplicationEvent event, List<Route> routes) {
+
+		EventPublicationRegistry registry = this.registry;
+
+		Assert.state(registry != null, "No EventPublicationRegistry configured!");
+
+		Object payload = getPayload(event);
+		List<EventPublication> publications = new ArrayList<>(routes.size());
+
+		for (Route route : routes) {
+			publications.add(EventPublication.of(payload, route.publisher, route.executor.getModule(), route.listenerId));
+		}
+
+		registry.store(publications, () -> {
+			for (int i = 0; i < routes.size(); i++) {
+				routes.get(i).dispatch(event, publications.get(i));
+			}
+		});
+	}
+
+	private Route[] getRoutes(ApplicationEvent event, ResolvableType type) {
+
+		// Changes to the listeners replace the map, routes resolved concurrently end up in the discarded one
+		Map<RouteKey, Route[]> routes = this.routes;
+
+		Object source = event.getSource();
+		RouteKey key = new RouteKey(type, source == null ? null : source.getClass());
+
+		Route[] result = routes.get(key);
+
+		if (result == null) {
+			result = resolveRoutes(event, type);
+			routes.put(key, result);
+		}
+
+		return result;
+	}
+
+	private static Map<RouteKey, Route[]> createRoutes() {
+		return new ConcurrentReferenceHashMap<>(64);
+	}
+
+	private Route[] resolveRoutes(ApplicationEvent event, ResolvableType type) {
+
+		Class<?> eventType = PayloadApplicationEvent.class.equals(type.resolve()) //
+				? type.as(PayloadApplicationEvent.class).resolveGeneric() //
+				: type.resolve();
+
+		Optional<CondensedModule> publisher = eventType == null //
+				? Optional.empty() //
+				: eventModules.computeIfAbsent(eventType, this::getModule);
+
+		return getApplicationListeners(event, type).stream() //
+				.filter(it -> !restrictToDependents || isDependent(it, publisher, eventType)) //
+				.map(it -> new Route(it, publisher.flatMap(module -> getExecutor(module, it)).orElse(null), //
+						publisher.map(CondensedModule::getName).orElse(null), getListenerId(it))) //
+				.toArray(Route[]::new);
+	}
+
+	private boolean isDependent(ApplicationListener<?> listener, Optional<CondensedModule> publisher,
+			@Nullable Class<?> eventType) {
+
+		if (!publisher.isPresent() || eventType == null) {
+			return true;
+		}
+
+		CondensedModule source = publisher.get();
+
+		return getListenerModule(listener) //
+				.filter(it -> !it.getName().equals(source.getName())) //
+				.map(it -> source.isExposed(eventType.getName()) && dependsOn(it, source)) //
+				.orElse(true);
+	}
+
+	private Optional<ModuleEventExecutor> getExecutor(CondensedModule publisher, ApplicationListener<?> listener) {
+
+		// Specialized adapters (e.g. transactional listeners) have their own dispatch semantics
+		if (listener instanceof ApplicationListenerMethodAdapter && !(listener instanceof ModuleListenerMethodAdapter)) {
+			return Optional.empty();
+		}
+
+		return getListenerModule(listener) //
+				.filter(it -> !it.getName().equals(publisher.getName())) //
+				.map(it -> executors.computeIfAbsent(it.getName(), executorFactory));
+	}
+
+	private Optional<CondensedModule> getListenerModule(ApplicationListener<?> listener) {
+
+		return listenerModules.computeIfAbsent(listener, it -> {
+
+			// The target type of other adapters is not accessible
+			if (it instanceof ApplicationListenerMethodAdapter && !(it instanceof ModuleListenerMethodAdapter)) {
+				return Optional.empty();
+			}
+
+			Class<?> type = it instanceof ModuleListenerMethodAdapter //
+					? ((ModuleListenerMethodAdapter) it).getTargetType() //
+					: AopUtils.getTargetClass(it);
+
+			return getModule(type);
+		});
+	}
+
+	/**
+	 * Returns the module containing the given type or the closest of its superclasses, so that subclasses generated at
+	 * runtime (e.g. proxies) are attributed to the module of the type they were derived from.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	private Optional<CondensedModule> getModule(Class<?> type) {
+
+		CondensedModules modules = getModules();
+
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+
+			Optional<CondensedModule> module = modules.getModuleByType(current.getName());
+
+			if (module.isPresent()) {
+				return module;
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private CondensedModules getModules() {
+
+		CondensedModules modules = this.modules;
+
+		if (modules != null) {
+			return modules;
+		}
+
+		Assert.state(beanFactory != null, "No BeanFactory set!");
+
+		this.modules = modules = ModulesRuntime.of(beanFactory).getModules();
+
+		return modules;
+	}
+
+	private static Object getPayload(ApplicationEvent event) {
+		return event instanceof PayloadApplicationEvent ? ((PayloadApplicationEvent<?>) event).getPayload() : event;
+	}
+
+	private static String getListenerId(ApplicationListener<?> listener) {
+
+		return listener instanceof ModuleListenerMethodAdapter //
+				? ((ModuleListenerMethodAdapter) listener).getListenerId() //
+				: AopUtils.getTargetClass(listener).getName();
+	}
+
+	private static boolean dependsOn(CondensedModule module, CondensedModule other) {
+
+		return module.getDependencies(DependencyDepth.IMMEDIATE).stream() //
+				.anyMatch(it -> it.getName().equals(other.getName()));
+	}
+
+	/**
+	 * Key to look up the {@link Route}s for an event type published with a particular source.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static class RouteKey {
+
+		private final ResolvableType eventType;
+		private final @Nullable Class<?> sourceType;
+	}
+
+	/**
+	 * A listener to dispatch an event to, either synchronously or using the {@link ModuleEventExecutor} of the listening
+	 * module.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@RequiredArgsConstructor
+	private class Route {
+
+		private final ApplicationListener<?> listener;
+		private final @Nullable ModuleEventExecutor executor;
+		private final @Nullable String publisher;
+		private final String listenerId;
+
+		/**
+		 * Returns whether the dispatch of the given event can be logged, i.e. whether it is an asynchronous one of an
+		 * event published by a module that can be serialized.
+		 *
+		 * @param event must not be {@literal null}.
+		 * @return
+		 */
+		boolean isLoggable(ApplicationEvent event) {
+			return executor != null && publisher != null && getPayload(event) instanceof Serializable;
+		}
+
+		void dispatch(ApplicationEvent event, @Nullable EventPublication publication) {
+
+			if (executor == null) {
+				invokeListener(listener, event);
+				return;
+			}
+
+			EventPublicationRegistry registry = ModuleAwareApplicationEventMulticaster.this.registry;
+
+			executor.execute(() -> {
+
+				invokeListener(listener, event);
+
+				if (publication != null && registry != null) {
+					registry.markCompleted(publication);
+				}
+			});
+		}
+	}
+}
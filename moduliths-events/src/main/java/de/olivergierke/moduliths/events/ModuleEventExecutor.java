@@ -0,0 +1,286 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link Executor} dedicated to the event listeners of a single module. Tasks are queued in a bounded queue and
+ * processed by a fixed number of worker threads that drain the queue in batches, so that a burst of events is handled
+ * with a single wake-up of a worker. If the queue is full, the task is run on the submitting thread, which slows down
+ * the publisher instead of dropping the event or growing the queue unboundedly. Failures of listeners, including
+ * {@link Error}s, are logged and don't terminate the worker.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+public class ModuleEventExecutor implements Executor {
+
+	/**
+	 * The name of an optional {@link ThreadFactory} bean to be used to create the worker threads of all
+	 * {@link ModuleEventExecutor}s, e.g. to run event listeners on virtual threads.
+	 */
+	public static final String THREAD_FACTORY_BEAN_NAME = "moduleEventThreadFactory";
+
+	private final String module;
+	private final BlockingQueue<Runnable> queue;
+	private final int batchSize;
+	private final List<Thread> workers;
+	private final Set<Thread> waiting;
+	private final LongAdder executed, rejected;
+	private final AtomicLong pending;
+	private final Object idle;
+
+	private volatile boolean running;
+
+	/**
+	 * Creates a new {@link ModuleEventExecutor} for the module with the given name.
+	 *
+	 * @param module must not be {@literal null} or empty.
+	 * @param threads the number of worker threads, must be greater than zero.
+	 * @param queueCapacity the maximum number of tasks waiting to be executed, must be greater than zero.
+	 * @param batchSize the maximum number of tasks a worker takes from the queue at once, must be greater than zero.
+	 * @param threadFactory can be {@literal null} to use a default one.
+	 */
+	public ModuleEventExecutor(String module, int threads, int queueCapacity, int batchSize,
+			@Nullable ThreadFactory threadFactory) {
+
+		Assert.hasText(module, "Module name must not be null or empty!");
+		Assert.isTrue(threads > 0, "Number of threads must be greater than zero!");
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than zero!");
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+
+		ThreadFactory factory = threadFactory != null //
+				? threadFactory //
+				: new CustomizableThreadFactory("moduliths-events-".concat(module).concat("-"));
+
+		this.module = module;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.workers = new ArrayList<>(threads);
+		this.waiting = ConcurrentHashMap.newKeySet();
+		this.executed = new LongAdder();
+		this.rejected = new LongAdder();
+		this.pending = new AtomicLong();
+		this.idle = new Object();
+		this.running = true;
+
+		for (int i = 0; i < threads; i++) {
+
+			Thread worker = factory.newThread(this::work);
+			worker.setDaemon(true);
+			worker.start();
+
+			workers.add(worker);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+	 */
+	@Override
+	public void execute(Runnable task) {
+
+		Assert.notNull(task, "Task must not be null!");
+
+		pending.incrementAndGet();
+
+		if (running && queue.offer(task)) {
+			return;
+		}
+
+		rejected.increment();
+
+		LOG.debug("Event queue of module {} exhausted, running listener on publishing thread.", module);
+
+		run(task);
+	}
+
+	/**
+	 * Returns the name of the module the executor is dedicated to.
+	 *
+	 * @return
+	 */
+	public String getModule() {
+		return module;
+	}
+
+	/**
+	 * Returns the number of tasks currently waiting for execution.
+	 *
+	 * @return
+	 */
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	/**
+	 * Returns the number of tasks executed so far, including the ones run on the publishing thread.
+	 *
+	 * @return
+	 */
+	public long getExecutedCount() {
+		return executed.sum();
+	}
+
+	/**
+	 * Returns the number of tasks that were run on the publishing thread as the queue was full.
+	 *
+	 * @return
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Blocks until all tasks submitted so far have been executed or the given timeout has elapsed. Doesn't poll but gets
+	 * notified by the worker completing the last pending task.
+	 *
+	 * @param timeout
+	 * @param unit must not be {@literal null}.
+	 * @return whether all tasks have been executed.
+	 * @throws InterruptedException
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		synchronized (idle) {
+
+			while (pending.get() > 0) {
+
+				long remaining = deadline - System.nanoTime();
+
+				if (remaining <= 0) {
+					return false;
+				}
+
+				idle.wait(Math.max(TimeUnit.NANOSECONDS.toMillis(remaining), 1));
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stops accepting new tasks and waits for the given amount of time for the queued ones to be processed. Interrupts
+	 * the workers waiting for new tasks, so that they process the remaining ones and terminate. Workers currently running
+	 * a listener aren't interrupted.
+	 *
+	 * @param timeout
+	 * @param unit must not be {@literal null}.
+	 */
+	public void shutdown(long timeout, TimeUnit unit) {
+
+		running = false;
+
+		waiting.forEach(Thread::interrupt);
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		for (Thread worker : workers) {
+
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+			try {
+				worker.join(Math.max(remaining, 1));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+
+		if (!queue.isEmpty()) {
+			LOG.warn("Dropping {} queued event listener invocations of module {} on shutdown.", queue.size(), module);
+		}
+	}
+
+	private void work() {
+
+		Thread current = Thread.currentThread();
+		List<Runnable> batch = new ArrayList<>(batchSize);
+
+		while (true) {
+
+			// Register before checking the flag, so that a concurrent shutdown either interrupts us or we see the flag
+			waiting.add(current);
+
+			try {
+
+				if (!running) {
+					break;
+				}
+
+				batch.add(queue.take());
+
+			} catch (InterruptedException e) {
+				continue;
+			} finally {
+				waiting.remove(current);
+			}
+
+			// Clear an interrupt by a shutdown racing with taking the task to not affect the listeners
+			Thread.interrupted();
+
+			queue.drainTo(batch, batchSize - 1);
+
+			batch.forEach(this::run);
+			batch.clear();
+		}
+
+		// Process the tasks queued before the shutdown without an interrupt pending
+		Thread.interrupted();
+
+		for (Runnable task = queue.poll(); task != null; task = queue.poll()) {
+			run(task);
+		}
+	}
+
+	private void run(Runnable task) {
+
+		try {
+			task.run();
+		} catch (Throwable e) {
+			LOG.error(String.format("Event listener of module %s failed!", module), e);
+		} finally {
+
+			executed.increment();
+
+			if (pending.decrementAndGet() == 0) {
+				synchronized (idle) {
+					idle.notifyAll();
+				}
+			}
+		}
+	}
+}
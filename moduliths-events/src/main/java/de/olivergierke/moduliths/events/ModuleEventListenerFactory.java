@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.DefaultEventListenerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.event.EventListenerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * An {@link EventListenerFactory} for {@link EventListener} methods that keeps track of the type declaring the listener
+ * method, so that we can determine the module a listener belongs to. Ordered right before Spring's
+ * {@link DefaultEventListenerFactory} so that more specialized factories, like the one for transactional event
+ * listeners, still take precedence.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleEventListenerFactory implements EventListenerFactory, Ordered {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.EventListenerFactory#supportsMethod(java.lang.reflect.Method)
+	 */
+	@Override
+	public boolean supportsMethod(Method method) {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.event.EventListenerFactory#createApplicationListener(java.lang.String, java.lang.Class, java.lang.reflect.Method)
+	 */
+	@Override
+	public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
+		return new ModuleListenerMethodAdapter(beanName, type, method);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.Ordered#getOrder()
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE - 1;
+	}
+
+	/**
+	 * An {@link ApplicationListenerMethodAdapter} exposing the type that declares the listener method.
+	 *
+	 * @author Oliver Gierke
+	 */
+	static class ModuleListenerMethodAdapter extends ApplicationListenerMethodAdapter {
+
+		private final Class<?> targetType;
+		private final String listenerId;
+		private final List<ResolvableType> declaredEventTypes;
+
+		ModuleListenerMethodAdapter(String beanName, Class<?> targetType, Method method) {
+
+			super(beanName, targetType, method);
+
+			this.targetType = targetType;
+			this.listenerId = Arrays.stream(method.getParameterTypes()) //
+					.map(Class::getName) //
+					.collect(Collectors.joining(", ", targetType.getName() + "." + method.getName() + "(", ")"));
+			this.declaredEventTypes = resolveDeclaredEventTypes(method);
+		}
+
+		/**
+		 * Returns the type of the bean declaring the listener method.
+		 *
+		 * @return
+		 */
+		Class<?> getTargetType() {
+			return targetType;
+		}
+
+		/**
+		 * Returns an identifier of the listener method that is stable across restarts of the application.
+		 *
+		 * @return
+		 */
+		String getListenerId() {
+			return listenerId;
+		}
+
+		/**
+		 * Returns the event types the listener method declares to handle, either explicitly via
+		 * {@link EventListener#classes()} or implicitly via its parameter.
+		 *
+		 * @return
+		 */
+		List<ResolvableType> getDeclaredEventTypes() {
+			return declaredEventTypes;
+		}
+
+		private static List<ResolvableType> resolveDeclaredEventTypes(Method method) {
+
+			EventListener annotation = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+
+			if (annotation != null && annotation.classes().length > 0) {
+				return Arrays.stream(annotation.classes()) //
+						.map(ResolvableType::forClass) //
+						.collect(Collectors.toList());
+			}
+
+			return method.getParameterCount() == 1 //
+					? Collections.singletonList(ResolvableType.forMethodParameter(method, 0)) //
+					: Collections.emptyList();
+		}
+	}
+}
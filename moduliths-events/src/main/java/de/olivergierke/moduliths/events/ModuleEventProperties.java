@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Configuration of the {@link ModuleEventExecutor}s used to dispatch events between modules. The defaults can be
+ * overridden per module using {@code moduliths.events.async.modules.$moduleName.…}.
+ *
+ * @author Oliver Gierke
+ */
+@Data
+@ConfigurationProperties("moduliths.events.async")
+public class ModuleEventProperties {
+
+	/**
+	 * Whether to dispatch events to listeners of other modules asynchronously.
+	 */
+	private boolean enabled;
+
+	/**
+	 * The number of worker threads per module.
+	 */
+	private int threads = 2;
+
+	/**
+	 * The maximum number of listener invocations waiting per module before they're run on the publishing thread.
+	 */
+	private int queueCapacity = 1000;
+
+	/**
+	 * The maximum number of listener invocations a worker thread processes at once.
+	 */
+	private int batchSize = 32;
+
+	/**
+	 * The time to wait for queued listener invocations to be processed on shutdown.
+	 */
+	private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+	/**
+	 * Whether to deliver events published by a module only to the listeners of modules directly depending on it.
+	 */
+	private boolean restrictToDependents;
+
+	/**
+	 * Overrides of the settings above per module name.
+	 */
+	private Map<String, ModuleSettings> modules = new HashMap<>();
+
+	/**
+	 * Creates a new {@link ModuleEventExecutor} for the module with the given name.
+	 *
+	 * @param module must not be {@literal null} or empty.
+	 * @param threadFactory can be {@literal null} to use a default one.
+	 * @return
+	 */
+	ModuleEventExecutor createExecutor(String module, @Nullable ThreadFactory threadFactory) {
+
+		Optional<ModuleSettings> settings = Optional.ofNullable(modules.get(module));
+
+		return new ModuleEventExecutor(module, //
+				settings.map(ModuleSettings::getThreads).orElse(threads), //
+				settings.map(ModuleSettings::getQueueCapacity).orElse(queueCapacity), //
+				settings.map(ModuleSettings::getBatchSize).orElse(batchSize), //
+				threadFactory);
+	}
+
+	/**
+	 * Settings for the {@link ModuleEventExecutor} of a particular module.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@Data
+	public static class ModuleSettings {
+
+		private @Nullable Integer threads, queueCapacity, batchSize;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import java.util.concurrent.ThreadFactory;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Auto-configuration to dispatch events between modules asynchronously. Has to be enabled explicitly by setting
+ * {@code moduliths.events.async.enabled} to {@literal true}. Logging those dispatches in the database additionally
+ * requires {@code moduliths.events.jdbc.enabled} to be set to {@literal true}. The worker threads are created by a
+ * {@link ThreadFactory} bean named {@value ModuleEventExecutor#THREAD_FACTORY_BEAN_NAME} if present.
+ *
+ * @author Oliver Gierke
+ */
+@Configuration
+@EnableConfigurationProperties(ModuleEventProperties.class)
+@ConditionalOnProperty(name = "moduliths.events.async.enabled", havingValue = "true")
+class ModuleEventsAutoConfiguration {
+
+	@Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+	ModuleAwareApplicationEventMulticaster applicationEventMulticaster(ModuleEventProperties properties,
+			ObjectProvider<EventPublicationRegistry> registry,
+			@Qualifier(ModuleEventExecutor.THREAD_FACTORY_BEAN_NAME) ObjectProvider<ThreadFactory> threadFactory) {
+
+		ModuleAwareApplicationEventMulticaster multicaster = new ModuleAwareApplicationEventMulticaster(
+				it -> properties.createExecutor(it, threadFactory.getIfAvailable()),
+				properties.getShutdownTimeout().toMillis());
+		multicaster.setRestrictToDependents(properties.isRestrictToDependents());
+		multicaster.setPublicationRegistry(registry.getIfAvailable());
+
+		return multicaster;
+	}
+
+	@Bean
+	static ModuleEventListenerFactory moduleEventListenerFactory() {
+		return new ModuleEventListenerFactory();
+	}
+
+	@Configuration
+	@ConditionalOnClass(JdbcOperations.class)
+	@ConditionalOnProperty(name = "moduliths.events.jdbc.enabled", havingValue = "true")
+	@EnableConfigurationProperties(EventPublicationProperties.class)
+	static class JdbcEventPublicationConfiguration {
+
+		@Bean
+		JdbcEventPublicationRegistry jdbcEventPublicationRegistry(DataSource dataSource,
+				EventPublicationProperties properties) {
+
+			if (properties.isInitializeSchema()) {
+				new ResourceDatabasePopulator(new ClassPathResource("schema.sql", JdbcEventPublicationRegistry.class))
+						.execute(dataSource);
+			}
+
+			return new JdbcEventPublicationRegistry(new JdbcTemplate(dataSource), properties.getBatchSize(),
+					properties.getFlushInterval());
+		}
+	}
+}
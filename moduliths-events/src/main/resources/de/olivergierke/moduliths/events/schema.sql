@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS EVENT_PUBLICATION (
+	ID VARCHAR(36) NOT NULL,
+	EVENT_TYPE VARCHAR(512) NOT NULL,
+	SERIALIZED_EVENT BLOB NOT NULL,
+	PUBLISHING_MODULE VARCHAR(255) NOT NULL,
+	LISTENER_MODULE VARCHAR(255) NOT NULL,
+	LISTENER_ID VARCHAR(1024) NOT NULL,
+	PUBLICATION_DATE TIMESTAMP NOT NULL,
+	COMPLETION_DATE TIMESTAMP,
+	PRIMARY KEY (ID)
+);
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.myproject.invalid;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.lang.Nullable;
+
+import com.acme.myproject.moduleB.internal.InternalComponentB;
+
+/**
+ * Declares a bean via a factory method with an overload that refers to an internal type of another module. The
+ * overload is not a factory method, so the bean doesn't depend on that type. Lives outside of the sample project so
+ * that the sample's verification doesn't report it in place of {@link InvalidComponent}.
+ *
+ * @author Oliver Gierke
+ */
+public class OverloadedFactoryMethods {
+
+	@Bean
+	public Object overloadedBean() {
+		return overloadedBean(null);
+	}
+
+	Object overloadedBean(@Nullable InternalComponentB component) {
+		return new Object();
+	}
+}
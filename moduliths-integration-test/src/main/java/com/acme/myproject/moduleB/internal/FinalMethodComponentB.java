@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.myproject.moduleB.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bean with a final method, which a class based proxy can't intercept and would invoke on the proxy instance itself.
+ * Not a component, so that it's only registered by the tests that need it.
+ *
+ * @author Oliver Gierke
+ */
+public class FinalMethodComponentB {
+
+	private final List<String> invocations = new ArrayList<>();
+
+	public final int record(String invocation) {
+
+		invocations.add(invocation);
+
+		return invocations.size();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.verified.moduleA;
+
+import de.olivergierke.moduliths.model.test.ModuleTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Module tests run in parallel by {@code ModuleLocksIntegrationTest}, recording when they start and end. Tests of
+ * module A wait for the one of the independent module B to start and vice versa.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleLocksFixtures {
+
+	public static final List<String> EXECUTIONS = new CopyOnWriteArrayList<>();
+
+	private static CountDownLatch moduleAStarted, moduleBStarted;
+
+	public static void reset() {
+
+		EXECUTIONS.clear();
+
+		moduleAStarted = new CountDownLatch(1);
+		moduleBStarted = new CountDownLatch(1);
+	}
+
+	public static void recordModuleB(String name) throws InterruptedException {
+		record(name, moduleBStarted, moduleAStarted);
+	}
+
+	private static void record(String name, CountDownLatch started, CountDownLatch other) throws InterruptedException {
+
+		EXECUTIONS.add("start " + name);
+
+		started.countDown();
+		other.await(5, TimeUnit.SECONDS);
+
+		Thread.sleep(100);
+
+		EXECUTIONS.add("end " + name);
+	}
+
+	@ModuleTest
+	public static class First {
+
+		@Test
+		public void recordsExecution() throws InterruptedException {
+			record("First", moduleAStarted, moduleBStarted);
+		}
+	}
+
+	@ModuleTest
+	public static class Second {
+
+		@Test
+		public void recordsExecution() throws InterruptedException {
+			record("Second", moduleAStarted, moduleBStarted);
+		}
+	}
+}
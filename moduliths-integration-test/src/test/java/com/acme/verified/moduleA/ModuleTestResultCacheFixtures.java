@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.verified.moduleA;
+
+import de.olivergierke.moduliths.model.test.ModuleTest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Module tests run by {@code ModuleTestResultCacheIntegrationTest} to record their results in the cache.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleTestResultCacheFixtures {
+
+	@ModuleTest
+	public static class TestsOnly {
+
+		@Test
+		public void first() {}
+
+		@Test
+		public void second() {}
+	}
+
+	@ModuleTest
+	public static class WithParameterizedTest {
+
+		@Test
+		public void first() {}
+
+		@Test
+		public void second() {}
+
+		@ParameterizedTest
+		@ValueSource(strings = { "first", "second" })
+		public void parameterized(String value) {}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.verified.moduleB;
+
+import de.olivergierke.moduliths.model.test.ModuleTest;
+
+import org.junit.jupiter.api.Test;
+
+import com.acme.verified.moduleA.ModuleLocksFixtures;
+
+/**
+ * A module test independent of the ones in {@link ModuleLocksFixtures}.
+ *
+ * @author Oliver Gierke
+ */
+@ModuleTest
+public class IndependentModuleFixture {
+
+	@Test
+	public void recordsExecution() throws InterruptedException {
+		ModuleLocksFixtures.recordModuleB("Independent");
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ModuleAEvent;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Application.class, properties = { "moduliths.events.async.enabled=true",
+		"moduliths.events.jdbc.enabled=true", "moduliths.events.jdbc.initialize-schema=true" })
+public class EventPublicationIntegrationTest {
+
+	static final String LISTENER_ID = "com.acme.myproject.moduleB.ServiceComponentB.on(com.acme.myproject.moduleA.ModuleAEvent)";
+
+	@Autowired ApplicationEventPublisher publisher;
+	@Autowired ModuleAwareApplicationEventMulticaster multicaster;
+	@Autowired JdbcEventPublicationRegistry registry;
+	@Autowired PlatformTransactionManager transactionManager;
+	@Autowired JdbcTemplate jdbc;
+
+	@Test
+	public void logsPublicationOnCommitAndMarksItCompleted() throws Exception {
+
+		long executed = getExecutedCount();
+		int publications = countPublications();
+
+		new TransactionTemplate(transactionManager).execute(status -> {
+
+			publisher.publishEvent(new ModuleAEvent("committed"));
+
+			assertThat(countPublications()).isEqualTo(publications);
+
+			return null;
+		});
+
+		awaitListenerCompletion();
+		registry.flush();
+
+		assertThat(getExecutedCount()).isEqualTo(executed + 1);
+
+		assertThat(countPublications()).isEqualTo(publications + 1);
+		assertThat(registry.findIncompletePublications()).isEmpty();
+	}
+
+	@Test
+	public void doesNotLogOrDispatchPublicationOnRollback() throws Exception {
+
+		long executed = getExecutedCount();
+		int publications = countPublications();
+
+		new TransactionTemplate(transactionManager).execute(status -> {
+
+			publisher.publishEvent(new ModuleAEvent("rolled back"));
+			status.setRollbackOnly();
+
+			return null;
+		});
+
+		awaitListenerCompletion();
+
+		assertThat(countPublications()).isEqualTo(publications);
+		assertThat(getExecutedCount()).isEqualTo(executed);
+	}
+
+	@Test
+	public void logsPublicationOfNestedTransactionIndependentlyOfOuterOne() throws Exception {
+
+		long executed = getExecutedCount();
+		int publications = countPublications();
+
+		TransactionTemplate nested = new TransactionTemplate(transactionManager);
+		nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		new TransactionTemplate(transactionManager).execute(status -> {
+
+			publisher.publishEvent(new ModuleAEvent("outer"));
+
+			nested.execute(__ -> {
+				publisher.publishEvent(new ModuleAEvent("nested"));
+				return null;
+			});
+
+			assertThat(countPublications()).isEqualTo(publications + 1);
+
+			status.setRollbackOnly();
+
+			return null;
+		});
+
+		awaitListenerCompletion();
+		registry.flush();
+
+		assertThat(getExecutedCount()).isEqualTo(executed + 1);
+		assertThat(countPublications()).isEqualTo(publications + 1);
+	}
+
+	@Test
+	public void resubmitsIncompletePublicationsOfPreviousRun() throws Exception {
+
+		long executed = getExecutedCount();
+
+		EventPublication publication = new EventPublication(UUID.randomUUID().toString(), new ModuleAEvent("lost"),
+				"moduleA", "moduleB", LISTENER_ID, Instant.now().minusSeconds(60));
+
+		registry.store(Collections.singletonList(publication), () -> {});
+
+		assertThat(registry.findIncompletePublications()).extracting(EventPublication::getId)
+				.containsExactly(publication.getId());
+
+		multicaster.resubmitIncompletePublications();
+
+		awaitListenerCompletion();
+		registry.flush();
+
+		assertThat(getExecutedCount()).isEqualTo(executed + 1);
+
+		assertThat(registry.findIncompletePublications()).isEmpty();
+	}
+
+	@Test
+	public void skipsPublicationsContainingTypesOutsideOfTheEventsPackage() throws Exception {
+
+		String id = UUID.randomUUID().toString();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new Payload());
+		}
+
+		jdbc.update("INSERT INTO EVENT_PUBLICATION "
+				+ "(ID, EVENT_TYPE, SERIALIZED_EVENT, PUBLISHING_MODULE, LISTENER_MODULE, LISTENER_ID, PUBLICATION_DATE) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", id, ModuleAEvent.class.getName(), bytes.toByteArray(), "moduleA", "moduleB",
+				LISTENER_ID, Timestamp.from(Instant.now().minusSeconds(60)));
+
+		try {
+			assertThat(registry.findIncompletePublications()).extracting(EventPublication::getId).doesNotContain(id);
+		} finally {
+			jdbc.update("DELETE FROM EVENT_PUBLICATION WHERE ID = ?", id);
+		}
+	}
+
+	@Test
+	public void rejectsFlushIntervalBelowOneMillisecond() {
+
+		assertThatExceptionOfType(IllegalArgumentException.class) //
+				.isThrownBy(() -> new JdbcEventPublicationRegistry(jdbc, 10, Duration.ZERO));
+	}
+
+	private int countPublications() {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM EVENT_PUBLICATION WHERE LISTENER_ID = ?", Integer.class,
+				LISTENER_ID);
+	}
+
+	private long getExecutedCount() {
+
+		ModuleEventExecutor executor = multicaster.getExecutors().get("moduleB");
+
+		return executor == null ? 0 : executor.getExecutedCount();
+	}
+
+	private void awaitListenerCompletion() throws InterruptedException {
+		assertThat(multicaster.awaitListenerCompletion(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@SuppressWarnings("serial")
+	static class Payload implements Serializable {}
+}
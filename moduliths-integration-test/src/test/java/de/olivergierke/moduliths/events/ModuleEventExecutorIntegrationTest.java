@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModuleEventExecutorIntegrationTest {
+
+	List<Thread> threads = new CopyOnWriteArrayList<>();
+	ThreadFactory factory = it -> {
+
+		Thread thread = new Thread(it);
+		threads.add(thread);
+
+		return thread;
+	};
+
+	ModuleEventExecutor executor = new ModuleEventExecutor("module", 1, 10, 10, factory);
+
+	@After
+	public void tearDown() {
+		executor.shutdown(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void keepsRunningBatchAndWorkerIfListenerThrowsError() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		List<Thread> invokingThreads = new CopyOnWriteArrayList<>();
+
+		executor.execute(() -> {
+
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		executor.execute(() -> {
+			throw new AssertionError("Failing listener");
+		});
+		executor.execute(() -> invokingThreads.add(Thread.currentThread()));
+
+		release.countDown();
+
+		assertThat(executor.awaitIdle(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.getExecutedCount()).isEqualTo(3);
+
+		executor.execute(() -> {
+			throw new StackOverflowError();
+		});
+		executor.execute(() -> invokingThreads.add(Thread.currentThread()));
+
+		assertThat(executor.awaitIdle(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.getExecutedCount()).isEqualTo(5);
+		assertThat(invokingThreads).hasSize(2).containsOnly(threads.get(0));
+		assertThat(threads.get(0).isAlive()).isTrue();
+	}
+
+	@Test
+	public void runsQueuedTasksAndTerminatesWorkersOnShutdown() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> invocations = new CopyOnWriteArrayList<>();
+
+		executor.execute(() -> {
+
+			try {
+				release.await();
+				invocations.add("first");
+			} catch (InterruptedException e) {
+				invocations.add("interrupted");
+			}
+		});
+		executor.execute(() -> invocations.add("second"));
+
+		new Thread(() -> {
+
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			release.countDown();
+		}).start();
+
+		executor.shutdown(5, TimeUnit.SECONDS);
+
+		assertThat(invocations).containsExactly("first", "second");
+		assertThat(threads).noneMatch(Thread::isAlive);
+	}
+
+	@Test
+	public void terminatesIdleWorkersOnShutdown() throws Exception {
+
+		ModuleEventExecutor executor = new ModuleEventExecutor("idle", 2, 10, 10, factory);
+
+		executor.shutdown(5, TimeUnit.SECONDS);
+
+		Set<Thread> workers = threads.stream() //
+				.filter(it -> it != threads.get(0)) //
+				.collect(Collectors.toSet());
+
+		assertThat(workers).hasSize(2).noneMatch(Thread::isAlive);
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.events;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ModuleAEvent;
+import com.acme.myproject.moduleC.EventAuditor;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Application.class, properties = { "moduliths.events.async.enabled=true",
+		"moduliths.events.async.restrict-to-dependents=true" })
+@Import(ModuleEventsIntegrationTest.ThreadFactoryConfiguration.class)
+public class ModuleEventsIntegrationTest {
+
+	@Autowired ApplicationEventPublisher publisher;
+	@Autowired ModuleAwareApplicationEventMulticaster multicaster;
+	@Autowired CountingThreadFactory threadFactory;
+	@Autowired EventAuditor auditor;
+
+	@Test
+	public void dispatchesEventToListenerOfOtherModuleOnItsExecutor() throws Exception {
+
+		ModuleEventExecutor executor = multicaster.getExecutors().get("moduleB");
+		long executed = executor.getExecutedCount();
+
+		publisher.publishEvent(new ModuleAEvent("payload"));
+
+		assertThat(multicaster.getExecutors()).containsOnlyKeys("moduleB");
+		assertThat(multicaster.awaitListenerCompletion(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.getExecutedCount()).isEqualTo(executed + 1);
+		assertThat(executor.getRejectedCount()).isZero();
+		assertThat(threadFactory.created.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void doesNotDispatchEventToListenerOfModuleNotDependingOnPublisher() throws Exception {
+
+		ModuleAEvent event = new ModuleAEvent("restricted");
+
+		publisher.publishEvent(event);
+
+		assertThat(multicaster.awaitListenerCompletion(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(multicaster.getExecutors()).doesNotContainKey("moduleC");
+		assertThat(auditor.getEvents()).doesNotContain(event);
+	}
+
+	@Test
+	public void resolvesRoutesForDeclaredEventTypesOnStartup() {
+
+		assertThat(multicaster.getRoutedEventTypes()) //
+				.contains(ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, ModuleAEvent.class));
+	}
+
+	@Test
+	public void resolvesRoutesForDeclaredGenericEventTypesOnStartup() {
+
+		ResolvableType genericType = ResolvableType.forClassWithGenerics(GenericEvent.class, String.class);
+
+		// Declared generic types don't equal synthetic ones, so we compare their String representations
+		assertThat(multicaster.getRoutedEventTypes()).extracting(ResolvableType::toString).contains( //
+				ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, GenericEvent.class).toString(), //
+				ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, genericType).toString());
+	}
+
+	@TestConfiguration
+	static class ThreadFactoryConfiguration {
+
+		@Bean(name = ModuleEventExecutor.THREAD_FACTORY_BEAN_NAME)
+		CountingThreadFactory moduleEventThreadFactory() {
+			return new CountingThreadFactory();
+		}
+
+		@Bean
+		GenericEventListener genericEventListener() {
+			return new GenericEventListener();
+		}
+	}
+
+	static class GenericEvent<T> {}
+
+	static class GenericEventListener {
+
+		@EventListener
+		void on(GenericEvent<String> event) {}
+	}
+
+	static class CountingThreadFactory implements ThreadFactory {
+
+		final AtomicInteger created = new AtomicInteger();
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable runnable) {
+
+			created.incrementAndGet();
+
+			return new Thread(runnable);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.maven;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.Modules;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.acme.myproject.Application;
+import com.acme.verified.VerifiedApplication;
+
+/**
+ * @author Oliver Gierke
+ */
+public class VerifyModulesMojoIntegrationTest {
+
+	Path fingerprints, output;
+
+	@Before
+	public void setUp() throws Exception {
+
+		this.fingerprints = Files.createTempDirectory("moduliths");
+		this.output = Files.createTempDirectory("moduliths");
+	}
+
+	@Test
+	public void recordsFingerprintAndWritesSnapshotForValidModules() throws Exception {
+
+		createMojo(VerifiedApplication.class, true).execute();
+
+		BytecodeFingerprint fingerprint = BytecodeFingerprint.forModulith(VerifiedApplication.class);
+
+		assertThat(readFingerprint(VerifiedApplication.class)).isEqualTo(fingerprint.toString());
+		assertThat(CondensedModules.readFrom(getSnapshot(VerifiedApplication.class), fingerprint))
+				.hasValueSatisfying(it -> {
+					assertThat(it.isVerified()).isTrue();
+					assertThat(it.getModuleByName("moduleB")).isPresent();
+				});
+	}
+
+	@Test
+	public void failsForInvalidModulesWithoutRecordingFingerprint() {
+
+		assertThatExceptionOfType(MojoFailureException.class) //
+				.isThrownBy(() -> createMojo(Application.class, false).execute());
+
+		assertThat(fingerprints.resolve(Application.class.getName().concat(".fingerprint"))).doesNotExist();
+	}
+
+	@Test
+	public void skipsVerificationIfClassesDidNotChange() throws Exception {
+
+		recordFingerprint(Application.class);
+
+		createMojo(Application.class, false).execute();
+	}
+
+	@Test
+	public void verifiesAgainIfSnapshotIsMissing() throws Exception {
+
+		recordFingerprint(Application.class);
+
+		assertThatExceptionOfType(MojoFailureException.class) //
+				.isThrownBy(() -> createMojo(Application.class, true).execute());
+	}
+
+	@Test
+	public void skipsVerificationIfClassesDidNotChangeAndSnapshotIsPresent() throws Exception {
+
+		BytecodeFingerprint fingerprint = recordFingerprint(Application.class);
+
+		Modules.of(Application.class).condense().writeTo(getSnapshot(Application.class), fingerprint);
+
+		createMojo(Application.class, true).execute();
+	}
+
+	@Test
+	public void skipsVerificationIfConfigured() throws Exception {
+
+		VerifyModulesMojo mojo = createMojo(Application.class, false);
+		ReflectionTestUtils.setField(mojo, "skip", true);
+
+		mojo.execute();
+
+		assertThat(fingerprints.resolve(Application.class.getName().concat(".fingerprint"))).doesNotExist();
+	}
+
+	private VerifyModulesMojo createMojo(Class<?> modulithType, boolean writeSnapshot) {
+
+		File classes = new File(modulithType.getProtectionDomain().getCodeSource().getLocation().getPath());
+
+		MavenProject project = new MavenProject() {
+
+			/*
+			 * (non-Javadoc)
+			 * @see org.apache.maven.project.MavenProject#getCompileClasspathElements()
+			 */
+			@Override
+			public List<String> getCompileClasspathElements() {
+				return Collections.singletonList(classes.getAbsolutePath());
+			}
+		};
+
+		VerifyModulesMojo mojo = new VerifyModulesMojo();
+
+		ReflectionTestUtils.setField(mojo, "project", project);
+		ReflectionTestUtils.setField(mojo, "modulith", modulithType.getName());
+		ReflectionTestUtils.setField(mojo, "fingerprintDirectory", fingerprints.toFile());
+		ReflectionTestUtils.setField(mojo, "writeSnapshot", writeSnapshot);
+		ReflectionTestUtils.setField(mojo, "outputDirectory", output.toFile());
+
+		return mojo;
+	}
+
+	private BytecodeFingerprint recordFingerprint(Class<?> modulithType) throws Exception {
+
+		BytecodeFingerprint fingerprint = BytecodeFingerprint.forModulith(modulithType);
+
+		Files.write(fingerprints.resolve(modulithType.getName().concat(".fingerprint")),
+				fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+
+		return fingerprint;
+	}
+
+	private String readFingerprint(Class<?> modulithType) throws Exception {
+
+		Path file = fingerprints.resolve(modulithType.getName().concat(".fingerprint"));
+
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+
+	private Path getSnapshot(Class<?> modulithType) {
+		return output.resolve(CondensedModules.getPackagedSnapshotLocation(modulithType));
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Oliver Gierke
+ */
+public class BytecodeFingerprintIntegrationTest {
+
+	Path classes, jar;
+
+	@Before
+	public void setUp() throws Exception {
+
+		Path root = Files.createTempDirectory("moduliths");
+
+		this.classes = root.resolve("classes");
+		this.jar = root.resolve("library.jar");
+
+		write("com/acme/module/Service.class", "bytecode");
+		write("com/acme/module/queries.sql", "SELECT 1");
+		write("com/acme/Application.class", "bytecode");
+		write("com/acme/other/Other.class", "bytecode");
+		write("application.properties", "key=value");
+		write("logback.xml", "<configuration />");
+
+		Files.write(jar, "jar".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void changesWithResourcesOfModules() throws Exception {
+
+		BytecodeFingerprint fingerprint = fingerprint();
+
+		write("com/acme/module/queries.sql", "SELECT 2");
+
+		assertThat(fingerprint()).isNotEqualTo(fingerprint);
+	}
+
+	@Test
+	public void changesWithApplicationConfiguration() throws Exception {
+
+		BytecodeFingerprint fingerprint = fingerprint();
+
+		write("application.properties", "key=other");
+
+		BytecodeFingerprint changed = fingerprint();
+
+		assertThat(changed).isNotEqualTo(fingerprint);
+
+		write("application-test.yml", "key: value");
+
+		assertThat(fingerprint()).isNotEqualTo(changed);
+	}
+
+	@Test
+	public void changesWithJarsOnTheClassPath() throws Exception {
+
+		BytecodeFingerprint fingerprint = fingerprint();
+
+		Files.write(jar, "changed jar".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(fingerprint()).isNotEqualTo(fingerprint);
+	}
+
+	@Test
+	public void doesNotChangeWithOtherModulesOrUnrelatedResources() throws Exception {
+
+		BytecodeFingerprint fingerprint = fingerprint();
+
+		write("com/acme/other/Other.class", "changed bytecode");
+		write("com/acme/other/queries.sql", "SELECT 1");
+		write("logback.xml", "<configuration debug=\"true\" />");
+
+		assertThat(fingerprint()).isEqualTo(fingerprint);
+	}
+
+	private BytecodeFingerprint fingerprint() throws IOException {
+
+		Collection<String> classPath = Arrays.asList(classes.toString(), jar.toString());
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toUri().toURL() }, null)) {
+			return BytecodeFingerprint.forModules(classLoader, Collections.singleton("com.acme.module"),
+					Collections.singleton("com.acme"), classPath);
+		}
+	}
+
+	private void write(String path, String content) throws IOException {
+
+		Path file = classes.resolve(path);
+
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -15,13 +15,25 @@
  */
 package de.olivergierke.moduliths.model;
 
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.*;
 import static org.assertj.core.api.Assertions.*;
 
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import org.junit.Test;
+import org.springframework.stereotype.Component;
 
 import com.acme.myproject.Application;
+import com.acme.myproject.invalid.UndeclaredDependencyComponent;
+import com.acme.myproject.moduleB.ServiceComponentB;
+import com.acme.myproject.moduleB.internal.InternalComponentB;
+import com.tngtech.archunit.core.domain.JavaClass;
 
 /**
  * @author Oliver Gierke
@@ -65,6 +77,29 @@ public class ModulesIntegrationTest {
 		});
 	}
 
+	@Test
+	public void rejectsDependencyToModuleNotDeclaredAsAllowed() {
+
+		// Drop the internal types of moduleB to not fail on the dependency into them first
+		Modules modules = Modules.of(Application.class, resideInAPackage("..moduleB.internal.."));
+
+		assertThat(modules.getModuleByName("moduleC")).hasValueSatisfying(it -> {
+			assertThat(it.getAllowedDependencies()).containsExactly("moduleB");
+			it.verifyDependencies(modules);
+		});
+
+		assertThat(modules.getModuleByName("invalid")).hasValueSatisfying(it -> {
+			assertThatExceptionOfType(IllegalStateException.class) //
+					.isThrownBy(() -> it.verifyDependencies(modules)) //
+					.withMessageContaining("Module 'invalid' depends on module 'moduleB' which is not among its allowed") //
+					.withMessageContaining(UndeclaredDependencyComponent.class.getName());
+		});
+
+		assertThatExceptionOfType(IllegalStateException.class) //
+				.isThrownBy(() -> modules.condense().verify()) //
+				.withMessageContaining("Module 'invalid' depends on module 'moduleB' which is not among its allowed");
+	}
+
 	@Test
 	public void complexModuleExposesNamedInterfaces() {
 
@@ -75,4 +110,92 @@ public class ModulesIntegrationTest {
 					.containsExactlyInAnyOrder("API", "SPI");
 		});
 	}
+
+	@Test
+	public void looksUpTypesAnnotatedWithinModule() {
+
+		Optional<Module> module = modules.getModuleByName("moduleB");
+
+		assertThat(module).hasValueSatisfying(it -> {
+			assertThat(it.getTypesAnnotatedWith(Component.class).stream().map(JavaClass::getName)) //
+					.containsExactlyInAnyOrder(ServiceComponentB.class.getName(), InternalComponentB.class.getName(),
+							"com.acme.myproject.moduleB.internal.SupportingComponentB");
+		});
+	}
+
+	@Test
+	public void condensedModulesMirrorModuleStructure() {
+
+		CondensedModules condensed = Modules.of(Application.class).condense();
+
+		assertThat(condensed.getModuleByType(ServiceComponentB.class.getName())).hasValueSatisfying(it -> {
+			assertThat(it.getName()).isEqualTo("moduleB");
+			assertThat(it.isExposed(ServiceComponentB.class.getName())).isTrue();
+			assertThat(it.isExposed(InternalComponentB.class.getName())).isFalse();
+			assertThat(it.getDependencies(DependencyDepth.IMMEDIATE)) //
+					.extracting(CondensedModule::getName) //
+					.containsExactly("moduleA");
+		});
+
+		assertThat(condensed.withinRootPackages(Application.class.getName())).isTrue();
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> condensed.verify());
+	}
+
+	@Test
+	public void resolvesDependenciesUpToGivenNumberOfLevels() {
+
+		assertThat(modules.getModuleByName("moduleC")).hasValueSatisfying(it -> {
+			assertThat(it.getDependencies(modules, 0)).isEmpty();
+			assertThat(it.getDependencies(modules, 1)).extracting(Module::getName).containsExactly("moduleB");
+			assertThat(it.getDependencies(modules, 2)).extracting(Module::getName).containsExactly("moduleB", "moduleA");
+		});
+
+		assertThat(modules.condense().getModuleByName("moduleC")).hasValueSatisfying(it -> {
+			assertThat(it.getDependencies(1)).extracting(CondensedModule::getName).containsExactly("moduleB");
+			assertThat(it.getDependencies(2)).extracting(CondensedModule::getName).containsExactly("moduleB", "moduleA");
+			assertThat(it.getDependencies(DependencyDepth.ALL)).isEqualTo(it.getDependencies(2));
+		});
+	}
+
+	@Test
+	public void sortsModulesTopologically() {
+
+		assertThat(modules.condense().sortTopologically()) //
+				.extracting(CondensedModule::getName) //
+				.containsSubsequence("moduleA", "moduleB") //
+				.containsSubsequence("moduleA", "invalid");
+	}
+
+	@Test
+	public void roundTripsCondensedModulesThroughSnapshot() throws Exception {
+
+		Path file = Files.createTempDirectory("moduliths").resolve("modules.snapshot");
+		BytecodeFingerprint fingerprint = BytecodeFingerprint.forModulith(Application.class);
+
+		modules.condense().writeTo(file, fingerprint);
+
+		assertThat(CondensedModules.readFrom(file, BytecodeFingerprint.of("other"))).isEmpty();
+		assertThat(CondensedModules.readFrom(file, fingerprint)).hasValueSatisfying(condensed -> {
+
+			assertThat(condensed.getModuleByName("moduleC")).hasValueSatisfying(it -> {
+				assertThat(it.getDisplayName()).isEqualTo("MyModule C");
+			});
+
+			assertThat(condensed.getModuleByType(ServiceComponentB.class.getName())).hasValueSatisfying(it -> {
+				assertThat(it.isExposed(InternalComponentB.class.getName())).isFalse();
+				assertThat(it.getDependencies(DependencyDepth.IMMEDIATE)) //
+						.extracting(CondensedModule::getName) //
+						.containsExactly("moduleA");
+			});
+
+			assertThat(condensed.isVerified()).isFalse();
+			assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> condensed.verify());
+		});
+
+		try (InputStream stream = Files.newInputStream(file)) {
+			assertThat(CondensedModules.readFrom(stream, file)).hasValueSatisfying(condensed -> {
+				assertThat(condensed.getModuleByName("moduleC")).isPresent();
+			});
+		}
+	}
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+import com.acme.verified.VerifiedApplication;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModulesRuntimeIntegrationTest {
+
+	@Test
+	public void sharesModelPerModulithType() {
+
+		CondensedModules modules = ModulesRuntime.of(VerifiedApplication.class).getModules();
+
+		assertThat(ModulesRuntime.of(VerifiedApplication.class).getModules()).isSameAs(modules);
+	}
+
+	@Test
+	public void doesNotKeepClassLoaderOfModulithTypeFromBeingCollected() throws Exception {
+
+		WeakReference<ClassLoader> reference = createModelInSeparateClassLoader();
+
+		for (int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+
+		assertThat(reference.get()).isNull();
+	}
+
+	private static WeakReference<ClassLoader> createModelInSeparateClassLoader() throws Exception {
+
+		URL classes = VerifiedApplication.class.getProtectionDomain().getCodeSource().getLocation();
+
+		try (URLClassLoader classLoader = new ApplicationClassLoader(classes)) {
+
+			Class<?> modulithType = classLoader.loadClass(VerifiedApplication.class.getName());
+
+			assertThat(modulithType).isNotSameAs(VerifiedApplication.class);
+			assertThat(ModulesRuntime.of(modulithType).getModules().getModuleByName("moduleA")).isPresent();
+
+			return new WeakReference<>(classLoader);
+		}
+	}
+
+	/**
+	 * Loads the types of the verified application itself rather than delegating to its parent, like the class loader of
+	 * a restarted application would.
+	 */
+	private static class ApplicationClassLoader extends URLClassLoader {
+
+		ApplicationClassLoader(URL url) {
+			super(new URL[] { url }, ModulesRuntimeIntegrationTest.class.getClassLoader());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.ClassLoader#loadClass(java.lang.String, boolean)
+		 */
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+			if (!name.startsWith(VerifiedApplication.class.getPackage().getName())) {
+				return super.loadClass(name, resolve);
+			}
+
+			synchronized (getClassLoadingLock(name)) {
+
+				Class<?> type = findLoadedClass(name);
+
+				return type != null ? type : findClass(name);
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.Modules;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.acme.verified.VerifiedApplication;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModelSnapshotIntegrationTest {
+
+	@Test
+	public void createsSnapshotOnceForConcurrentReaders() throws Exception {
+
+		Path file = Files.createTempDirectory("moduliths").resolve("modules.snapshot");
+		BytecodeFingerprint fingerprint = BytecodeFingerprint.forModulith(VerifiedApplication.class);
+		AtomicInteger imports = new AtomicInteger();
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<CondensedModules>> results = new ArrayList<>();
+
+		try {
+
+			for (int i = 0; i < 8; i++) {
+
+				results.add(executor.submit(() -> {
+
+					start.await();
+
+					return new ModelSnapshot(file, fingerprint).readOrCreate(true, () -> {
+
+						imports.incrementAndGet();
+
+						return verifiedModel();
+					});
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<CondensedModules> result : results) {
+				assertThat(result.get(30, TimeUnit.SECONDS).getModuleByName("moduleA")).isPresent();
+			}
+
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(imports.get()).isEqualTo(1);
+		assertThat(file.resolveSibling("modules.snapshot.lock")).exists();
+		assertThat(CondensedModules.readFrom(file, fingerprint)).hasValueSatisfying(it -> it.isVerified());
+	}
+
+	@Test
+	public void waitsForSnapshotWrittenByOtherJvm() throws Exception {
+
+		Path directory = Files.createTempDirectory("moduliths");
+		Path file = directory.resolve("modules.snapshot");
+		Path locked = directory.resolve("locked");
+
+		Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(), //
+				"-cp", System.getProperty("java.class.path"), //
+				OtherJvm.class.getName(), file.toString(), locked.toString()) //
+						.inheritIO() //
+						.start();
+
+		try {
+
+			for (int i = 0; i < 300 && !Files.exists(locked); i++) {
+				Thread.sleep(100);
+			}
+
+			assertThat(locked).exists();
+
+			AtomicInteger imports = new AtomicInteger();
+			CondensedModules modules = new ModelSnapshot(file, BytecodeFingerprint.forModulith(VerifiedApplication.class))
+					.readOrCreate(true, () -> {
+
+						imports.incrementAndGet();
+
+						return verifiedModel();
+					});
+
+			assertThat(imports.get()).isZero();
+			assertThat(modules.getModuleByName("moduleA")).isPresent();
+			assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+			assertThat(process.exitValue()).isZero();
+
+		} finally {
+			process.destroyForcibly();
+		}
+	}
+
+	@Test
+	public void replacesUnverifiedSnapshotIfVerifiedModelIsRequired() throws Exception {
+
+		Path file = Files.createTempDirectory("moduliths").resolve("modules.snapshot");
+		BytecodeFingerprint fingerprint = BytecodeFingerprint.forModulith(VerifiedApplication.class);
+		AtomicInteger imports = new AtomicInteger();
+
+		new ModelSnapshot(file, fingerprint).readOrCreate(false, () -> {
+
+			imports.incrementAndGet();
+
+			return Modules.of(VerifiedApplication.class).condense();
+		});
+
+		CondensedModules verified = new ModelSnapshot(file, fingerprint).readOrCreate(true, () -> {
+
+			imports.incrementAndGet();
+
+			return verifiedModel();
+		});
+
+		assertThat(imports.get()).isEqualTo(2);
+		assertThat(verified.isVerified()).isTrue();
+	}
+
+	private static CondensedModules verifiedModel() {
+
+		Modules modules = Modules.of(VerifiedApplication.class);
+		modules.verify();
+
+		return modules.condense();
+	}
+
+	/**
+	 * Simulates another test JVM creating the snapshot: holds the lock on the snapshot, signals that via the given marker
+	 * file and writes the snapshot only a while later.
+	 */
+	static class OtherJvm {
+
+		public static void main(String[] args) throws Exception {
+
+			Path file = Paths.get(args[0]);
+			Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+
+			try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					FileLock lock = channel.lock()) {
+
+				Files.createFile(Paths.get(args[1]));
+				Thread.sleep(1000);
+
+				verifiedModel().writeTo(file, BytecodeFingerprint.forModulith(VerifiedApplication.class));
+			}
+		}
+	}
+}
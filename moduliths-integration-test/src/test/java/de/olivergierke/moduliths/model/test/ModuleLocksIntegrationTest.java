@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.*;
+
+import de.olivergierke.moduliths.model.test.ModuleLocks.Locked;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import com.acme.verified.moduleA.ModuleLocksFixtures;
+import com.acme.verified.moduleB.IndependentModuleFixture;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModuleLocksIntegrationTest {
+
+	@Test
+	public void runsTestsOfOverlappingModulesOneAfterAnotherInParallelExecution() {
+
+		TestExecutionSummary summary = runInParallel("same_thread", selectClass(ModuleLocksFixtures.First.class),
+				selectClass(ModuleLocksFixtures.Second.class), selectClass(IndependentModuleFixture.class));
+
+		assertThat(summary.getTestsSucceededCount()).isEqualTo(3);
+
+		List<String> executions = ModuleLocksFixtures.EXECUTIONS;
+
+		assertThat(overlap(executions, "First", "Second")).isFalse();
+		assertThat(overlap(executions, "First", "Independent") || overlap(executions, "Second", "Independent")).isTrue();
+	}
+
+	@Test
+	public void rejectsConcurrentExecutionOfTestMethods() {
+
+		TestExecutionSummary summary = runInParallel("concurrent", selectClass(ModuleLocksFixtures.First.class));
+
+		assertThat(summary.getTestsSucceededCount()).isZero();
+		assertThat(summary.getFailures()).hasSize(1);
+		assertThat(summary.getFailures().get(0).getException()).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void releasesLocksFromAnyThread() throws Exception {
+
+		Locked locked = ModuleLocks.lock(Arrays.asList("locks.moduleA", "locks.moduleB"));
+
+		CompletableFuture.runAsync(locked::close).get(5, TimeUnit.SECONDS);
+		CompletableFuture.runAsync(() -> ModuleLocks.lock(Collections.singleton("locks.moduleB")).close()) //
+				.get(5, TimeUnit.SECONDS);
+	}
+
+	private static TestExecutionSummary runInParallel(String methodMode, ClassSelector... selectors) {
+
+		ModuleLocksFixtures.reset();
+
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request() //
+				.selectors(selectors) //
+				.configurationParameter("junit.jupiter.execution.parallel.enabled", "true") //
+				.configurationParameter("junit.jupiter.execution.parallel.mode.default", methodMode) //
+				.configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent") //
+				.configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed") //
+				.configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", "4") //
+				.build(), listener);
+
+		return listener.getSummary();
+	}
+
+	private static boolean overlap(List<String> executions, String left, String right) {
+
+		return executions.indexOf("start " + left) < executions.indexOf("end " + right)
+				&& executions.indexOf("start " + right) < executions.indexOf("end " + left);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.model.test.ModuleTest.BootstrapMode;
+import de.olivergierke.moduliths.model.test.ModuleTestExecution.ContextKey;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModuleTestClassOrdererIntegrationTest {
+
+	@Test
+	public void groupsTestsByContextAndOrdersGroupsByOverlap() {
+
+		ContextKey a = key("a", "a");
+		ContextKey b = key("b", "b");
+		ContextKey c = key("c", "c", "b");
+
+		Map<String, ContextKey> keys = new HashMap<>();
+		keys.put("a1", a);
+		keys.put("a2", a);
+		keys.put("b1", b);
+		keys.put("b2", b);
+		keys.put("c1", c);
+
+		List<String> tests = Arrays.asList("b1", "other", "a1", "c1", "b2", "a2");
+
+		assertThat(ModuleTestClassOrderer.order(tests, it -> Optional.ofNullable(keys.get(it)))) //
+				.containsExactly("b1", "b2", "c1", "a1", "a2", "other");
+	}
+
+	@Test
+	public void considersBootstrapModeForContextKey() {
+
+		assertThat(key("a", "a")).isEqualTo(key("a", "a"));
+		assertThat(new ContextKey("a", BootstrapMode.DIRECT_DEPENDENCIES, 1, new HashSet<>(Arrays.asList("a"))))
+				.isNotEqualTo(key("a", "a"));
+	}
+
+	@Test
+	public void detectsTestClassesBeingRunConcurrently() {
+
+		Map<String, String> parameters = new HashMap<>();
+		Function<String, Optional<String>> lookup = it -> Optional.ofNullable(parameters.get(it));
+
+		assertThat(ModuleTestClassOrderer.runsClassesConcurrently(lookup)).isFalse();
+
+		parameters.put("junit.jupiter.execution.parallel.enabled", "true");
+		parameters.put("junit.jupiter.execution.parallel.mode.default", "concurrent");
+
+		assertThat(ModuleTestClassOrderer.runsClassesConcurrently(lookup)).isTrue();
+
+		parameters.put("junit.jupiter.execution.parallel.mode.classes.default", "same_thread");
+
+		assertThat(ModuleTestClassOrderer.runsClassesConcurrently(lookup)).isFalse();
+	}
+
+	private static ContextKey key(String module, String... basePackages) {
+		return new ContextKey(module, BootstrapMode.STANDALONE, 0, new HashSet<>(Arrays.asList(basePackages)));
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.*;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import com.acme.myproject.Application;
+import com.acme.verified.moduleA.ModuleTestResultCacheFixtures.TestsOnly;
+import com.acme.verified.moduleA.ModuleTestResultCacheFixtures.WithParameterizedTest;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModuleTestResultCacheIntegrationTest {
+
+	@Test
+	public void fingerprintsModuleClosure() {
+
+		BytecodeFingerprint moduleA = BytecodeFingerprint.forModules(Application.class,
+				Collections.singleton("com.acme.myproject.moduleA"));
+
+		assertThat(BytecodeFingerprint.forModules(Application.class, Collections.singleton("com.acme.myproject.moduleA")))
+				.isEqualTo(moduleA);
+		assertThat(BytecodeFingerprint.forModules(Application.class,
+				Arrays.asList("com.acme.myproject.moduleA", "com.acme.myproject.moduleB"))).isNotEqualTo(moduleA);
+		assertThat(BytecodeFingerprint.forModulith(Application.class)).isNotEqualTo(moduleA);
+	}
+
+	@Test
+	public void recordsPassedTestsPerFingerprint() throws Exception {
+
+		ModuleTestResultCache cache = new ModuleTestResultCache(Files.createTempDirectory("moduliths").resolve("results"));
+		BytecodeFingerprint fingerprint = BytecodeFingerprint.of("fingerprint");
+
+		assertThat(cache.hasPassed(getClass(), fingerprint)).isFalse();
+
+		cache.recordPass(getClass(), fingerprint);
+
+		assertThat(cache.hasPassed(getClass(), fingerprint)).isTrue();
+		assertThat(cache.hasPassed(getClass(), BytecodeFingerprint.of("other"))).isFalse();
+
+		cache.evict(getClass());
+
+		assertThat(cache.hasPassed(getClass(), fingerprint)).isFalse();
+	}
+
+	@Test
+	public void recordsTestClassOnlyOnceAllTestMethodsPassed() throws Exception {
+
+		Path directory = Files.createTempDirectory("moduliths");
+
+		run(directory, selectMethod(TestsOnly.class, "first"));
+
+		assertThat(hasPassed(directory, TestsOnly.class)).isFalse();
+
+		assertThat(run(directory, selectClass(TestsOnly.class)).getTestsSucceededCount()).isEqualTo(2);
+		assertThat(hasPassed(directory, TestsOnly.class)).isTrue();
+
+		assertThat(run(directory, selectClass(TestsOnly.class)).getTestsSucceededCount()).isZero();
+	}
+
+	@Test
+	public void doesNotRecordTestClassIfOnlyInvocationsOfParameterizedTestRan() throws Exception {
+
+		Path directory = Files.createTempDirectory("moduliths");
+
+		TestExecutionSummary summary = run(directory,
+				selectMethod(WithParameterizedTest.class, "parameterized", String.class.getName()));
+
+		assertThat(summary.getTestsSucceededCount()).isEqualTo(2);
+		assertThat(hasPassed(directory, WithParameterizedTest.class)).isFalse();
+	}
+
+	@Test
+	public void doesNotRecordTestClassWithTestTemplates() throws Exception {
+
+		Path directory = Files.createTempDirectory("moduliths");
+
+		assertThat(run(directory, selectClass(WithParameterizedTest.class)).getTestsSucceededCount()).isEqualTo(4);
+		assertThat(hasPassed(directory, WithParameterizedTest.class)).isFalse();
+	}
+
+	private static TestExecutionSummary run(Path directory, DiscoverySelector selector) {
+
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		System.setProperty(ModuleTestResultCache.CACHE_DIRECTORY_PROPERTY, directory.toString());
+
+		try {
+			LauncherFactory.create() //
+					.execute(LauncherDiscoveryRequestBuilder.request().selectors(selector).build(), listener);
+		} finally {
+			System.clearProperty(ModuleTestResultCache.CACHE_DIRECTORY_PROPERTY);
+		}
+
+		return listener.getSummary();
+	}
+
+	private static boolean hasPassed(Path directory, Class<?> testClass) {
+
+		return new ModuleTestResultCache(directory).hasPassed(testClass,
+				ModuleTestExecution.of(testClass).getClosureFingerprint());
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Modules;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.acme.myproject.Application;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModuleTestSelectionIntegrationTest {
+
+	private static final String SOURCES = "moduliths-sample/src/main/java/com/acme/myproject/";
+
+	CondensedModules modules = Modules.of(Application.class).condense();
+
+	@Test
+	public void selectsChangedModuleAndItsDependents() {
+
+		ModuleTestSelection selection = ModuleTestSelection.of(modules,
+				Arrays.asList(SOURCES + "moduleB/internal/InternalComponentB.java"));
+
+		assertThat(selection.includes(module("moduleB"))).isTrue();
+		assertThat(selection.includes(module("moduleC"))).isTrue();
+		assertThat(selection.includes(module("moduleA"))).isFalse();
+	}
+
+	@Test
+	public void doesNotSelectDependenciesOfChangedModule() {
+
+		ModuleTestSelection selection = ModuleTestSelection.of(modules, Arrays.asList(SOURCES + "moduleC/package-info.java"));
+
+		assertThat(selection.includes(module("moduleC"))).isTrue();
+		assertThat(selection.includes(module("moduleB"))).isFalse();
+	}
+
+	@Test
+	public void selectsAllModulesForChangesOutsideOfModules() {
+
+		ModuleTestSelection selection = ModuleTestSelection.of(modules,
+				Arrays.asList(SOURCES + "moduleC/ServiceComponentC.java", "moduliths-sample/pom.xml"));
+
+		modules.forEach(it -> assertThat(selection.includes(it)).isTrue());
+	}
+
+	private CondensedModule module(String name) {
+		return modules.getModuleByName(name).orElseThrow(IllegalStateException::new);
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ServiceComponentA;
+import com.acme.myproject.moduleB.ServiceComponentB;
+import com.acme.myproject.moduleB.internal.FinalMethodComponentB;
+import com.acme.myproject.moduleB.internal.InternalComponentB;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Application.class, properties = { "moduliths.observability.enabled=true",
+		"moduliths.observability.latencies.enabled=true" })
+@Import(FinalMethodComponentB.class)
+public class ModuleObservabilityIntegrationTest {
+
+	@Autowired ServiceComponentA componentA;
+	@Autowired ServiceComponentB componentB;
+	@Autowired InternalComponentB internalComponentB;
+	@Autowired FinalMethodComponentB finalMethodComponentB;
+	@Autowired ModuleInvocationCounters counters;
+	@Autowired ModuleLatencies latencies;
+
+	@Before
+	public void setUp() {
+
+		counters.reset();
+		latencies.reset();
+	}
+
+	@Test
+	public void countsInvocationsBetweenModules() {
+
+		componentB.doSomethingWithA();
+		componentB.doSomethingWithA();
+		componentA.doSomething();
+
+		assertThat(counters.getInvocations()) //
+				.containsEntry("external -> moduleB", 2L) //
+				.containsEntry("moduleB -> moduleA", 2L) //
+				.containsEntry("external -> moduleA", 1L) //
+				.hasSize(3);
+	}
+
+	@Test
+	public void attributesInvocationsStartingInInternalBeansToTheirModule() {
+
+		internalComponentB.doSomethingWith(componentA);
+
+		assertThat(counters.getInvocations()) //
+				.containsEntry("moduleB -> moduleA", 1L) //
+				.hasSize(1);
+	}
+
+	@Test
+	public void recordsTotalAndSelfTimeOfInvocations() {
+
+		componentB.doSomethingWithA();
+
+		int moduleA = getIndex("moduleA");
+		int moduleB = getIndex("moduleB");
+
+		LatencyHistogram total = latencies.getTotalTime(ModuleInvocationCounters.EXTERNAL, moduleB).get();
+		LatencyHistogram self = latencies.getSelfTime(ModuleInvocationCounters.EXTERNAL, moduleB).get();
+		LatencyHistogram nested = latencies.getTotalTime(moduleB, moduleA).get();
+
+		assertThat(total.getCount()).isEqualTo(1);
+		assertThat(nested.getCount()).isEqualTo(1);
+		assertThat(self.getTotal(TimeUnit.NANOSECONDS)) //
+				.isEqualTo(total.getTotal(TimeUnit.NANOSECONDS) - nested.getTotal(TimeUnit.NANOSECONDS));
+		assertThat(latencies.getTotalTimes()).containsKeys("external -> moduleB", "moduleB -> moduleA");
+	}
+
+	@Test
+	public void doesNotProxyBeansWithFinalMethods() {
+
+		assertThat(AopUtils.isAopProxy(finalMethodComponentB)).isFalse();
+		assertThat(finalMethodComponentB.record("invocation")).isPositive();
+	}
+
+	private int getIndex(String name) {
+
+		return counters.getModules().stream() //
+				.filter(it -> it.getName().equals(name)) //
+				.findFirst() //
+				.map(counters::getIndex) //
+				.orElseThrow(IllegalArgumentException::new);
+	}
+}
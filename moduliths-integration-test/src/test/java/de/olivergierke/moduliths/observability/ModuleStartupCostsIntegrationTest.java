@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.observability.ModuleStartupReport.Entry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ServiceComponentA;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Application.class, properties = "moduliths.observability.startup.enabled=true")
+public class ModuleStartupCostsIntegrationTest {
+
+	@Autowired ModuleStartupCosts costs;
+	@Autowired ConfigurableApplicationContext context;
+
+	@Test
+	public void attributesBeanCreationsToModules() {
+
+		ModuleStartupReport report = costs.getReport();
+
+		assertThat(report.getEntries()).filteredOn(it -> it.getName().equals("moduleA")) //
+				.extracting(Entry::getBeans) //
+				.containsExactly(1);
+		assertThat(report.getEntries()).filteredOn(it -> it.getName().equals("moduleB")) //
+				.extracting(Entry::getBeans) //
+				.containsExactly(3);
+		assertThat(report.getEntries()).allSatisfy(it -> assertThat(it.getTotalTime()).isNotNegative());
+	}
+
+	@Test
+	public void doesNotRequireObservingInvocations() {
+		assertThat(context.getBeanNamesForType(ModuleObservabilityBeanPostProcessor.class)).isEmpty();
+	}
+
+	@Test
+	public void stopsRecordingOnceTheContextIsRefreshed() {
+
+		context.getAutowireCapableBeanFactory().createBean(ServiceComponentA.class);
+
+		assertThat(costs.getReport().getEntries()).filteredOn(it -> it.getName().equals("moduleA")) //
+				.extracting(Entry::getBeans) //
+				.containsExactly(1);
+	}
+
+	@Test
+	public void rendersReportAsTableAndJson() {
+
+		ModuleStartupReport report = costs.getReport();
+
+		assertThat(report.toTable()).contains("Module startup costs", "moduleA", "Instantiation");
+		assertThat(report.toJson()).startsWith("{\"modules\":[") //
+				.contains("{\"name\":\"moduleA\",\"displayName\":\"moduleA\",\"beans\":1,");
+	}
+}
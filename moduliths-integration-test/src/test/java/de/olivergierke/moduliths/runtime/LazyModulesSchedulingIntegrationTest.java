@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ServiceComponentA;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { Application.class, LazyModulesSchedulingIntegrationTest.Config.class },
+		properties = "moduliths.lazy-modules=moduleA")
+public class LazyModulesSchedulingIntegrationTest {
+
+	@Configuration
+	@EnableScheduling
+	static class Config {}
+
+	@Autowired ConfigurableListableBeanFactory beanFactory;
+
+	@Test
+	public void initializesBeansWithScheduledMethodsOfLazyModuleEagerly() throws Exception {
+
+		assertThat(beanFactory.containsSingleton("serviceComponentA")).isTrue();
+
+		ServiceComponentA component = beanFactory.getBean(ServiceComponentA.class);
+		long timeout = System.currentTimeMillis() + 5000;
+
+		while (!component.getSchedulingThread().isPresent() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+		}
+
+		assertThat(component.getSchedulingThread()).isPresent();
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.invalid.InvalidComponent;
+import com.acme.myproject.invalid.OverloadedFactoryMethods;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModuleBoundaryVerifierIntegrationTest {
+
+	@Configuration
+	@Import(InvalidComponent.class)
+	static class InvalidConfiguration {}
+
+	@Configuration
+	@Import(OverloadedFactoryMethods.class)
+	static class OverloadedConfiguration {}
+
+	@Test
+	public void rejectsInjectionOfNonExposedTypeOnStartup() {
+
+		assertThatExceptionOfType(IllegalStateException.class) //
+				.isThrownBy(() -> run(true)) //
+				.withMessageContaining("Module 'invalid' depends on non-exposed type") //
+				.withMessageContaining("InternalComponentB");
+	}
+
+	@Test
+	public void onlyReportsViolationsIfConfigured() {
+
+		try (ConfigurableApplicationContext context = run(false)) {
+
+			assertThat(context.getBean(ModuleBoundaryVerifier.class).getViolations()) //
+					.hasSize(1) //
+					.allSatisfy(it -> assertThat(it).contains("Bean " + InvalidComponent.class.getName() + " via constructor"));
+		}
+	}
+
+	@Test
+	public void ignoresOverloadsOfFactoryMethods() {
+
+		try (ConfigurableApplicationContext context = run(true, OverloadedConfiguration.class)) {
+			assertThat(context.getBean(ModuleBoundaryVerifier.class).getViolations()).isEmpty();
+		}
+	}
+
+	private static ConfigurableApplicationContext run(boolean failOnViolation) {
+		return run(failOnViolation, InvalidConfiguration.class);
+	}
+
+	private static ConfigurableApplicationContext run(boolean failOnViolation, Class<?> configuration) {
+
+		return new SpringApplicationBuilder(Application.class, configuration) //
+				.web(WebApplicationType.NONE) //
+				.properties("moduliths.boundaries.verify=true",
+						"moduliths.boundaries.fail-on-violation=" + failOnViolation) //
+				.run();
+	}
+}
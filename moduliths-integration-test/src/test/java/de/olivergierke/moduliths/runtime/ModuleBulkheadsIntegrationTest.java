@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ServiceComponentA;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { Application.class, ModuleBulkheadsIntegrationTest.Config.class },
+		properties = { "moduliths.bulkheads.enabled=true", "moduliths.bulkheads.modules.moduleA.max-pool-size=4",
+				"moduliths.bulkheads.modules.moduleA.queue-capacity=2" })
+public class ModuleBulkheadsIntegrationTest {
+
+	@Configuration
+	@EnableAsync
+	@EnableScheduling
+	static class Config {}
+
+	@Autowired ServiceComponentA componentA;
+	@Autowired ModuleExecutors executors;
+	@Autowired ConfigurableApplicationContext context;
+
+	@Test
+	public void runsAsynchronousMethodOnExecutorOfDeclaringModule() throws Exception {
+
+		long rejected = executors.getRejectedCount("moduleA");
+
+		String thread = componentA.doSomethingAsynchronously().get(5, TimeUnit.SECONDS);
+
+		assertThat(thread).startsWith("moduliths-async-moduleA-");
+		assertThat(executors.getExecutors().get("moduleA").getMaxPoolSize()).isEqualTo(4);
+		assertThat(executors.getRejectedCount("moduleA")).isEqualTo(rejected);
+	}
+
+	@Test
+	public void runsAsynchronousMethodOfBeanCreatedAfterStartupOnExecutorOfDeclaringModule() throws Exception {
+
+		ServiceComponentA component = context.getAutowireCapableBeanFactory().createBean(ServiceComponentA.class);
+
+		assertThat(component.doSomethingAsynchronously().get(5, TimeUnit.SECONDS)) //
+				.startsWith("moduliths-async-moduleA-");
+	}
+
+	@Test
+	public void runsScheduledMethodOnSchedulerOfDeclaringModule() throws Exception {
+
+		long timeout = System.currentTimeMillis() + 5000;
+		Optional<String> thread = componentA.getSchedulingThread();
+
+		while (!thread.isPresent() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(50);
+			thread = componentA.getSchedulingThread();
+		}
+
+		assertThat(thread).hasValueSatisfying(it -> assertThat(it).startsWith("moduliths-scheduling-moduleA-"));
+	}
+
+	@Test
+	public void rejectsAsynchronousInvocationsOnceThreadsAndQueueOfModuleAreExhausted() throws Exception {
+
+		ThreadPoolTaskExecutor executor = executors.getExecutors().get("moduleA");
+		ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+		CountDownLatch release = new CountDownLatch(1);
+		long rejected = executors.getRejectedCount("moduleA");
+
+		try {
+
+			// 4 threads busy plus 2 waiting in the queue
+			for (int i = 0; i < 6; i++) {
+				executor.execute(() -> await(release));
+			}
+
+			assertThat(pool.getPoolSize()).isEqualTo(4);
+			assertThat(pool.getQueue()).hasSize(2);
+
+			assertThatExceptionOfType(TaskRejectedException.class) //
+					.isThrownBy(() -> componentA.doSomethingAsynchronously());
+			assertThat(executors.getRejectedCount("moduleA")).isEqualTo(rejected + 1);
+
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Modules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleA.ServiceComponentA;
+import com.acme.myproject.moduleB.ServiceComponentB;
+import com.acme.myproject.moduleC.EventAuditor;
+
+/**
+ * @author Oliver Gierke
+ */
+public class ModulePreloaderIntegrationTest {
+
+	CondensedModules modules = Modules.of(Application.class).condense();
+
+	@Test
+	public void preloadsTypesOfAllModules() throws Exception {
+
+		Map<CondensedModule, List<String>> types = new HashMap<>();
+		types.put(modules.getModuleByName("moduleA").get(), Arrays.asList(ServiceComponentA.class.getName()));
+		types.put(modules.getModuleByName("moduleB").get(),
+				Arrays.asList(ServiceComponentB.class.getName(), "com.acme.myproject.moduleB.Unknown"));
+
+		ModulePreloader preloader = new ModulePreloader(modules, types, getClass().getClassLoader(), 2);
+
+		assertThat(preloader.start().get(5, TimeUnit.SECONDS)).isNull();
+	}
+
+	@Test
+	public void preloadsModuleOnlyAfterTheModulesItDependsOn() throws Exception {
+
+		String typeA = ServiceComponentA.class.getName();
+		String typeB = ServiceComponentB.class.getName();
+		String typeC = EventAuditor.class.getName();
+
+		Map<CondensedModule, List<String>> types = new HashMap<>();
+		types.put(modules.getModuleByName("moduleA").get(), Collections.singletonList(typeA));
+		types.put(modules.getModuleByName("moduleB").get(), Collections.singletonList(typeB));
+		types.put(modules.getModuleByName("moduleC").get(), Collections.singletonList(typeC));
+
+		// Loading the type of moduleA is slow, so that modules not waiting for it would be preloaded first
+		RecordingClassLoader classLoader = new RecordingClassLoader(getClass().getClassLoader(), typeA);
+
+		new ModulePreloader(modules, types, classLoader, 4).start().get(5, TimeUnit.SECONDS);
+
+		assertThat(classLoader.loaded).containsSubsequence(typeA, typeB, typeC);
+	}
+
+	/**
+	 * {@link ClassLoader} recording the order in which types were loaded through it.
+	 *
+	 * @author Oliver Gierke
+	 */
+	static class RecordingClassLoader extends ClassLoader {
+
+		private final String slowType;
+		private final List<String> loaded = new CopyOnWriteArrayList<>();
+
+		RecordingClassLoader(ClassLoader parent, String slowType) {
+
+			super(parent);
+
+			this.slowType = slowType;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.ClassLoader#loadClass(java.lang.String, boolean)
+		 */
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+			if (name.equals(slowType)) {
+
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			Class<?> type = super.loadClass(name, resolve);
+
+			loaded.add(name);
+
+			return type;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.acme.myproject.Application;
+import com.acme.myproject.moduleB.ServiceComponentB;
+import com.acme.myproject.moduleC.EventAuditor;
+
+/**
+ * @author Oliver Gierke
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Application.class, properties = { "moduliths.parallel-initialization.enabled=true",
+		"moduliths.parallel-initialization.parallelism=2" })
+public class ParallelModuleInitializationIntegrationTest {
+
+	@Autowired ServiceComponentB componentB;
+	@Autowired EventAuditor auditor;
+
+	@Test
+	public void bootstrapsApplicationWithParallelInitializationEnabled() {
+
+		assertThat(componentB).isNotNull();
+		assertThat(auditor).isNotNull();
+
+		componentB.doSomethingWithA();
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.maven;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.Modules;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.springframework.util.StringUtils;
+
+/**
+ * Verifies the module structure of a modulith as part of the build. The verification result is cached by recording the
+ * {@link BytecodeFingerprint} of the modulith's root packages after a successful run. Subsequent runs are skipped as
+ * long as the bytecode within those packages doesn't change.
+ *
+ * @author Oliver Gierke
+ */
+@Mojo(name = "verify-modules", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true,
+		requiresDependencyResolution = ResolutionScope.COMPILE)
+public class VerifyModulesMojo extends AbstractMojo {
+
+	private @Parameter(defaultValue = "${project}", readonly = true, required = true) MavenProject project;
+
+	/**
+	 * The fully-qualified name of the type annotated with {@link de.olivergierke.moduliths.Modulith}.
+	 */
+	private @Parameter(property = "moduliths.modulith", required = true) String modulith;
+
+	/**
+	 * The directory to record the fingerprints of successfully verified classes in.
+	 */
+	private @Parameter(property = "moduliths.fingerprintDirectory",
+			defaultValue = "${project.build.directory}/moduliths") File fingerprintDirectory;
+
+	/**
+	 * Whether to package a snapshot of the verified module model with the application's classes, so that runtime
+	 * components don't have to import the application's bytecode.
+	 */
+	private @Parameter(property = "moduliths.writeSnapshot", defaultValue = "false") boolean writeSnapshot;
+
+	/**
+	 * The directory to write the module model snapshot to.
+	 */
+	private @Parameter(defaultValue = "${project.build.outputDirectory}", readonly = true) File outputDirectory;
+
+	/**
+	 * Whether to skip the verification entirely.
+	 */
+	private @Parameter(property = "moduliths.skip", defaultValue = "false") boolean skip;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apache.maven.plugin.Mojo#execute()
+	 */
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+
+		if (skip) {
+			getLog().info("Skipping module verification.");
+			return;
+		}
+
+		Thread thread = Thread.currentThread();
+		ClassLoader original = thread.getContextClassLoader();
+
+		try (URLClassLoader classLoader = createProjectClassLoader()) {
+
+			thread.setContextClassLoader(classLoader);
+
+			Class<?> modulithType = classLoader.loadClass(modulith);
+			BytecodeFingerprint fingerprint = BytecodeFingerprint.forModulith(modulithType);
+			Path fingerprintFile = fingerprintDirectory.toPath().resolve(modulith.concat(".fingerprint"));
+
+			Path snapshotFile = outputDirectory.toPath().resolve(CondensedModules.getPackagedSnapshotLocation(modulithType));
+
+			if (fingerprint.equals(readFingerprint(fingerprintFile))
+					&& (!writeSnapshot || CondensedModules.readFrom(snapshotFile, fingerprint).isPresent())) {
+
+				getLog().info(String.format("Skipping module verification of %s as its classes didn't change.", modulith));
+				return;
+			}
+
+			getLog().info(String.format("Verifying modules of %s.", modulith));
+
+			Modules modules = Modules.of(modulithType);
+
+			try {
+				modules.verify();
+			} catch (RuntimeException e) {
+				throw new MojoFailureException(e.getMessage(), e);
+			}
+
+			if (writeSnapshot) {
+
+				getLog().info(String.format("Writing module model snapshot to %s.", snapshotFile));
+
+				modules.condense().writeTo(snapshotFile, fingerprint);
+			}
+
+			Files.createDirectories(fingerprintFile.getParent());
+			Files.write(fingerprintFile, fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+
+		} catch (ClassNotFoundException e) {
+			throw new MojoExecutionException(String.format("Couldn't find modulith type %s!", modulith), e);
+		} catch (IOException | DependencyResolutionRequiredException e) {
+			throw new MojoExecutionException(e.getMessage(), e);
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+	}
+
+	/**
+	 * Creates a {@link ClassLoader} for the project's compile classpath. Delegates to the plugin's {@link ClassLoader}
+	 * first so that Moduliths' own types are shared between the project's classes and the verification.
+	 *
+	 * @return
+	 * @throws DependencyResolutionRequiredException
+	 * @throws MalformedURLException
+	 */
+	private URLClassLoader createProjectClassLoader()
+			throws DependencyResolutionRequiredException, MalformedURLException {
+
+		List<URL> urls = new ArrayList<>();
+
+		for (String element : project.getCompileClasspathElements()) {
+			urls.add(new File(element).toURI().toURL());
+		}
+
+		return new URLClassLoader(urls.toArray(new URL[urls.size()]), getClass().getClassLoader());
+	}
+
+	private static BytecodeFingerprint readFingerprint(Path file) throws IOException {
+
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		String value = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+
+		return StringUtils.hasText(value) ? BytecodeFingerprint.of(value) : null;
+	}
+}
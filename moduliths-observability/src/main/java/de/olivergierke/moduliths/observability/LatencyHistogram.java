@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * A fixed-size, log-linear histogram of durations in nanoseconds. Values are grouped into buckets per power of two,
+ * each of which is split into {@value #SUB_BUCKETS} linear sub-buckets, which results in a relative error of about
+ * 6%. All buckets are allocated upfront so that recording a value doesn't allocate.
+ *
+ * @author Oliver Gierke
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAGNITUDES = 64 - SUB_BUCKET_BITS;
+
+	private final AtomicLongArray buckets;
+	private final LongAdder count, total;
+	private final LongAccumulator max;
+
+	LatencyHistogram() {
+
+		this.buckets = new AtomicLongArray((MAGNITUDES + 1) * SUB_BUCKETS);
+		this.count = new LongAdder();
+		this.total = new LongAdder();
+		this.max = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Records the given duration.
+	 *
+	 * @param nanos the duration in nanoseconds, negative values are recorded as zero.
+	 */
+	void record(long nanos) {
+
+		long value = Math.max(nanos, 0);
+
+		buckets.incrementAndGet(getBucket(value));
+		count.increment();
+		total.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 *
+	 * @return
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the sum of all recorded values in the given {@link TimeUnit}.
+	 *
+	 * @param unit must not be {@literal null}.
+	 * @return
+	 */
+	public double getTotal(TimeUnit unit) {
+
+		Assert.notNull(unit, "TimeUnit must not be null!");
+
+		return (double) total.sum() / unit.toNanos(1);
+	}
+
+	/**
+	 * Returns the largest recorded value in the given {@link TimeUnit}.
+	 *
+	 * @param unit must not be {@literal null}.
+	 * @return
+	 */
+	public double getMax(TimeUnit unit) {
+
+		Assert.notNull(unit, "TimeUnit must not be null!");
+
+		return (double) max.get() / unit.toNanos(1);
+	}
+
+	/**
+	 * Returns the (approximate) value below which the given percentage of recorded values fall, in the given
+	 * {@link TimeUnit}.
+	 *
+	 * @param percentile between 0 and 100.
+	 * @param unit must not be {@literal null}.
+	 * @return
+	 */
+	public double getValueAtPercentile(double percentile, TimeUnit unit) {
+
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100!");
+		Assert.notNull(unit, "TimeUnit must not be null!");
+
+		long threshold = (long) Math.ceil(getCount() * percentile / 100);
+		long seen = 0;
+
+		for (int i = 0; i < buckets.length(); i++) {
+
+			seen += buckets.get(i);
+
+			if (seen >= threshold && seen != 0) {
+				return (double) Math.min(getUpperBound(i), max.get()) / unit.toNanos(1);
+			}
+		}
+
+		return getMax(unit);
+	}
+
+	/**
+	 * Resets the histogram. Not atomic with respect to concurrent recordings.
+	 */
+	void reset() {
+
+		for (int i = 0; i < buckets.length(); i++) {
+			buckets.set(i, 0);
+		}
+
+		count.reset();
+		total.reset();
+		max.reset();
+	}
+
+	private static int getBucket(long value) {
+
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+		int subBucket = (int) (value >>> (magnitude - 1)) & (SUB_BUCKETS - 1);
+
+		return magnitude * SUB_BUCKETS + subBucket;
+	}
+
+	private static long getUpperBound(int bucket) {
+
+		int magnitude = bucket / SUB_BUCKETS;
+		long subBucket = bucket % SUB_BUCKETS;
+
+		if (magnitude == 0) {
+			return subBucket;
+		}
+
+		return ((SUB_BUCKETS + subBucket + 1) << (magnitude - 1)) - 1;
+	}
+}
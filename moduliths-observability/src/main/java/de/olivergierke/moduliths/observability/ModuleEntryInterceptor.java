@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import lombok.RequiredArgsConstructor;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.lang.Nullable;
+
+/**
+ * A {@link MethodInterceptor} applied to the beans of a single module. Keeps track of the module currently executing on
+ * the calling thread and, for beans exposed by the module, records an invocation in {@link ModuleInvocationCounters}
+ * whenever that module differs from the one the intercepted bean belongs to. If {@link ModuleLatencies} are given, the
+ * total and self time of such an invocation is recorded as well. To calculate the latter, the time spent in nested
+ * invocations of other modules is accumulated on the thread. Invocations of internal beans only switch the current
+ * module, so that calls originating from them, e.g. from scheduled methods or event listeners, are attributed to their
+ * module.
+ *
+ * @author Oliver Gierke
+ */
+@RequiredArgsConstructor
+class ModuleEntryInterceptor implements MethodInterceptor {
+
+	private static final ThreadLocal<CurrentModule> CURRENT = ThreadLocal.withInitial(CurrentModule::new);
+
+	private final int module;
+	private final ModuleInvocationCounters counters;
+	private final @Nullable ModuleLatencies latencies;
+	private final boolean exposed;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+
+		if (invocation.getMethod().getDeclaringClass() == Object.class) {
+			return invocation.proceed();
+		}
+
+		CurrentModule current = CURRENT.get();
+		int caller = current.index;
+
+		if (caller == module) {
+			return invocation.proceed();
+		}
+
+		if (!exposed) {
+
+			current.index = module;
+
+			try {
+				return invocation.proceed();
+			} finally {
+				current.index = caller;
+			}
+		}
+
+		counters.increment(caller, module);
+		current.index = module;
+
+		if (latencies == null) {
+
+			try {
+				return invocation.proceed();
+			} finally {
+				current.index = caller;
+			}
+		}
+
+		long callerNestedTime = current.nestedTime;
+		current.nestedTime = 0;
+
+		long start = System.nanoTime();
+
+		try {
+			return invocation.proceed();
+		} finally {
+
+			long total = System.nanoTime() - start;
+
+			latencies.record(caller, module, total, total - current.nestedTime);
+
+			current.nestedTime = caller == ModuleInvocationCounters.EXTERNAL ? 0 : callerNestedTime + total;
+			current.index = caller;
+		}
+	}
+
+	/**
+	 * Mutable holder of the index of the module currently executing on a thread and the time it spent in invocations of
+	 * other modules so far, so that entering and leaving a module doesn't require {@link ThreadLocal#set(Object)}.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class CurrentModule {
+
+		int index = ModuleInvocationCounters.EXTERNAL;
+		long nestedTime;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * A matrix of counters for invocations of beans of one module by another. Every cell is a {@link LongAdder} so that
+ * concurrent increments don't contend on a single memory location. The first row of the matrix counts invocations from
+ * outside any module, e.g. by an HTTP request or a scheduler thread.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleInvocationCounters implements ModuleInvocationsMXBean {
+
+	/**
+	 * The index used for invocations not originating from any module.
+	 */
+	public static final int EXTERNAL = -1;
+
+	static final String EXTERNAL_NAME = "external";
+
+	private final List<CondensedModule> modules;
+	private final Map<CondensedModule, Integer> indexes;
+	private final LongAdder[] counters;
+
+	/**
+	 * Creates a new {@link ModuleInvocationCounters} for the given {@link CondensedModules}.
+	 *
+	 * @param modules must not be {@literal null}.
+	 */
+	public ModuleInvocationCounters(CondensedModules modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		this.modules = new ArrayList<>();
+		this.indexes = new IdentityHashMap<>();
+
+		modules.forEach(it -> {
+			indexes.put(it, this.modules.size());
+			this.modules.add(it);
+		});
+
+		int size = this.modules.size();
+
+		this.counters = new LongAdder[(size + 1) * size];
+
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Returns the index of the given {@link CondensedModule} within the matrix.
+	 *
+	 * @param module must not be {@literal null}.
+	 * @return
+	 */
+	public int getIndex(CondensedModule module) {
+
+		Assert.notNull(module, "Module must not be null!");
+
+		Integer index = indexes.get(module);
+
+		Assert.notNull(index, () -> String.format("Unknown module %s!", module.getName()));
+
+		return index;
+	}
+
+	/**
+	 * Returns all {@link CondensedModule}s in the order of their indexes.
+	 *
+	 * @return
+	 */
+	public List<CondensedModule> getModules() {
+		return modules;
+	}
+
+	/**
+	 * Records an invocation of the module with the given target index by the one with the given caller index.
+	 *
+	 * @param caller the index of the calling module or {@link #EXTERNAL}.
+	 * @param target the index of the module invoked.
+	 */
+	public void increment(int caller, int target) {
+		counters[(caller + 1) * modules.size() + target].increment();
+	}
+
+	/**
+	 * Returns the number of invocations of the module with the given target index by the one with the given caller index.
+	 *
+	 * @param caller the index of the calling module or {@link #EXTERNAL}.
+	 * @param target the index of the module invoked.
+	 * @return
+	 */
+	public long getCount(int caller, int target) {
+		return counters[(caller + 1) * modules.size() + target].sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.observability.ModuleInvocationsMXBean#getInvocations()
+	 */
+	@Override
+	public Map<String, Long> getInvocations() {
+
+		Map<String, Long> result = new LinkedHashMap<>();
+		int size = modules.size();
+
+		for (int caller = EXTERNAL; caller < size; caller++) {
+			for (int target = 0; target < size; target++) {
+
+				long count = getCount(caller, target);
+
+				if (count != 0) {
+					result.put(getName(caller) + " -> " + getName(target), count);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.observability.ModuleInvocationsMXBean#reset()
+	 */
+	@Override
+	public void reset() {
+
+		for (LongAdder counter : counters) {
+			counter.reset();
+		}
+	}
+
+	/**
+	 * Returns the name of the module with the given index.
+	 *
+	 * @param index the index of the module or {@link #EXTERNAL}.
+	 * @return
+	 */
+	String getName(int index) {
+		return index == EXTERNAL ? EXTERNAL_NAME : modules.get(index).getName();
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Registers the cells of {@link ModuleInvocationCounters} as {@link FunctionCounter}s named
+ * {@value #INVOCATIONS_METRIC} with {@code caller} and {@code target} tags. If {@link ModuleLatencies} are given, their
+ * total and self times are registered as {@link FunctionTimer}s named {@value #TIME_METRIC}, additionally tagged with
+ * {@code time} being either {@code total} or {@code self}. To keep the number of time series bounded, only invocations
+ * from outside the modules and along the modules' direct type dependencies are published.
+ *
+ * @author Oliver Gierke
+ */
+@RequiredArgsConstructor
+public class ModuleInvocationMetrics implements MeterBinder {
+
+	public static final String INVOCATIONS_METRIC = "moduliths.module.invocations";
+	public static final String TIME_METRIC = "moduliths.module.invocation.time";
+
+	private final ModuleInvocationCounters counters;
+	private final @Nullable ModuleLatencies latencies;
+
+	/*
+	 * (non-Javadoc)
+	 * @see io.micrometer.core.instrument.binder.MeterBinder#bindTo(io.micrometer.core.instrument.MeterRegistry)
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		List<CondensedModule> modules = counters.getModules();
+
+		for (int target = 0; target < modules.size(); target++) {
+			register(registry, ModuleInvocationCounters.EXTERNAL, target);
+		}
+
+		for (int caller = 0; caller < modules.size(); caller++) {
+			for (CondensedModule dependency : modules.get(caller).getDependencies(DependencyDepth.IMMEDIATE)) {
+				register(registry, caller, counters.getIndex(dependency));
+			}
+		}
+	}
+
+	private void register(MeterRegistry registry, int caller, int target) {
+
+		FunctionCounter.builder(INVOCATIONS_METRIC, counters, it -> it.getCount(caller, target)) //
+				.description("Invocations of beans exposed by a module") //
+				.tag("caller", counters.getName(caller)) //
+				.tag("target", counters.getName(target)) //
+				.register(registry);
+
+		if (latencies == null) {
+			return;
+		}
+
+		register(registry, caller, target, "total", () -> latencies.getTotalTime(caller, target));
+		register(registry, caller, target, "self", () -> latencies.getSelfTime(caller, target));
+	}
+
+	private void register(MeterRegistry registry, int caller, int target, String time,
+			Supplier<Optional<LatencyHistogram>> source) {
+
+		FunctionTimer.builder(TIME_METRIC, source, //
+				it -> it.get().map(LatencyHistogram::getCount).orElse(0L), //
+				it -> it.get().map(histogram -> histogram.getTotal(TimeUnit.NANOSECONDS)).orElse(0d), //
+				TimeUnit.NANOSECONDS) //
+				.description("Time spent in invocations of beans exposed by a module") //
+				.tag("caller", counters.getName(caller)) //
+				.tag("target", counters.getName(target)) //
+				.tag("time", time) //
+				.register(registry);
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import java.util.Map;
+
+/**
+ * JMX view on the invocations between modules.
+ *
+ * @author Oliver Gierke
+ */
+public interface ModuleInvocationsMXBean {
+
+	/**
+	 * Returns the number of invocations per pair of modules, keyed by {@code $caller -> $target}. Invocations not
+	 * originating from a module are reported for a caller named {@code external}. Pairs without any invocations are
+	 * omitted.
+	 *
+	 * @return
+	 */
+	Map<String, Long> getInvocations();
+
+	/**
+	 * Resets all counters.
+	 */
+	void reset();
+}
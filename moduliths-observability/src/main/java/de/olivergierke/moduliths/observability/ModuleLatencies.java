@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link LatencyHistogram}s for the invocations of one module by another. For every pair of caller and target module
+ * we keep track of the total time of the invocation as well as its self time, i.e. the total time minus the time spent
+ * in invocations of other modules made by the target module. The histograms for a pair are created on the first
+ * invocation of it and reused for all subsequent ones.
+ *
+ * @author Oliver Gierke
+ * @see ModuleInvocationCounters
+ */
+public class ModuleLatencies implements ModuleLatenciesMXBean {
+
+	private final ModuleInvocationCounters counters;
+	private final AtomicReferenceArray<LatencyHistogram> totalTimes, selfTimes;
+
+	/**
+	 * Creates a new {@link ModuleLatencies} for the modules known to the given {@link ModuleInvocationCounters}.
+	 *
+	 * @param counters must not be {@literal null}.
+	 */
+	public ModuleLatencies(ModuleInvocationCounters counters) {
+
+		Assert.notNull(counters, "ModuleInvocationCounters must not be null!");
+
+		int size = counters.getModules().size();
+
+		this.counters = counters;
+		this.totalTimes = new AtomicReferenceArray<>((size + 1) * size);
+		this.selfTimes = new AtomicReferenceArray<>((size + 1) * size);
+	}
+
+	/**
+	 * Records an invocation of the module with the given target index by the one with the given caller index.
+	 *
+	 * @param caller the index of the calling module or {@link ModuleInvocationCounters#EXTERNAL}.
+	 * @param target the index of the module invoked.
+	 * @param totalNanos the total duration of the invocation.
+	 * @param selfNanos the duration of the invocation not spent in other modules.
+	 */
+	public void record(int caller, int target, long totalNanos, long selfNanos) {
+
+		int index = getIndex(caller, target);
+
+		getOrCreate(totalTimes, index).record(totalNanos);
+		getOrCreate(selfTimes, index).record(selfNanos);
+	}
+
+	/**
+	 * Returns the {@link LatencyHistogram} of the total time of invocations of the given target module by the given
+	 * caller.
+	 *
+	 * @param caller the index of the calling module or {@link ModuleInvocationCounters#EXTERNAL}.
+	 * @param target the index of the module invoked.
+	 * @return
+	 */
+	public Optional<LatencyHistogram> getTotalTime(int caller, int target) {
+		return Optional.ofNullable(totalTimes.get(getIndex(caller, target)));
+	}
+
+	/**
+	 * Returns the {@link LatencyHistogram} of the self time of invocations of the given target module by the given
+	 * caller.
+	 *
+	 * @param caller the index of the calling module or {@link ModuleInvocationCounters#EXTERNAL}.
+	 * @param target the index of the module invoked.
+	 * @return
+	 */
+	public Optional<LatencyHistogram> getSelfTime(int caller, int target) {
+		return Optional.ofNullable(selfTimes.get(getIndex(caller, target)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.observability.ModuleLatenciesMXBean#getTotalTimes()
+	 */
+	@Override
+	public Map<String, String> getTotalTimes() {
+		return summarize(totalTimes);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.observability.ModuleLatenciesMXBean#getSelfTimes()
+	 */
+	@Override
+	public Map<String, String> getSelfTimes() {
+		return summarize(selfTimes);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see de.olivergierke.moduliths.observability.ModuleLatenciesMXBean#reset()
+	 */
+	@Override
+	public void reset() {
+
+		for (int i = 0; i < totalTimes.length(); i++) {
+
+			LatencyHistogram total = totalTimes.get(i);
+			LatencyHistogram self = selfTimes.get(i);
+
+			if (total != null) {
+				total.reset();
+			}
+
+			if (self != null) {
+				self.reset();
+			}
+		}
+	}
+
+	private int getIndex(int caller, int target) {
+		return (caller + 1) * counters.getModules().size() + target;
+	}
+
+	private Map<String, String> summarize(AtomicReferenceArray<LatencyHistogram> histograms) {
+
+		Map<String, String> result = new LinkedHashMap<>();
+		int size = counters.getModules().size();
+
+		for (int caller = ModuleInvocationCounters.EXTERNAL; caller < size; caller++) {
+			for (int target = 0; target < size; target++) {
+
+				LatencyHistogram histogram = histograms.get(getIndex(caller, target));
+
+				if (histogram == null || histogram.getCount() == 0) {
+					continue;
+				}
+
+				TimeUnit unit = TimeUnit.MILLISECONDS;
+
+				result.put(counters.getName(caller) + " -> " + counters.getName(target),
+						String.format("count=%d, mean=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms", histogram.getCount(),
+								histogram.getTotal(unit) / histogram.getCount(), histogram.getValueAtPercentile(50, unit),
+								histogram.getValueAtPercentile(99, unit), histogram.getMax(unit)));
+			}
+		}
+
+		return result;
+	}
+
+	private static LatencyHistogram getOrCreate(AtomicReferenceArray<LatencyHistogram> histograms, int index) {
+
+		LatencyHistogram histogram = histograms.get(index);
+
+		if (histogram != null) {
+			return histogram;
+		}
+
+		histograms.compareAndSet(index, null, new LatencyHistogram());
+
+		return histograms.get(index);
+	}
+}
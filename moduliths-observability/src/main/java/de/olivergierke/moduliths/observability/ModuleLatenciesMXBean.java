@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import java.util.Map;
+
+/**
+ * JMX view on the latencies of invocations between modules.
+ *
+ * @author Oliver Gierke
+ */
+public interface ModuleLatenciesMXBean {
+
+	/**
+	 * Returns a summary of the total time of invocations per pair of modules, keyed by {@code $caller -> $target}.
+	 *
+	 * @return
+	 */
+	Map<String, String> getTotalTimes();
+
+	/**
+	 * Returns a summary of the self time of invocations per pair of modules, i.e. the time not spent in invocations of
+	 * further modules, keyed by {@code $caller -> $target}.
+	 *
+	 * @return
+	 */
+	Map<String, String> getSelfTimes();
+
+	/**
+	 * Resets all histograms.
+	 */
+	void reset();
+}
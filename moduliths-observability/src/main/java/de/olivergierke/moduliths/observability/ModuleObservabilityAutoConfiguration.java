@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import de.olivergierke.moduliths.model.ModulesRuntime;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Auto-configuration to observe the invocations between modules at runtime. Has to be enabled explicitly by setting
+ * {@code moduliths.observability.enabled} to {@literal true}. Recording latencies additionally requires
+ * {@code moduliths.observability.latencies.enabled} to be set to {@literal true}. Attributing the startup costs to
+ * modules is configured independently (see {@link ModuleStartupCostsAutoConfiguration}).
+ *
+ * @author Oliver Gierke
+ */
+@Configuration
+@ConditionalOnProperty(name = "moduliths.observability.enabled", havingValue = "true")
+class ModuleObservabilityAutoConfiguration {
+
+	@Bean
+	static ModuleInvocationCounters moduleInvocationCounters(ConfigurableListableBeanFactory beanFactory) {
+		return new ModuleInvocationCounters(ModulesRuntime.of(beanFactory).getModules());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "moduliths.observability.latencies.enabled", havingValue = "true")
+	static ModuleLatencies moduleLatencies(ModuleInvocationCounters counters) {
+		return new ModuleLatencies(counters);
+	}
+
+	@Bean
+	static ModuleObservabilityBeanPostProcessor moduleObservabilityBeanPostProcessor(
+			ConfigurableListableBeanFactory beanFactory, ModuleInvocationCounters counters,
+			ObjectProvider<ModuleLatencies> latencies) {
+
+		return new ModuleObservabilityBeanPostProcessor(ModulesRuntime.of(beanFactory).getModules(), counters,
+				latencies.getIfAvailable());
+	}
+
+	@Configuration
+	@ConditionalOnClass(MeterBinder.class)
+	static class ModuleInvocationMetricsConfiguration {
+
+		@Bean
+		ModuleInvocationMetrics moduleInvocationMetrics(ModuleInvocationCounters counters,
+				ObjectProvider<ModuleLatencies> latencies) {
+			return new ModuleInvocationMetrics(counters, latencies.getIfAvailable());
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link BeanPostProcessor} that wraps all beans whose type is exposed by a module into a proxy that records
+ * invocations from other modules in {@link ModuleInvocationCounters} and, optionally, their latencies in
+ * {@link ModuleLatencies}. Internal beans of a module are wrapped into a proxy that only tracks the module currently
+ * executing, so that invocations originating from them are attributed to their module. Ordered right before
+ * {@link ScheduledAnnotationBeanPostProcessor} so that scheduled methods are invoked on the proxy. Beans of final types
+ * or with final methods are not observed, as a class based proxy can't intercept them.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+public class ModuleObservabilityBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final CondensedModules modules;
+	private final ModuleInvocationCounters counters;
+	private final @Nullable ModuleLatencies latencies;
+
+	/**
+	 * Creates a new {@link ModuleObservabilityBeanPostProcessor} for the given {@link CondensedModules} and
+	 * {@link ModuleInvocationCounters}.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @param counters must not be {@literal null}.
+	 * @param latencies can be {@literal null} to not record latencies.
+	 */
+	public ModuleObservabilityBeanPostProcessor(CondensedModules modules, ModuleInvocationCounters counters,
+			@Nullable ModuleLatencies latencies) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.notNull(counters, "ModuleInvocationCounters must not be null!");
+
+		this.modules = modules;
+		this.counters = counters;
+		this.latencies = latencies;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+	 */
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+		Class<?> type = ClassUtils.getUserClass(AopUtils.getTargetClass(bean));
+
+		if (type.isArray() || type.isPrimitive()) {
+			return bean;
+		}
+
+		String name = type.getName();
+
+		return modules.getModuleByType(name) //
+				.map(it -> wrap(bean, beanName, it, it.isExposed(name))) //
+				.orElse(bean);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.Ordered#getOrder()
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE - 1;
+	}
+
+	private Object wrap(Object bean, String beanName, CondensedModule module, boolean exposed) {
+
+		Advice interceptor = new ModuleEntryInterceptor(counters.getIndex(module), counters, latencies, exposed);
+
+		if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+
+			((Advised) bean).addAdvice(0, interceptor);
+
+			return bean;
+		}
+
+		if (Modifier.isFinal(bean.getClass().getModifiers())) {
+
+			LOG.debug("Can't observe bean {} of module {} as its type is final.", beanName, module.getName());
+
+			return bean;
+		}
+
+		Optional<Method> finalMethod = findFinalMethod(bean.getClass());
+
+		if (finalMethod.isPresent()) {
+
+			LOG.info("Not observing bean {} of module {} as a proxy couldn't intercept its final method {}.", beanName,
+					module.getName(), finalMethod.get().toGenericString());
+
+			return bean;
+		}
+
+		LOG.debug("Observing invocations of bean {} of module {}.", beanName, module.getName());
+
+		ProxyFactory factory = new ProxyFactory(bean);
+		factory.setProxyTargetClass(true);
+		factory.addAdvice(interceptor);
+
+		return factory.getProxy(bean.getClass().getClassLoader());
+	}
+
+	/**
+	 * Returns the first final instance method of the given type or its superclasses that's visible to a class based
+	 * proxy. Such a method would be invoked on the proxy instance itself, whose fields are not initialized.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	private static Optional<Method> findFinalMethod(Class<?> type) {
+
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+
+			for (Method method : current.getDeclaredMethods()) {
+
+				int modifiers = method.getModifiers();
+
+				if (Modifier.isFinal(modifiers) && !Modifier.isPrivate(modifiers) && !Modifier.isStatic(modifiers)) {
+					return Optional.of(method);
+				}
+			}
+		}
+
+		return Optional.empty();
+	}
+}
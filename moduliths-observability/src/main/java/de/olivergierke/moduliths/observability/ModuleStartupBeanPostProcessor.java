@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * {@link InstantiationAwareBeanPostProcessor} reporting the start of the creation of each bean and of its
+ * post-processing to {@link ModuleStartupCosts}. Runs before all other {@link BeanPostProcessor}s, while
+ * {@link Completion} reports the end of the bean creation after all others have run.
+ *
+ * @author Oliver Gierke
+ */
+@RequiredArgsConstructor
+public class ModuleStartupBeanPostProcessor implements InstantiationAwareBeanPostProcessor, PriorityOrdered {
+
+	private final ModuleStartupCosts costs;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor#postProcessBeforeInstantiation(java.lang.Class, java.lang.String)
+	 */
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+
+		costs.beforeInstantiation(beanName, beanClass);
+
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessBeforeInitialization(java.lang.Object, java.lang.String)
+	 */
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+
+		costs.beforeInitialization(beanName);
+
+		return bean;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.core.Ordered#getOrder()
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	/**
+	 * Reports the end of a bean's creation to {@link ModuleStartupCosts}.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@RequiredArgsConstructor
+	public static class Completion implements BeanPostProcessor, Ordered {
+
+		private final ModuleStartupCosts costs;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+		 */
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+			costs.afterInitialization(beanName);
+
+			return bean;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.core.Ordered#getOrder()
+		 */
+		@Override
+		public int getOrder() {
+			return Ordered.LOWEST_PRECEDENCE;
+		}
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.observability.ModuleStartupReport.Entry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Attributes the time spent creating beans and the bytes allocated while doing so to the modules the beans belong to.
+ * Bean creations are tracked on a stack per thread so that the cost of creating a bean's dependencies is attributed to
+ * the dependencies' modules rather than to the module of the bean that triggered their creation. The time is split
+ * into instantiation (including dependency injection) and post-processing (initialization callbacks and
+ * {@link org.springframework.beans.factory.config.BeanPostProcessor}s). Allocated bytes are only recorded if the JVM
+ * supports measuring them per thread. Logs a {@link ModuleStartupReport} once the application context has been
+ * refreshed for the first time and stops recording, so that beans created later on (e.g. prototypes) neither distort
+ * the report nor keep per-thread state alive.
+ *
+ * @author Oliver Gierke
+ * @see ModuleStartupBeanPostProcessor
+ */
+@Slf4j
+public class ModuleStartupCosts implements ApplicationListener<ContextRefreshedEvent> {
+
+	private final CondensedModules modules;
+	private final Map<CondensedModule, Cost> costs;
+	private final ThreadLocal<Deque<Frame>> frames;
+	private final boolean recordAllocations;
+	private final AtomicBoolean reported;
+
+	private volatile boolean recording;
+
+	/**
+	 * Creates a new {@link ModuleStartupCosts} for the given {@link CondensedModules}.
+	 *
+	 * @param modules must not be {@literal null}.
+	 */
+	public ModuleStartupCosts(CondensedModules modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		this.modules = modules;
+		this.costs = new LinkedHashMap<>();
+		this.frames = ThreadLocal.withInitial(ArrayDeque::new);
+		this.recordAllocations = ClassUtils.isPresent("com.sun.management.ThreadMXBean",
+				ModuleStartupCosts.class.getClassLoader()) && ThreadAllocations.isSupported();
+		this.reported = new AtomicBoolean();
+		this.recording = true;
+
+		modules.forEach(it -> costs.put(it, new Cost()));
+	}
+
+	/**
+	 * Records the start of the creation of the bean with the given name and type.
+	 *
+	 * @param beanName must not be {@literal null} or empty.
+	 * @param type must not be {@literal null}.
+	 */
+	void beforeInstantiation(String beanName, Class<?> type) {
+
+		if (!recording) {
+			return;
+		}
+
+		Class<?> userType = ClassUtils.getUserClass(type);
+		CondensedModule module = type.isArray() || type.isPrimitive() //
+				? null //
+				: modules.getModuleByType(userType.getName()).orElse(null);
+
+		frames.get().push(new Frame(beanName, module, System.nanoTime(), getAllocatedBytes()));
+	}
+
+	/**
+	 * Records that the bean with the given name was instantiated and its post-processing starts.
+	 *
+	 * @param beanName must not be {@literal null} or empty.
+	 */
+	void beforeInitialization(String beanName) {
+
+		if (!recording) {
+			return;
+		}
+
+		getFrame(beanName).ifPresent(it -> it.postProcessingStart = System.nanoTime());
+	}
+
+	/**
+	 * Records that the bean with the given name was completely created. Discards the records of beans started after it
+	 * as their creation has obviously failed.
+	 *
+	 * @param beanName must not be {@literal null} or empty.
+	 */
+	void afterInitialization(String beanName) {
+
+		if (!recording || !getFrame(beanName).isPresent()) {
+			return;
+		}
+
+		Deque<Frame> stack = frames.get();
+		Frame frame = stack.pop();
+
+		while (!frame.beanName.equals(beanName)) {
+			frame = stack.pop();
+		}
+
+		long end = System.nanoTime();
+		long total = end - frame.start;
+		long allocated = getAllocatedBytes() - frame.allocatedBytes;
+
+		if (frame.module != null) {
+
+			boolean instantiated = frame.postProcessingStart != 0;
+			long instantiation = (instantiated ? frame.postProcessingStart : end) - frame.start
+					- frame.childInstantiationTime;
+			long postProcessing = instantiated ? end - frame.postProcessingStart - frame.childPostProcessingTime : 0;
+
+			costs.get(frame.module).add(instantiation, postProcessing, allocated - frame.childAllocatedBytes);
+		}
+
+		Frame parent = stack.peek();
+
+		if (parent == null) {
+			frames.remove();
+			return;
+		}
+
+		if (parent.postProcessingStart == 0) {
+			parent.childInstantiationTime += total;
+		} else {
+			parent.childPostProcessingTime += total;
+		}
+
+		parent.childAllocatedBytes += allocated;
+	}
+
+	/**
+	 * Returns a {@link ModuleStartupReport} of the costs recorded so far.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public ModuleStartupReport getReport() {
+
+		List<Entry> entries = costs.entrySet().stream() //
+				.map(it -> it.getValue().toEntry(it.getKey())) //
+				.collect(Collectors.toList());
+
+		return new ModuleStartupReport(entries, recordAllocations);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.ApplicationListener#onApplicationEvent(org.springframework.context.ApplicationEvent)
+	 */
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+
+		if (!reported.compareAndSet(false, true)) {
+			return;
+		}
+
+		this.recording = false;
+		this.frames.remove();
+
+		ModuleStartupReport report = getReport();
+
+		Arrays.stream(report.toTable().split("\n")).forEach(LOG::info);
+
+		LOG.info("Module startup report: {}", report.toJson());
+	}
+
+	private Optional<Frame> getFrame(String beanName) {
+
+		for (Iterator<Frame> iterator = frames.get().iterator(); iterator.hasNext();) {
+
+			Frame frame = iterator.next();
+
+			if (frame.beanName.equals(beanName)) {
+				return Optional.of(frame);
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	private long getAllocatedBytes() {
+		return recordAllocations ? ThreadAllocations.getAllocatedBytes() : 0;
+	}
+
+	/**
+	 * The creation of a single bean currently in progress.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class Frame {
+
+		private final String beanName;
+		private final @Nullable CondensedModule module;
+		private final long start, allocatedBytes;
+
+		private long postProcessingStart;
+		private long childInstantiationTime, childPostProcessingTime, childAllocatedBytes;
+
+		Frame(String beanName, @Nullable CondensedModule module, long start, long allocatedBytes) {
+
+			this.beanName = beanName;
+			this.module = module;
+			this.start = start;
+			this.allocatedBytes = allocatedBytes;
+		}
+	}
+
+	/**
+	 * The accumulated costs of a single module.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class Cost {
+
+		private final LongAdder beans = new LongAdder();
+		private final LongAdder instantiationTime = new LongAdder();
+		private final LongAdder postProcessingTime = new LongAdder();
+		private final LongAdder allocatedBytes = new LongAdder();
+
+		void add(long instantiation, long postProcessing, long allocated) {
+
+			beans.increment();
+			instantiationTime.add(instantiation);
+			postProcessingTime.add(postProcessing);
+			allocatedBytes.add(allocated);
+		}
+
+		Entry toEntry(CondensedModule module) {
+			return new Entry(module.getName(), module.getDisplayName(), beans.intValue(), instantiationTime.sum(),
+					postProcessingTime.sum(), allocatedBytes.sum());
+		}
+	}
+
+	/**
+	 * Isolates the references to the HotSpot specific {@link com.sun.management.ThreadMXBean}, so that they're only
+	 * resolved if it is present.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class ThreadAllocations {
+
+		static boolean isSupported() {
+
+			java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+			return threads instanceof com.sun.management.ThreadMXBean //
+					&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported() //
+					&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+		}
+
+		static long getAllocatedBytes() {
+			return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import de.olivergierke.moduliths.model.ModulesRuntime;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration to attribute the costs of creating beans on startup to the modules they belong to. Has to be
+ * enabled explicitly by setting {@code moduliths.observability.startup.enabled} to {@literal true}. Independent of
+ * observing the invocations between modules, so that the proxies created for that don't distort the costs recorded.
+ *
+ * @author Oliver Gierke
+ */
+@Configuration
+@ConditionalOnProperty(name = "moduliths.observability.startup.enabled", havingValue = "true")
+class ModuleStartupCostsAutoConfiguration {
+
+	@Bean
+	static ModuleStartupCosts moduleStartupCosts(ConfigurableListableBeanFactory beanFactory) {
+		return new ModuleStartupCosts(ModulesRuntime.of(beanFactory).getModules());
+	}
+
+	@Bean
+	static ModuleStartupBeanPostProcessor moduleStartupBeanPostProcessor(ModuleStartupCosts costs) {
+		return new ModuleStartupBeanPostProcessor(costs);
+	}
+
+	@Bean
+	static ModuleStartupBeanPostProcessor.Completion moduleStartupCompletionBeanPostProcessor(ModuleStartupCosts costs) {
+		return new ModuleStartupBeanPostProcessor.Completion(costs);
+	}
+}
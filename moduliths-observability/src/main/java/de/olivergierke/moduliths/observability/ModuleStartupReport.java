@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.observability;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The startup costs per module recorded by {@link ModuleStartupCosts}, ordered by the total time spent creating the
+ * beans of a module, descending. Can be rendered as table for log output or as JSON for further processing.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleStartupReport {
+
+	private static final String TITLE = "Module startup costs";
+	private static final String ROW_FORMAT = "%-30s %6s %16s %18s %14s";
+
+	private final List<Entry> entries;
+	private final boolean allocationsRecorded;
+
+	ModuleStartupReport(List<Entry> entries, boolean allocationsRecorded) {
+
+		List<Entry> sorted = new ArrayList<>(entries);
+		sorted.sort(Comparator.comparingLong(Entry::getTotalTime).reversed());
+
+		this.entries = Collections.unmodifiableList(sorted);
+		this.allocationsRecorded = allocationsRecorded;
+	}
+
+	/**
+	 * Returns the costs per module.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Returns whether the allocated bytes were recorded, i.e. whether the JVM supports measuring them.
+	 *
+	 * @return
+	 */
+	public boolean isAllocationsRecorded() {
+		return allocationsRecorded;
+	}
+
+	/**
+	 * Renders the report as table.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public String toTable() {
+
+		String header = String.format(ROW_FORMAT, "Module", "Beans", "Instantiation", "Post-processing", "Allocated");
+		String separator = String.join("", Collections.nCopies(header.length(), "="));
+
+		StringBuilder builder = new StringBuilder(TITLE).append('\n');
+		builder.append(separator).append('\n');
+		builder.append(header).append('\n');
+		builder.append(separator).append('\n');
+
+		for (Entry entry : entries) {
+
+			builder.append(String.format(ROW_FORMAT, entry.getDisplayName(), entry.getBeans(),
+					formatTime(entry.getInstantiationTime()), formatTime(entry.getPostProcessingTime()),
+					allocationsRecorded ? String.format(Locale.US, "%,d KB", entry.getAllocatedBytes() / 1024) : "n/a"))
+					.append('\n');
+		}
+
+		return builder.append(separator).toString();
+	}
+
+	/**
+	 * Renders the report as JSON. Times are given in milliseconds, the allocated bytes are {@literal null} if they were
+	 * not recorded.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public String toJson() {
+
+		StringBuilder builder = new StringBuilder("{\"modules\":[");
+
+		for (int i = 0; i < entries.size(); i++) {
+
+			Entry entry = entries.get(i);
+
+			builder.append(i == 0 ? "" : ",") //
+					.append("{\"name\":").append(quote(entry.getName())) //
+					.append(",\"displayName\":").append(quote(entry.getDisplayName())) //
+					.append(",\"beans\":").append(entry.getBeans()) //
+					.append(",\"instantiationMillis\":").append(formatMillis(entry.getInstantiationTime())) //
+					.append(",\"postProcessingMillis\":").append(formatMillis(entry.getPostProcessingTime())) //
+					.append(",\"allocatedBytes\":").append(allocationsRecorded ? entry.getAllocatedBytes() : null) //
+					.append('}');
+		}
+
+		return builder.append("]}").toString();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return toTable();
+	}
+
+	private static String formatTime(long nanos) {
+		return String.format(Locale.US, "%.1f ms", toMillis(nanos));
+	}
+
+	private static String formatMillis(long nanos) {
+		return String.format(Locale.US, "%.3f", toMillis(nanos));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	private static String quote(String value) {
+
+		StringBuilder builder = new StringBuilder("\"");
+
+		for (char character : value.toCharArray()) {
+
+			if (character == '"' || character == '\\') {
+				builder.append('\\').append(character);
+			} else if (character < 0x20) {
+				builder.append(String.format("\\u%04x", (int) character));
+			} else {
+				builder.append(character);
+			}
+		}
+
+		return builder.append('"').toString();
+	}
+
+	/**
+	 * The startup costs of a single module.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@Value
+	public static class Entry {
+
+		String name, displayName;
+		int beans;
+		long instantiationTime, postProcessingTime, allocatedBytes;
+
+		/**
+		 * Returns the total time spent creating the beans of the module in nanoseconds.
+		 *
+		 * @return
+		 */
+		public long getTotalTime() {
+			return instantiationTime + postProcessingTime;
+		}
+	}
+}
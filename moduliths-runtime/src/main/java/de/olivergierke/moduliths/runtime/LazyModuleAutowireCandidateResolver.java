@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * A {@link ContextAnnotationAutowireCandidateResolver} that resolves dependencies to types exposed by lazy modules as
+ * if they were annotated with {@link Lazy}, i.e. injects a proxy that looks up the actual bean on the first invocation.
+ * Only applies to injection points outside the lazy module, so that the module's internal bean graph is initialized
+ * eagerly once it's used.
+ *
+ * @author Oliver Gierke
+ */
+@RequiredArgsConstructor
+class LazyModuleAutowireCandidateResolver extends ContextAnnotationAutowireCandidateResolver {
+
+	private final CondensedModules modules;
+	private final Set<CondensedModule> lazyModules;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver#isLazy(org.springframework.beans.factory.config.DependencyDescriptor)
+	 */
+	@Override
+	protected boolean isLazy(DependencyDescriptor descriptor) {
+		return super.isLazy(descriptor) || isExposedByOtherLazyModule(descriptor);
+	}
+
+	private boolean isExposedByOtherLazyModule(DependencyDescriptor descriptor) {
+
+		Class<?> type = descriptor.getDependencyType();
+
+		if (type.isPrimitive() || type.isArray() || Modifier.isFinal(type.getModifiers())) {
+			return false;
+		}
+
+		Optional<CondensedModule> module = modules.getModuleByType(type.getName()) //
+				.filter(lazyModules::contains) //
+				.filter(it -> it.isExposed(type.getName()));
+
+		if (!module.isPresent()) {
+			return false;
+		}
+
+		String requestingType = descriptor.getMember().getDeclaringClass().getName();
+
+		return !module.get().contains(requestingType);
+	}
+}
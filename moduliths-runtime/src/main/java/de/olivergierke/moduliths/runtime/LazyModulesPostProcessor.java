@@ -0,0 +1,253 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.ModulesRuntime;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link BeanFactoryPostProcessor} to defer the initialization of the modules listed in the
+ * {@value #LAZY_MODULES_PROPERTY} property until they're used for the first time. Marks all bean definitions of those
+ * modules as lazy and registers a {@link LazyModuleAutowireCandidateResolver} so that beans of other modules get lazy
+ * proxies injected for the types the modules expose.
+ * <p>
+ * Beans implementing {@link ApplicationListener} as well as beans declaring methods handled by an annotation post
+ * processor that is registered (e.g. {@code @Scheduled} or {@code @JmsListener}) are kept eager. The former would be
+ * initialized by the first event published anyway, the latter would never be registered, as those post processors only
+ * inspect beans when they're created.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+class LazyModulesPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+	static final String LAZY_MODULES_PROPERTY = "moduliths.lazy-modules";
+
+	/**
+	 * The annotations requiring their beans to be initialized eagerly keyed by the name of the bean post processor
+	 * handling them.
+	 */
+	private static final Map<String, List<String>> EAGER_ANNOTATIONS;
+
+	static {
+
+		Map<String, List<String>> annotations = new LinkedHashMap<>();
+
+		annotations.put("org.springframework.context.annotation.internalScheduledAnnotationProcessor", Arrays.asList(
+				"org.springframework.scheduling.annotation.Scheduled", "org.springframework.scheduling.annotation.Schedules"));
+		annotations.put("org.springframework.jms.config.internalJmsListenerAnnotationProcessor",
+				Arrays.asList("org.springframework.jms.annotation.JmsListener", "org.springframework.jms.annotation.JmsListeners"));
+		annotations.put("org.springframework.amqp.rabbit.config.internalRabbitListenerAnnotationProcessor",
+				Arrays.asList("org.springframework.amqp.rabbit.annotation.RabbitListener",
+						"org.springframework.amqp.rabbit.annotation.RabbitListeners"));
+		annotations.put("org.springframework.kafka.config.internalKafkaListenerAnnotationProcessor", Arrays.asList(
+				"org.springframework.kafka.annotation.KafkaListener", "org.springframework.kafka.annotation.KafkaListeners"));
+
+		EAGER_ANNOTATIONS = Collections.unmodifiableMap(annotations);
+	}
+
+	private Environment environment;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.EnvironmentAware#setEnvironment(org.springframework.core.env.Environment)
+	 */
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.config.BeanFactoryPostProcessor#postProcessBeanFactory(org.springframework.beans.factory.config.ConfigurableListableBeanFactory)
+	 */
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+
+		CondensedModules modules = ModulesRuntime.of(beanFactory).getModules();
+		Set<CondensedModule> lazyModules = getLazyModules(modules);
+
+		if (lazyModules.isEmpty()) {
+			return;
+		}
+
+		LOG.info("Deferring initialization of modules {} until first use.", lazyModules.stream() //
+				.map(CondensedModule::getDisplayName) //
+				.collect(Collectors.joining(", ")));
+
+		ClassLoader classLoader = beanFactory.getBeanClassLoader();
+		Set<Class<? extends Annotation>> eagerAnnotations = getEagerAnnotations(beanFactory, classLoader);
+
+		for (String name : beanFactory.getBeanDefinitionNames()) {
+
+			BeanDefinition definition = beanFactory.getBeanDefinition(name);
+
+			getDeclaringClassName(definition) //
+					.flatMap(modules::getModuleByType) //
+					.filter(lazyModules::contains) //
+					.ifPresent(it -> {
+
+						Optional<String> reason = getBeanType(definition, classLoader) //
+								.flatMap(type -> getEagerInitializationReason(type, eagerAnnotations));
+
+						if (reason.isPresent()) {
+							LOG.info("Initializing bean {} of lazy module {} eagerly as it {}.", name, it.getDisplayName(),
+									reason.get());
+						} else {
+							definition.setLazyInit(true);
+						}
+					});
+		}
+
+		if (beanFactory instanceof DefaultListableBeanFactory) {
+			((DefaultListableBeanFactory) beanFactory)
+					.setAutowireCandidateResolver(new LazyModuleAutowireCandidateResolver(modules, lazyModules));
+		}
+	}
+
+	private Set<CondensedModule> getLazyModules(CondensedModules modules) {
+
+		String property = environment.getProperty(LAZY_MODULES_PROPERTY, "");
+
+		return Arrays.stream(StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(property))) //
+				.map(it -> modules.getModuleByName(it) //
+						.orElseThrow(() -> new IllegalArgumentException(String.format("Unknown lazy module %s!", it)))) //
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	/**
+	 * Returns the annotations requiring eager initialization whose post processors are registered with the given
+	 * {@link ConfigurableListableBeanFactory}.
+	 *
+	 * @param beanFactory must not be {@literal null}.
+	 * @param classLoader can be {@literal null}.
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private static Set<Class<? extends Annotation>> getEagerAnnotations(ConfigurableListableBeanFactory beanFactory,
+			@Nullable ClassLoader classLoader) {
+
+		return EAGER_ANNOTATIONS.entrySet().stream() //
+				.filter(it -> beanFactory.containsBeanDefinition(it.getKey())) //
+				.map(Entry::getValue) //
+				.flatMap(List::stream) //
+				.filter(it -> ClassUtils.isPresent(it, classLoader)) //
+				.map(it -> (Class<? extends Annotation>) ClassUtils.resolveClassName(it, classLoader)) //
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Returns why a bean of the given type has to be initialized eagerly, if at all.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @param eagerAnnotations must not be {@literal null}.
+	 * @return
+	 */
+	private static Optional<String> getEagerInitializationReason(Class<?> type,
+			Set<Class<? extends Annotation>> eagerAnnotations) {
+
+		if (ApplicationListener.class.isAssignableFrom(type)) {
+			return Optional.of("is an ApplicationListener");
+		}
+
+		Method[] methods = ReflectionUtils.getUniqueDeclaredMethods(type);
+
+		return eagerAnnotations.stream() //
+				.filter(annotation -> AnnotatedElementUtils.hasAnnotation(type, annotation) //
+						|| Arrays.stream(methods).anyMatch(it -> AnnotatedElementUtils.hasAnnotation(it, annotation))) //
+				.map(it -> String.format("uses @%s", it.getSimpleName())) //
+				.findFirst();
+	}
+
+	/**
+	 * Returns the type of the bean, i.e. the return type for beans defined by factory methods.
+	 *
+	 * @param definition must not be {@literal null}.
+	 * @param classLoader can be {@literal null}.
+	 * @return
+	 */
+	private static Optional<Class<?>> getBeanType(BeanDefinition definition, @Nullable ClassLoader classLoader) {
+
+		String typeName = definition.getBeanClassName();
+
+		if (definition instanceof AnnotatedBeanDefinition) {
+
+			MethodMetadata metadata = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+
+			if (metadata != null) {
+				typeName = metadata.getReturnTypeName();
+			}
+		}
+
+		return Optional.ofNullable(typeName) //
+				.filter(it -> ClassUtils.isPresent(it, classLoader)) //
+				.map(it -> ClassUtils.resolveClassName(it, classLoader));
+	}
+
+	/**
+	 * Returns the name of the class declaring the bean, i.e. the configuration class for beans defined by factory
+	 * methods.
+	 *
+	 * @param definition must not be {@literal null}.
+	 * @return
+	 */
+	private static Optional<String> getDeclaringClassName(BeanDefinition definition) {
+
+		if (definition instanceof AnnotatedBeanDefinition) {
+
+			MethodMetadata metadata = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+
+			if (metadata != null) {
+				return Optional.of(metadata.getDeclaringClassName());
+			}
+		}
+
+		return definition.getFactoryMethodName() == null //
+				? Optional.ofNullable(definition.getBeanClassName()) //
+				: Optional.empty();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.Modulith;
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+import de.olivergierke.moduliths.model.ModulesRuntime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The modules to be bootstrapped in the current application, i.e. the ones explicitly activated via
+ * {@link Modulith#activeModules()} or the {@value #ACTIVE_MODULES_PROPERTY} property plus all modules they depend on.
+ * Types of all other modules are excluded from the application.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleActivation {
+
+	public static final String ACTIVE_MODULES_PROPERTY = "moduliths.active-modules";
+
+	private final CondensedModules modules;
+	private final Set<CondensedModule> activeModules;
+
+	private ModuleActivation(CondensedModules modules, Set<CondensedModule> activeModules) {
+
+		this.modules = modules;
+		this.activeModules = activeModules;
+	}
+
+	/**
+	 * Returns the {@link ModuleActivation} for the given {@link ModulesRuntime} and {@link Environment}. The
+	 * {@value #ACTIVE_MODULES_PROPERTY} property takes precedence over {@link Modulith#activeModules()}.
+	 *
+	 * @param runtime must not be {@literal null}.
+	 * @param environment must not be {@literal null}.
+	 * @return a {@link ModuleActivation} or {@link Optional#empty()} if no modules were activated explicitly, i.e. all
+	 *         modules are active.
+	 * @throws IllegalArgumentException in case an unknown module is activated.
+	 */
+	public static Optional<ModuleActivation> of(ModulesRuntime runtime, Environment environment) {
+
+		Assert.notNull(runtime, "ModulesRuntime must not be null!");
+		Assert.notNull(environment, "Environment must not be null!");
+
+		List<String> names = getActiveModuleNames(runtime.getModulithType(), environment);
+
+		if (names.isEmpty()) {
+			return Optional.empty();
+		}
+
+		CondensedModules modules = runtime.getModules();
+		Set<CondensedModule> activeModules = new LinkedHashSet<>();
+
+		for (String name : names) {
+
+			CondensedModule module = modules.getModuleByName(name) //
+					.orElseThrow(() -> new IllegalArgumentException(String.format("Unknown module %s activated!", name)));
+
+			activeModules.add(module);
+			activeModules.addAll(module.getDependencies(DependencyDepth.ALL));
+		}
+
+		return Optional.of(new ModuleActivation(modules, activeModules));
+	}
+
+	/**
+	 * Returns all active modules, i.e. the activated ones and their dependencies.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Set<CondensedModule> getActiveModules() {
+		return Collections.unmodifiableSet(activeModules);
+	}
+
+	/**
+	 * Returns the base packages of all active modules.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public List<String> getBasePackages() {
+
+		return activeModules.stream() //
+				.map(CondensedModule::getBasePackage) //
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns whether the type with the given name belongs to an inactive module. Types not belonging to any module are
+	 * never considered inactive.
+	 *
+	 * @param className must not be {@literal null} or empty.
+	 * @return
+	 */
+	public boolean isInactive(String className) {
+
+		return modules.getModuleByType(className) //
+				.filter(it -> !activeModules.contains(it)) //
+				.isPresent();
+	}
+
+	private static List<String> getActiveModuleNames(Class<?> modulithType, Environment environment) {
+
+		String property = environment.getProperty(ACTIVE_MODULES_PROPERTY);
+
+		if (property != null) {
+			return Arrays.asList(StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(property)));
+		}
+
+		Modulith modulith = AnnotatedElementUtils.findMergedAnnotation(modulithType, Modulith.class);
+
+		return modulith == null ? Collections.emptyList() : Arrays.asList(modulith.activeModules());
+	}
+}
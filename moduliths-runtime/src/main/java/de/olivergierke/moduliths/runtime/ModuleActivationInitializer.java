@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.ModulesRuntime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+
+/**
+ * {@link ApplicationContextInitializer} to restrict the application to the modules defined by {@link ModuleActivation}.
+ * Registers the {@link ModuleActivation} and a {@link ModuleActivationExcludeFilter} before the configuration classes
+ * are processed, so that the types of inactive modules are not picked up by component scanning.
+ *
+ * @author Oliver Gierke
+ * @see ModuleActivationAutoConfiguration
+ */
+public class ModuleActivationInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.ApplicationContextInitializer#initialize(org.springframework.context.ConfigurableApplicationContext)
+	 */
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		context.addBeanFactoryPostProcessor(new ModuleActivationPostProcessor(context.getEnvironment()));
+	}
+
+	@Slf4j
+	@RequiredArgsConstructor
+	static class ModuleActivationPostProcessor implements BeanDefinitionRegistryPostProcessor {
+
+		private final Environment environment;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor#postProcessBeanDefinitionRegistry(org.springframework.beans.factory.support.BeanDefinitionRegistry)
+		 */
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+
+			if (!(registry instanceof ConfigurableListableBeanFactory)) {
+				return;
+			}
+
+			ConfigurableListableBeanFactory beanFactory = (ConfigurableListableBeanFactory) registry;
+
+			getRuntime(beanFactory) //
+					.flatMap(it -> ModuleActivation.of(it, environment)) //
+					.ifPresent(it -> {
+
+						LOG.info("Activating modules {}.", it.getActiveModules().stream() //
+								.map(CondensedModule::getDisplayName) //
+								.collect(Collectors.joining(", ")));
+
+						beanFactory.registerSingleton(ModuleActivation.class.getName(), it);
+						beanFactory.registerSingleton(ModuleActivationExcludeFilter.class.getName(),
+								new ModuleActivationExcludeFilter(it));
+					});
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.beans.factory.config.BeanFactoryPostProcessor#postProcessBeanFactory(org.springframework.beans.factory.config.ConfigurableListableBeanFactory)
+		 */
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {}
+
+		private static Optional<ModulesRuntime> getRuntime(ConfigurableListableBeanFactory beanFactory) {
+
+			try {
+				return Optional.of(ModulesRuntime.of(beanFactory));
+			} catch (IllegalStateException e) {
+				return Optional.empty();
+			}
+		}
+	}
+}
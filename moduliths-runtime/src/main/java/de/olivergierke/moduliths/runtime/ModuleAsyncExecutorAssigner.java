@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.AsyncAnnotationAdvisor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+/**
+ * Replaces the {@link AsyncAnnotationAdvisor} Spring applies to beans with asynchronous methods with one defaulting to
+ * the {@link Executor} of the module the bean belongs to. Methods explicitly qualifying an executor via
+ * {@code @Async("…")} still use that one. Implemented as {@link BeanPostProcessor} so that lazy, prototype and scoped
+ * beans are covered as well. Deliberately doesn't implement {@link org.springframework.core.Ordered}, as Spring invokes
+ * unordered post processors after the ordered ones, i.e. after the {@link AsyncAnnotationBeanPostProcessor} registered
+ * for {@code @EnableAsync} has applied its advisor.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+@RequiredArgsConstructor
+class ModuleAsyncExecutorAssigner implements BeanPostProcessor {
+
+	private final ConfigurableListableBeanFactory beanFactory;
+	private final ModuleExecutors executors;
+
+	private @Nullable AsyncUncaughtExceptionHandler exceptionHandler;
+	private boolean exceptionHandlerResolved;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.config.BeanPostProcessor#postProcessAfterInitialization(java.lang.Object, java.lang.String)
+	 */
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+		if (!(bean instanceof Advised) || ((Advised) bean).isFrozen()) {
+			return bean;
+		}
+
+		Advised advised = (Advised) bean;
+		Advisor[] advisors = advised.getAdvisors();
+
+		for (int i = 0; i < advisors.length; i++) {
+
+			if (!(advisors[i] instanceof AsyncAnnotationAdvisor)) {
+				continue;
+			}
+
+			int index = i;
+			Class<?> type = AopUtils.getTargetClass(bean);
+
+			executors.getExecutor(type).ifPresent(executor -> {
+
+				AsyncAnnotationAdvisor advisor = new AsyncAnnotationAdvisor(executor, getExceptionHandler());
+				advisor.setBeanFactory(beanFactory);
+
+				advised.removeAdvisor(index);
+				advised.addAdvisor(index, advisor);
+
+				LOG.debug("Running asynchronous methods of {} on executor of its module.", type.getName());
+			});
+		}
+
+		return bean;
+	}
+
+	/**
+	 * Looks up the {@link AsyncUncaughtExceptionHandler} on first use, as {@link AsyncConfigurer}s are regular beans
+	 * that might not be available yet when post processors are instantiated.
+	 *
+	 * @return
+	 */
+	@Nullable
+	private synchronized AsyncUncaughtExceptionHandler getExceptionHandler() {
+
+		if (!exceptionHandlerResolved) {
+
+			Map<String, AsyncConfigurer> configurers = beanFactory.getBeansOfType(AsyncConfigurer.class);
+
+			this.exceptionHandler = configurers.size() != 1 //
+					? null //
+					: configurers.values().iterator().next().getAsyncUncaughtExceptionHandler();
+			this.exceptionHandlerResolved = true;
+		}
+
+		return exceptionHandler;
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Auto-configuration to verify on startup that no bean gets a non-exposed type of another module injected. Has to be
+ * enabled explicitly by setting {@code moduliths.boundaries.verify} to {@literal true}. Setting
+ * {@code moduliths.boundaries.fail-on-violation} to {@literal false} only logs violations instead of failing the
+ * startup.
+ *
+ * @author Oliver Gierke
+ */
+@Configuration
+@ConditionalOnProperty(name = "moduliths.boundaries.verify", havingValue = "true")
+class ModuleBoundariesAutoConfiguration {
+
+	@Bean
+	static ModuleBoundaryVerifier moduleBoundaryVerifier(Environment environment) {
+		return new ModuleBoundaryVerifier(
+				environment.getProperty("moduliths.boundaries.fail-on-violation", Boolean.class, true));
+	}
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.ModulesRuntime;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.StandardMethodMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * A {@link BeanFactoryPostProcessor} verifying that no bean of a module gets a non-exposed type of another module
+ * injected. Inspects the constructor and field injection points of each bean definition's type, as well as the
+ * parameters of factory methods, and looks up the modules involved in the {@link CondensedModules} of the application.
+ * Combined with a module model snapshot packaged at build time, this doesn't require importing any bytecode at runtime.
+ * Violations either fail the application startup or are logged.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+public class ModuleBoundaryVerifier implements BeanFactoryPostProcessor {
+
+	private static final String INJECT_ANNOTATION = "javax.inject.Inject";
+
+	private final boolean failOnViolation;
+	private List<String> violations;
+
+	/**
+	 * Creates a new {@link ModuleBoundaryVerifier}.
+	 *
+	 * @param failOnViolation whether to fail the startup in case of violations or just log them.
+	 */
+	public ModuleBoundaryVerifier(boolean failOnViolation) {
+
+		this.failOnViolation = failOnViolation;
+		this.violations = Collections.emptyList();
+	}
+
+	/**
+	 * Returns the violations found.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public List<String> getViolations() {
+		return violations;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.config.BeanFactoryPostProcessor#postProcessBeanFactory(org.springframework.beans.factory.config.ConfigurableListableBeanFactory)
+	 */
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+
+		CondensedModules modules = ModulesRuntime.of(beanFactory).getModules();
+		ClassLoader classLoader = beanFactory.getBeanClassLoader();
+		List<String> result = new ArrayList<>();
+
+		for (String name : beanFactory.getBeanDefinitionNames()) {
+
+			BeanDefinition definition = beanFactory.getBeanDefinition(name);
+
+			getDependencies(definition, classLoader).forEach(it -> verify(name, it, modules).ifPresent(result::add));
+		}
+
+		this.violations = Collections.unmodifiableList(result);
+
+		if (result.isEmpty()) {
+			return;
+		}
+
+		String message = result.stream().collect(Collectors.joining(System.lineSeparator()));
+
+		if (failOnViolation) {
+			throw new IllegalStateException(message);
+		}
+
+		result.forEach(LOG::warn);
+	}
+
+	private static Optional<String> verify(String beanName, BeanDependency dependency, CondensedModules modules) {
+
+		String origin = dependency.getOrigin().getName();
+		Optional<CondensedModule> originModule = modules.getModuleByType(origin);
+
+		if (!originModule.isPresent()) {
+			return Optional.empty();
+		}
+
+		Class<?> target = dependency.getTarget();
+
+		if (target.isPrimitive() || target.isArray()) {
+			return Optional.empty();
+		}
+
+		String targetName = target.getName();
+
+		return modules.getModuleByType(targetName) //
+				.filter(it -> !it.equals(originModule.get())) //
+				.filter(it -> !it.isExposed(targetName)) //
+				.map(it -> String.format("Module '%s' depends on non-exposed type %s within module '%s'! Bean %s via %s.",
+						originModule.get().getName(), targetName, it.getName(), beanName, dependency.getDescription()));
+	}
+
+	private static List<BeanDependency> getDependencies(BeanDefinition definition, ClassLoader classLoader) {
+
+		List<BeanDependency> result = new ArrayList<>();
+
+		if (definition instanceof AnnotatedBeanDefinition) {
+
+			MethodMetadata metadata = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+
+			if (metadata != null) {
+
+				loadClass(metadata.getDeclaringClassName(), classLoader).ifPresent(type -> {
+					getFactoryMethods(metadata, type).forEach(it -> addParameters(it, type, result));
+				});
+
+				return result;
+			}
+		}
+
+		if (definition.getFactoryMethodName() != null || definition.getBeanClassName() == null) {
+			return result;
+		}
+
+		loadClass(definition.getBeanClassName(), classLoader).ifPresent(type -> {
+
+			Constructor<?>[] constructors = type.getDeclaredConstructors();
+
+			Arrays.stream(constructors) //
+					.filter(it -> constructors.length == 1 || isInjectionPoint(it)) //
+					.forEach(it -> addParameters(it, type, result));
+
+			ReflectionUtils.doWithFields(type, field -> {
+
+				if (isInjectionPoint(field)) {
+					result.add(new BeanDependency(type, getInjectedType(ResolvableType.forField(field)),
+							"field ".concat(field.getName())));
+				}
+			});
+		});
+
+		return result;
+	}
+
+	/**
+	 * Returns the factory methods the given {@link MethodMetadata} can refer to. That's the introspected method if the
+	 * metadata was obtained via reflection. Metadata read from the bytecode doesn't expose the parameter types, so we
+	 * match name, declaring class, return type, the static modifier and the {@link Bean} annotation, which excludes
+	 * plain overloads of the factory method.
+	 *
+	 * @param metadata must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	private static Stream<Method> getFactoryMethods(MethodMetadata metadata, Class<?> type) {
+
+		if (metadata instanceof StandardMethodMetadata) {
+			return Stream.of(((StandardMethodMetadata) metadata).getIntrospectedMethod());
+		}
+
+		return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(type)) //
+				.filter(it -> it.getName().equals(metadata.getMethodName())) //
+				.filter(it -> it.getDeclaringClass().getName().equals(metadata.getDeclaringClassName())) //
+				.filter(it -> it.getReturnType().getName().equals(metadata.getReturnTypeName())) //
+				.filter(it -> Modifier.isStatic(it.getModifiers()) == metadata.isStatic()) //
+				.filter(it -> AnnotatedElementUtils.hasAnnotation(it, Bean.class));
+	}
+
+	private static void addParameters(Executable executable, Class<?> origin, List<BeanDependency> dependencies) {
+
+		String description = executable instanceof Method //
+				? "factory method ".concat(executable.getName()) //
+				: "constructor";
+
+		for (int i = 0; i < executable.getParameterCount(); i++) {
+
+			MethodParameter parameter = MethodParameter.forExecutable(executable, i);
+
+			dependencies.add(new BeanDependency(origin,
+					getInjectedType(ResolvableType.forMethodParameter(parameter)), description));
+		}
+	}
+
+	/**
+	 * Returns the type of the beans to be injected for the given {@link ResolvableType}, i.e. unwraps collections, maps,
+	 * {@link Optional} and {@link ObjectFactory}s.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	private static Class<?> getInjectedType(ResolvableType type) {
+
+		Class<?> rawType = type.resolve(Object.class);
+
+		if (type.isArray()) {
+			return getInjectedType(type.getComponentType());
+		}
+
+		if (Collection.class.isAssignableFrom(rawType) || Optional.class.equals(rawType)
+				|| ObjectFactory.class.isAssignableFrom(rawType)) {
+			return type.getGeneric(0).resolve(Object.class);
+		}
+
+		if (Map.class.isAssignableFrom(rawType)) {
+			return type.getGeneric(1).resolve(Object.class);
+		}
+
+		return rawType;
+	}
+
+	private static boolean isInjectionPoint(AnnotatedElement element) {
+
+		return AnnotatedElementUtils.hasAnnotation(element, Autowired.class) //
+				|| Arrays.stream(element.getAnnotations()) //
+						.anyMatch(it -> it.annotationType().getName().equals(INJECT_ANNOTATION));
+	}
+
+	private static Optional<Class<?>> loadClass(String name, ClassLoader classLoader) {
+
+		try {
+			return Optional.of(ClassUtils.forName(name, classLoader));
+		} catch (ClassNotFoundException | LinkageError e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * A dependency of a bean on another type.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@Value
+	private static class BeanDependency {
+
+		Class<?> origin, target;
+		String description;
+	}
+}
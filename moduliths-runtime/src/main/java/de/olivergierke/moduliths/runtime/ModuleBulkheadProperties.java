@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+/**
+ * Configuration of the executors and schedulers dedicated to the individual modules. The defaults can be overridden
+ * per module using {@code moduliths.bulkheads.modules.$moduleName.…}.
+ *
+ * @author Oliver Gierke
+ */
+@Data
+@ConfigurationProperties("moduliths.bulkheads")
+public class ModuleBulkheadProperties {
+
+	/**
+	 * Whether to run asynchronous methods and scheduled tasks of a module on executors dedicated to the module.
+	 */
+	private boolean enabled;
+
+	/**
+	 * The number of threads to keep per module for asynchronous methods.
+	 */
+	private int corePoolSize = 2;
+
+	/**
+	 * The maximum number of threads per module for asynchronous methods.
+	 */
+	private int maxPoolSize = 8;
+
+	/**
+	 * The maximum number of invocations of asynchronous methods waiting per module before new ones are rejected.
+	 */
+	private int queueCapacity = 100;
+
+	/**
+	 * The number of threads per module to run scheduled tasks.
+	 */
+	private int schedulerPoolSize = 1;
+
+	/**
+	 * Overrides of the settings above per module name.
+	 */
+	private Map<String, ModuleSettings> modules = new HashMap<>();
+
+	int getCorePoolSize(String module) {
+		return get(module, ModuleSettings::getCorePoolSize, corePoolSize);
+	}
+
+	int getMaxPoolSize(String module) {
+		return get(module, ModuleSettings::getMaxPoolSize, maxPoolSize);
+	}
+
+	int getQueueCapacity(String module) {
+		return get(module, ModuleSettings::getQueueCapacity, queueCapacity);
+	}
+
+	int getSchedulerPoolSize(String module) {
+		return get(module, ModuleSettings::getSchedulerPoolSize, schedulerPoolSize);
+	}
+
+	private int get(String module, Function<ModuleSettings, Integer> getter, int defaultValue) {
+		return Optional.ofNullable(modules.get(module)).map(getter).orElse(defaultValue);
+	}
+
+	/**
+	 * Settings for the executor and scheduler of a particular module.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@Data
+	public static class ModuleSettings {
+
+		private @Nullable Integer corePoolSize, maxPoolSize, queueCapacity, schedulerPoolSize;
+	}
+}
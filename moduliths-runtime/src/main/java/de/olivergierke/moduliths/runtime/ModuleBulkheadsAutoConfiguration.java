@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.ModulesRuntime;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Auto-configuration to run asynchronous methods and scheduled tasks on executors dedicated to the module declaring
+ * them. Has to be enabled explicitly by setting {@code moduliths.bulkheads.enabled} to {@literal true}.
+ *
+ * @author Oliver Gierke
+ */
+@Configuration
+@EnableConfigurationProperties(ModuleBulkheadProperties.class)
+@ConditionalOnProperty(name = "moduliths.bulkheads.enabled", havingValue = "true")
+class ModuleBulkheadsAutoConfiguration {
+
+	@Bean
+	static ModuleExecutors moduleExecutors(ConfigurableListableBeanFactory beanFactory, ModuleBulkheadProperties properties) {
+		return new ModuleExecutors(ModulesRuntime.of(beanFactory).getModules(), properties);
+	}
+
+	@Bean
+	static ModuleAsyncExecutorAssigner moduleAsyncExecutorAssigner(ConfigurableListableBeanFactory beanFactory,
+			ModuleExecutors executors) {
+		return new ModuleAsyncExecutorAssigner(beanFactory, executors);
+	}
+
+	@Bean
+	SchedulingConfigurer moduleSchedulingConfigurer(ModuleExecutors executors,
+			ObjectProvider<TaskScheduler> scheduler) {
+
+		return registrar -> registrar.setTaskScheduler(
+				new ModuleRoutingTaskScheduler(executors, scheduler.getIfUnique(executors::getDefaultScheduler)));
+	}
+
+	@Configuration
+	@ConditionalOnClass(MeterBinder.class)
+	static class ModuleExecutorMetricsConfiguration {
+
+		@Bean
+		ModuleExecutorMetrics moduleExecutorMetrics(ModuleExecutors executors) {
+			return new ModuleExecutorMetrics(executors);
+		}
+	}
+}
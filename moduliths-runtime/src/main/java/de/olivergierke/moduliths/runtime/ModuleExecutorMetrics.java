@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Registers the state of the {@link ModuleExecutors} as gauges named {@value #ACTIVE_METRIC}, {@value #QUEUED_METRIC},
+ * {@value #POOL_METRIC} and {@value #SATURATION_METRIC} as well as a counter named {@value #REJECTED_METRIC}, tagged
+ * with {@code module} and {@code kind} being either {@code async} or {@code scheduled}. The saturation is the share of
+ * threads and queue slots of an executor in use.
+ *
+ * @author Oliver Gierke
+ */
+@RequiredArgsConstructor
+public class ModuleExecutorMetrics implements MeterBinder {
+
+	public static final String ACTIVE_METRIC = "moduliths.module.executor.active";
+	public static final String QUEUED_METRIC = "moduliths.module.executor.queued";
+	public static final String POOL_METRIC = "moduliths.module.executor.pool.size";
+	public static final String SATURATION_METRIC = "moduliths.module.executor.saturation";
+	public static final String REJECTED_METRIC = "moduliths.module.executor.rejected";
+
+	private final ModuleExecutors executors;
+
+	/*
+	 * (non-Javadoc)
+	 * @see io.micrometer.core.instrument.binder.MeterBinder#bindTo(io.micrometer.core.instrument.MeterRegistry)
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		executors.getExecutors().forEach((module, executor) -> {
+
+			ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+
+			register(registry, module, "async", pool);
+
+			Gauge.builder(SATURATION_METRIC, pool, ModuleExecutorMetrics::getSaturation) //
+					.description("Share of threads and queue slots of a module's executor in use") //
+					.tag("module", module) //
+					.tag("kind", "async") //
+					.register(registry);
+
+			FunctionCounter.builder(REJECTED_METRIC, executors, it -> it.getRejectedCount(module)) //
+					.description("Invocations rejected by a module's executor") //
+					.tag("module", module) //
+					.tag("kind", "async") //
+					.register(registry);
+		});
+
+		executors.getSchedulers().forEach((module, scheduler) -> {
+			register(registry, module, "scheduled", scheduler.getScheduledThreadPoolExecutor());
+		});
+	}
+
+	private static void register(MeterRegistry registry, String module, String kind, ThreadPoolExecutor pool) {
+
+		Gauge.builder(ACTIVE_METRIC, pool, ThreadPoolExecutor::getActiveCount) //
+				.description("Threads of a module's executor currently running tasks") //
+				.tag("module", module) //
+				.tag("kind", kind) //
+				.register(registry);
+
+		Gauge.builder(QUEUED_METRIC, pool, it -> it.getQueue().size()) //
+				.description("Tasks waiting for a thread of a module's executor") //
+				.tag("module", module) //
+				.tag("kind", kind) //
+				.register(registry);
+
+		Gauge.builder(POOL_METRIC, pool, ThreadPoolExecutor::getPoolSize) //
+				.description("Threads currently held by a module's executor") //
+				.tag("module", module) //
+				.tag("kind", kind) //
+				.register(registry);
+	}
+
+	private static double getSaturation(ThreadPoolExecutor pool) {
+
+		double capacity = pool.getMaximumPoolSize() + pool.getQueue().size() + pool.getQueue().remainingCapacity();
+
+		return (pool.getActiveCount() + pool.getQueue().size()) / capacity;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link ThreadPoolTaskExecutor} for asynchronous methods and a {@link ThreadPoolTaskScheduler} for scheduled tasks
+ * per module, so that a burst of work in one module cannot starve the others. The executors reject invocations once
+ * both their threads and their queue are exhausted. Threads are only started on demand.
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleExecutors implements DisposableBean {
+
+	private final CondensedModules modules;
+	private final Map<String, ThreadPoolTaskExecutor> executors;
+	private final Map<String, ThreadPoolTaskScheduler> schedulers;
+	private final Map<String, LongAdder> rejections;
+	private final ThreadPoolTaskScheduler defaultScheduler;
+
+	/**
+	 * Creates a new {@link ModuleExecutors} for the given {@link CondensedModules}.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @param properties must not be {@literal null}.
+	 */
+	public ModuleExecutors(CondensedModules modules, ModuleBulkheadProperties properties) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.notNull(properties, "ModuleBulkheadProperties must not be null!");
+
+		this.modules = modules;
+		this.executors = new LinkedHashMap<>();
+		this.schedulers = new LinkedHashMap<>();
+		this.rejections = new LinkedHashMap<>();
+
+		for (CondensedModule module : modules) {
+
+			String name = module.getName();
+			LongAdder rejected = new LongAdder();
+			AbortPolicy abort = new AbortPolicy();
+
+			ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+			executor.setThreadNamePrefix("moduliths-async-".concat(name).concat("-"));
+			executor.setCorePoolSize(properties.getCorePoolSize(name));
+			executor.setMaxPoolSize(properties.getMaxPoolSize(name));
+			executor.setQueueCapacity(properties.getQueueCapacity(name));
+			executor.setRejectedExecutionHandler((task, pool) -> {
+				rejected.increment();
+				abort.rejectedExecution(task, pool);
+			});
+			executor.initialize();
+
+			ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+			scheduler.setThreadNamePrefix("moduliths-scheduling-".concat(name).concat("-"));
+			scheduler.setPoolSize(properties.getSchedulerPoolSize(name));
+			scheduler.initialize();
+
+			executors.put(name, executor);
+			schedulers.put(name, scheduler);
+			rejections.put(name, rejected);
+		}
+
+		this.defaultScheduler = new ThreadPoolTaskScheduler();
+		this.defaultScheduler.setThreadNamePrefix("moduliths-scheduling-");
+		this.defaultScheduler.initialize();
+	}
+
+	/**
+	 * Returns the executor for asynchronous methods of the module containing the given type.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	public Optional<ThreadPoolTaskExecutor> getExecutor(Class<?> type) {
+		return getModule(type).map(it -> executors.get(it.getName()));
+	}
+
+	/**
+	 * Returns the scheduler for the scheduled tasks of the module containing the given type.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	public Optional<ThreadPoolTaskScheduler> getScheduler(Class<?> type) {
+		return getModule(type).map(it -> schedulers.get(it.getName()));
+	}
+
+	/**
+	 * Returns the scheduler for tasks of types that don't belong to any module.
+	 *
+	 * @return
+	 */
+	public ThreadPoolTaskScheduler getDefaultScheduler() {
+		return defaultScheduler;
+	}
+
+	/**
+	 * Returns the executors for asynchronous methods keyed by module name.
+	 *
+	 * @return
+	 */
+	public Map<String, ThreadPoolTaskExecutor> getExecutors() {
+		return Collections.unmodifiableMap(executors);
+	}
+
+	/**
+	 * Returns the schedulers for scheduled tasks keyed by module name.
+	 *
+	 * @return
+	 */
+	public Map<String, ThreadPoolTaskScheduler> getSchedulers() {
+		return Collections.unmodifiableMap(schedulers);
+	}
+
+	/**
+	 * Returns the number of invocations of asynchronous methods rejected for the module with the given name.
+	 *
+	 * @param module must not be {@literal null} or empty.
+	 * @return
+	 */
+	public long getRejectedCount(String module) {
+
+		LongAdder rejected = rejections.get(module);
+
+		return rejected == null ? 0 : rejected.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public void destroy() {
+
+		executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+		schedulers.values().forEach(ThreadPoolTaskScheduler::shutdown);
+		defaultScheduler.shutdown();
+	}
+
+	/**
+	 * Returns the module containing the given type or the closest of its superclasses, so that subclasses generated at
+	 * runtime (e.g. proxies) are attributed to the module of the type they were derived from.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	private Optional<CondensedModule> getModule(Class<?> type) {
+
+		for (Class<?> current = ClassUtils.getUserClass(type); current != null
+				&& current != Object.class; current = current.getSuperclass()) {
+
+			Optional<CondensedModule> module = modules.getModuleByType(current.getName());
+
+			if (module.isPresent()) {
+				return module;
+			}
+		}
+
+		return Optional.empty();
+	}
+}
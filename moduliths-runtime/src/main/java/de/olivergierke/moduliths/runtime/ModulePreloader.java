@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Loads and introspects the bean types of all modules on a {@link ForkJoinPool} while the application context
+ * instantiates its singletons. Modules are processed in parallel as soon as all modules they depend on have been
+ * processed, so that the types of upstream modules, which are instantiated first, are warmed up first. Class loading
+ * and reflective lookups are the parts of bean creation that can run outside of the bean factory's singleton lock.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+class ModulePreloader {
+
+	private final CondensedModules modules;
+	private final Map<CondensedModule, List<String>> types;
+	private final ClassLoader classLoader;
+	private final int parallelism;
+
+	/**
+	 * Creates a new {@link ModulePreloader}.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @param types the names of the types to load per module, must not be {@literal null}.
+	 * @param classLoader must not be {@literal null}.
+	 * @param parallelism the maximum number of modules to process in parallel, must be greater than zero.
+	 */
+	ModulePreloader(CondensedModules modules, Map<CondensedModule, List<String>> types,
+			ClassLoader classLoader, int parallelism) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.notNull(types, "Types must not be null!");
+		Assert.notNull(classLoader, "ClassLoader must not be null!");
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater than zero!");
+
+		this.modules = modules;
+		this.types = types;
+		this.classLoader = classLoader;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Starts preloading the types asynchronously.
+	 *
+	 * @return a {@link CompletableFuture} completing once all modules have been processed.
+	 */
+	CompletableFuture<Void> start() {
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		Map<CondensedModule, CompletableFuture<Void>> futures = new HashMap<>();
+		long start = System.nanoTime();
+
+		for (CondensedModule module : modules.sortTopologically()) {
+
+			CompletableFuture<?>[] dependencies = module.getDependencies(DependencyDepth.IMMEDIATE).stream() //
+					.map(futures::get) //
+					.filter(it -> it != null) //
+					.toArray(CompletableFuture[]::new);
+
+			futures.put(module, CompletableFuture.allOf(dependencies) //
+					.thenRunAsync(() -> preload(module), pool));
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[futures.size()])) //
+				.whenComplete((result, e) -> {
+
+					pool.shutdown();
+
+					LOG.debug("Preloaded types of {} modules in {} ms.", futures.size(),
+							TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				});
+	}
+
+	private void preload(CondensedModule module) {
+
+		List<String> names = types.getOrDefault(module, Collections.emptyList());
+
+		for (String name : names) {
+
+			try {
+
+				Class<?> type = ClassUtils.forName(name, classLoader);
+
+				type.getDeclaredConstructors();
+				ReflectionUtils.getUniqueDeclaredMethods(type);
+				ReflectionUtils.doWithFields(type, it -> {});
+
+			} catch (ClassNotFoundException | LinkageError e) {
+				LOG.debug("Couldn't preload type {} of module {}.", name, module.getName());
+			}
+		}
+
+		LOG.trace("Preloaded {} types of module {}.", names.size(), module.getName());
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+/**
+ * A {@link TaskScheduler} running {@code @Scheduled} methods on the scheduler of the module declaring them. All other
+ * tasks are handed to the given fallback {@link TaskScheduler}.
+ *
+ * @author Oliver Gierke
+ */
+@RequiredArgsConstructor
+public class ModuleRoutingTaskScheduler implements TaskScheduler {
+
+	private final ModuleExecutors executors;
+	private final TaskScheduler fallback;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.scheduling.TaskScheduler#schedule(java.lang.Runnable, org.springframework.scheduling.Trigger)
+	 */
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		return getScheduler(task).schedule(task, trigger);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.scheduling.TaskScheduler#schedule(java.lang.Runnable, java.util.Date)
+	 */
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		return getScheduler(task).schedule(task, startTime);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.scheduling.TaskScheduler#scheduleAtFixedRate(java.lang.Runnable, java.util.Date, long)
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		return getScheduler(task).scheduleAtFixedRate(task, startTime, period);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.scheduling.TaskScheduler#scheduleAtFixedRate(java.lang.Runnable, long)
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return getScheduler(task).scheduleAtFixedRate(task, period);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.scheduling.TaskScheduler#scheduleWithFixedDelay(java.lang.Runnable, java.util.Date, long)
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		return getScheduler(task).scheduleWithFixedDelay(task, startTime, delay);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.scheduling.TaskScheduler#scheduleWithFixedDelay(java.lang.Runnable, long)
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return getScheduler(task).scheduleWithFixedDelay(task, delay);
+	}
+
+	private TaskScheduler getScheduler(Runnable task) {
+
+		if (!(task instanceof ScheduledMethodRunnable)) {
+			return fallback;
+		}
+
+		Class<?> type = AopUtils.getTargetClass(((ScheduledMethodRunnable) task).getTarget());
+
+		return executors.getScheduler(type) //
+				.map(TaskScheduler.class::cast) //
+				.orElse(fallback);
+	}
+}
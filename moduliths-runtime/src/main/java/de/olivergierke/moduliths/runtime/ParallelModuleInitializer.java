@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.runtime;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.ModulesRuntime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link ApplicationContextInitializer} to load and introspect the bean types of the application's modules in parallel
+ * while the singletons are instantiated. Has to be enabled explicitly by setting {@value #ENABLED_PROPERTY} to
+ * {@literal true}. The number of modules processed in parallel can be configured via {@value #PARALLELISM_PROPERTY}
+ * and defaults to the number of available processors.
+ *
+ * @author Oliver Gierke
+ * @see ModulePreloader
+ */
+public class ParallelModuleInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	static final String ENABLED_PROPERTY = "moduliths.parallel-initialization.enabled";
+	static final String PARALLELISM_PROPERTY = "moduliths.parallel-initialization.parallelism";
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.ApplicationContextInitializer#initialize(org.springframework.context.ConfigurableApplicationContext)
+	 */
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+
+		Environment environment = context.getEnvironment();
+
+		if (!environment.getProperty(ENABLED_PROPERTY, Boolean.class, false)) {
+			return;
+		}
+
+		int parallelism = environment.getProperty(PARALLELISM_PROPERTY, Integer.class,
+				Runtime.getRuntime().availableProcessors());
+
+		context.addBeanFactoryPostProcessor(beanFactory -> getRuntime(beanFactory).ifPresent(it -> {
+
+			CondensedModules modules = it.getModules();
+			ClassLoader classLoader = Optional.ofNullable(beanFactory.getBeanClassLoader())
+					.orElseGet(ClassUtils::getDefaultClassLoader);
+
+			new ModulePreloader(modules, getBeanTypes(beanFactory, modules), classLoader, parallelism).start();
+		}));
+	}
+
+	private static Map<CondensedModule, List<String>> getBeanTypes(ConfigurableListableBeanFactory beanFactory,
+			CondensedModules modules) {
+
+		Map<CondensedModule, List<String>> types = new HashMap<>();
+
+		for (String name : beanFactory.getBeanDefinitionNames()) {
+
+			BeanDefinition definition = beanFactory.getBeanDefinition(name);
+			String className = definition.getBeanClassName();
+
+			if (className == null) {
+				continue;
+			}
+
+			modules.getModuleByType(className) //
+					.map(it -> types.computeIfAbsent(it, key -> new ArrayList<>())) //
+					.ifPresent(it -> it.add(className));
+		}
+
+		return types;
+	}
+
+	private static Optional<ModulesRuntime> getRuntime(ConfigurableListableBeanFactory beanFactory) {
+
+		try {
+			return Optional.of(ModulesRuntime.of(beanFactory));
+		} catch (IllegalStateException e) {
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,2 @@
+@de.olivergierke.moduliths.Module(allowedDependencies = "moduleA")
+package com.acme.myproject.invalid;
@@ -15,6 +15,11 @@
  */
 package com.acme.myproject.moduleA;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
@@ -23,4 +28,21 @@ import org.springframework.stereotype.Component;
 @Component
 public class ServiceComponentA {
 
+	private volatile String schedulingThread;
+
+	public void doSomething() {}
+
+	@Async
+	public CompletableFuture<String> doSomethingAsynchronously() {
+		return CompletableFuture.completedFuture(Thread.currentThread().getName());
+	}
+
+	@Scheduled(fixedDelay = 100)
+	public void recordSchedulingThread() {
+		this.schedulingThread = Thread.currentThread().getName();
+	}
+
+	public Optional<String> getSchedulingThread() {
+		return Optional.ofNullable(schedulingThread);
+	}
 }
@@ -17,8 +17,10 @@ package com.acme.myproject.moduleB;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import com.acme.myproject.moduleA.ModuleAEvent;
 import com.acme.myproject.moduleA.ServiceComponentA;
 import com.acme.myproject.moduleB.internal.InternalComponentB;
 
@@ -31,4 +33,11 @@ public class ServiceComponentB {
 
 	private final ServiceComponentA serviceComponentA;
 	private final InternalComponentB internalComponentB;
+
+	public void doSomethingWithA() {
+		serviceComponentA.doSomething();
+	}
+
+	@EventListener
+	public void on(ModuleAEvent event) {}
 }
@@ -17,10 +17,15 @@ package com.acme.myproject.moduleB.internal;
 
 import org.springframework.stereotype.Component;
 
+import com.acme.myproject.moduleA.ServiceComponentA;
+
 /**
  * @author Oliver Gierke
  */
 @Component
 public class InternalComponentB {
 
+	public void doSomethingWith(ServiceComponentA serviceComponentA) {
+		serviceComponentA.doSomething();
+	}
 }
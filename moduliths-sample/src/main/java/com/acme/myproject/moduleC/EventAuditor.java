@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.myproject.moduleC;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records all serializable events it gets notified about, independently of the module publishing them.
+ *
+ * @author Oliver Gierke
+ */
+@Component
+public class EventAuditor {
+
+	private final List<Serializable> events = new CopyOnWriteArrayList<>();
+
+	@EventListener
+	void on(Serializable event) {
+		events.add(event);
+	}
+
+	public List<Serializable> getEvents() {
+		return Collections.unmodifiableList(events);
+	}
+}
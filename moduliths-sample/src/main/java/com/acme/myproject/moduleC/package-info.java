@@ -1,2 +1,2 @@
-@de.olivergierke.moduliths.Module(displayName = "MyModule C")
+@de.olivergierke.moduliths.Module(displayName = "MyModule C", allowedDependencies = "moduleB")
 package com.acme.myproject.moduleC;
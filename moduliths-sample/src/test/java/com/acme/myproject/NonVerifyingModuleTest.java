@@ -35,4 +35,7 @@ public @interface NonVerifyingModuleTest {
 
 	@AliasFor(annotation = ModuleTest.class, attribute = "mode")
 	BootstrapMode value() default BootstrapMode.STANDALONE;
+
+	@AliasFor(annotation = ModuleTest.class, attribute = "depth")
+	int depth() default -1;
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.acme.myproject.moduleA;
+
+import static org.assertj.core.api.Assertions.*;
+
+import de.olivergierke.moduliths.model.test.PublishedEvents;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.acme.myproject.NonVerifyingModuleTest;
+import com.acme.myproject.moduleB.ServiceComponentB;
+
+/**
+ * Same as {@link ModuleATest} but run with JUnit Jupiter.
+ *
+ * @author Oliver Gierke
+ */
+@NonVerifyingModuleTest
+class ModuleAJupiterTest {
+
+	@Autowired ApplicationContext context;
+	@Autowired ApplicationEventPublisher publisher;
+	@Autowired PublishedEvents events;
+
+	@Test
+	void bootstrapsModuleAOnly() {
+
+		context.getBean(ServiceComponentA.class);
+
+		assertThatExceptionOfType(NoSuchBeanDefinitionException.class)
+				.isThrownBy(() -> context.getBean(ServiceComponentB.class));
+	}
+
+	@Test
+	void capturesPublishedEvents() {
+
+		publisher.publishEvent(new ModuleAEvent("first"));
+
+		ModuleAEvent event = events.await(ModuleAEvent.class, it -> it.getPayload().equals("first"), Duration.ofSeconds(5));
+
+		assertThat(event.getPayload()).isEqualTo("first");
+		assertThat(events.ofType(ModuleAEvent.class)).hasSize(1);
+	}
+}
@@ -17,11 +17,16 @@ package com.acme.myproject.moduleA;
 
 import static org.assertj.core.api.Assertions.*;
 
+import de.olivergierke.moduliths.model.test.PublishedEvents;
+
+import java.time.Duration;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import com.acme.myproject.NonVerifyingModuleTest;
@@ -35,6 +40,8 @@ import com.acme.myproject.moduleB.ServiceComponentB;
 public class ModuleATest {
 
 	@Autowired ApplicationContext context;
+	@Autowired ApplicationEventPublisher publisher;
+	@Autowired PublishedEvents events;
 
 	@Test
 	public void bootstrapsModuleAOnly() {
@@ -44,4 +51,19 @@ public class ModuleATest {
 		assertThatExceptionOfType(NoSuchBeanDefinitionException.class)
 				.isThrownBy(() -> context.getBean(ServiceComponentB.class));
 	}
+
+	@Test
+	public void capturesPublishedEvents() {
+
+		publisher.publishEvent(new ModuleAEvent("first"));
+
+		new Thread(() -> publisher.publishEvent(new ModuleAEvent("second"))).start();
+
+		ModuleAEvent event = events.await(ModuleAEvent.class, it -> it.getPayload().equals("second"),
+				Duration.ofSeconds(5));
+
+		assertThat(event.getPayload()).isEqualTo("second");
+		assertThat(events.ofType(ModuleAEvent.class)).extracting(ModuleAEvent::getPayload) //
+				.containsExactly("first", "second");
+	}
 }
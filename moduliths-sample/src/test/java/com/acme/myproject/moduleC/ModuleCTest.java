@@ -17,7 +17,9 @@ package com.acme.myproject.moduleC;
 
 import static org.assertj.core.api.Assertions.*;
 
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
 import de.olivergierke.moduliths.model.test.ModuleTest.BootstrapMode;
+import de.olivergierke.moduliths.model.test.ModuleTestExecution;
 import de.olivergierke.moduliths.model.test.TestUtils;
 
 import org.junit.Test;
@@ -35,6 +37,7 @@ import com.acme.myproject.moduleC.ModuleCTest.FailsStandalone;
 import com.acme.myproject.moduleC.ModuleCTest.FailsWithDirectDependency;
 import com.acme.myproject.moduleC.ModuleCTest.SucceedsWithAllDependencies;
 import com.acme.myproject.moduleC.ModuleCTest.SucceedsWithDirectDependencyPlusItsDependenciesMocks;
+import com.acme.myproject.moduleC.ModuleCTest.SucceedsWithTwoLevelsOfDependencies;
 
 /**
  * @author Oliver Gierke
@@ -44,7 +47,8 @@ import com.acme.myproject.moduleC.ModuleCTest.SucceedsWithDirectDependencyPlusIt
 		FailsStandalone.class, //
 		FailsWithDirectDependency.class, //
 		SucceedsWithDirectDependencyPlusItsDependenciesMocks.class, //
-		SucceedsWithAllDependencies.class //
+		SucceedsWithAllDependencies.class, //
+		SucceedsWithTwoLevelsOfDependencies.class //
 })
 public class ModuleCTest {
 
@@ -91,4 +95,23 @@ public class ModuleCTest {
 			assertThat(serviceComponentB).isNotNull();
 		}
 	}
+
+	@RunWith(SpringRunner.class)
+	@NonVerifyingModuleTest(depth = 2)
+	public static class SucceedsWithTwoLevelsOfDependencies {
+
+		@Autowired ServiceComponentA serviceComponentA;
+		@Autowired ServiceComponentB serviceComponentB;
+		@Autowired ModuleTestExecution execution;
+
+		@Test
+		public void bootstrapsContext() {
+
+			assertThat(serviceComponentA).isNotNull();
+			assertThat(serviceComponentB).isNotNull();
+			assertThat(execution.getCondensedDependencies()) //
+					.extracting(CondensedModule::getName) //
+					.containsExactly("moduleB", "moduleA");
+		}
+	}
 }
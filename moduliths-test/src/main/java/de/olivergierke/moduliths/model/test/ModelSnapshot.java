@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+import de.olivergierke.moduliths.model.CondensedModules;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link CondensedModules} snapshot file shared by all test JVMs using the same snapshot directory. Creating the
+ * snapshot is guarded by a {@link FileLock} on a sibling {@code .lock} file, so that of multiple JVMs started at the
+ * same time (e.g. Surefire forks) only the first one imports the classes and all others wait for it and read the
+ * snapshot written. As file locks are held on behalf of the entire JVM, threads of the same JVM are coordinated by an
+ * additional monitor per lock file.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+class ModelSnapshot {
+
+	private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+	private final Path file;
+	private final BytecodeFingerprint fingerprint;
+
+	/**
+	 * Creates a new {@link ModelSnapshot} for the given file and {@link BytecodeFingerprint}.
+	 *
+	 * @param file must not be {@literal null}.
+	 * @param fingerprint must not be {@literal null}.
+	 */
+	ModelSnapshot(Path file, BytecodeFingerprint fingerprint) {
+
+		Assert.notNull(file, "File must not be null!");
+		Assert.notNull(fingerprint, "Fingerprint must not be null!");
+
+		this.file = file.toAbsolutePath().normalize();
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Returns the {@link CondensedModules} of the snapshot or the ones created by the given {@link Supplier}, which are
+	 * written to the snapshot then. A snapshot of a model that hasn't been verified is only used if no verified model is
+	 * required.
+	 *
+	 * @param verified whether a verified model is required.
+	 * @param factory must not be {@literal null}.
+	 * @return
+	 */
+	CondensedModules readOrCreate(boolean verified, Supplier<CondensedModules> factory) {
+
+		Assert.notNull(factory, "Factory must not be null!");
+
+		Optional<CondensedModules> existing = read(verified);
+
+		if (existing.isPresent()) {
+			return existing.get();
+		}
+
+		Path lockFile = file.resolveSibling(file.getFileName().toString().concat(".lock"));
+
+		synchronized (MONITORS.computeIfAbsent(lockFile, it -> new Object())) {
+
+			try {
+
+				Files.createDirectories(file.getParent());
+
+				try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+						FileLock lock = channel.lock()) {
+
+					// Written by another JVM while we were waiting for the lock
+					return read(verified).orElseGet(() -> create(factory));
+				}
+
+			} catch (IOException e) {
+
+				LOG.warn("Couldn't lock module model snapshot {}, creating it without coordinating with other JVMs.", file,
+						e);
+
+				return create(factory);
+			}
+		}
+	}
+
+	private Optional<CondensedModules> read(boolean verified) {
+
+		Optional<CondensedModules> existing = CondensedModules.readFrom(file, fingerprint) //
+				.filter(it -> it.isVerified() || !verified);
+
+		existing.ifPresent(it -> LOG.debug("Using module model snapshot {}.", file));
+
+		return existing;
+	}
+
+	private CondensedModules create(Supplier<CondensedModules> factory) {
+
+		CondensedModules model = factory.get();
+
+		LOG.debug("Writing module model snapshot {}.", file);
+
+		model.writeTo(file, fingerprint);
+
+		return model;
+	}
+}
@@ -15,8 +15,8 @@
  */
 package de.olivergierke.moduliths.model.test;
 
-import de.olivergierke.moduliths.model.Module;
-import de.olivergierke.moduliths.model.Modules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.test.ModuleTest.BootstrapMode;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -58,6 +58,11 @@ class ModuleContextLoader extends SpringBootContextLoader {
 			logModules(execution);
 
 			applicationContext.getBeanFactory().registerSingleton(ModuleTestExecution.class.getName(), execution);
+
+			PublishedEvents events = new PublishedEvents(applicationContext.getBeanFactory());
+
+			applicationContext.getBeanFactory().registerSingleton(PublishedEvents.class.getName(), events);
+			applicationContext.addApplicationListener(events);
 		});
 
 		return initializers;
@@ -65,19 +70,22 @@ class ModuleContextLoader extends SpringBootContextLoader {
 
 	private static void logModules(ModuleTestExecution execution) {
 
-		Module module = execution.getModule();
-		Modules modules = execution.getModules();
+		CondensedModule module = execution.getCondensedModule();
 		String moduleName = module.getDisplayName();
-		String bootstrapMode = execution.getBootstrapMode().name();
+		BootstrapMode mode = execution.getBootstrapMode();
+		int levels = execution.getDependencyLevels();
+		String bootstrapMode = levels == mode.getDepth().getLevels() //
+				? "mode ".concat(mode.name()) //
+				: "dependency depth ".concat(String.valueOf(levels));
 
-		String message = String.format("Bootstrapping @ModuleTest for %s in mode %s…", moduleName, bootstrapMode);
+		String message = String.format("Bootstrapping @ModuleTest for %s in %s…", moduleName, bootstrapMode);
 
 		LOG.info(message);
 		LOG.info(getSeparator("=", message));
 
-		Arrays.stream(module.toString(modules).split("\n")).forEach(LOG::info);
+		Arrays.stream(module.toString().split("\n")).forEach(LOG::info);
 
-		List<Module> dependencies = execution.getDependencies();
+		List<CondensedModule> dependencies = execution.getCondensedDependencies();
 
 		if (!dependencies.isEmpty()) {
 
@@ -86,7 +94,7 @@ class ModuleContextLoader extends SpringBootContextLoader {
 			LOG.info(getSeparator("=", message));
 
 			dependencies.stream() //
-					.map(it -> it.toString(modules)) //
+					.map(CondensedModule::toString) //
 					.forEach(it -> {
 						Arrays.stream(it.split("\n")).forEach(LOG::info);
 					});
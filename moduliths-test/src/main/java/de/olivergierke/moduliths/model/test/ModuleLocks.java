@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ManagedBlocker;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import org.springframework.util.Assert;
+
+/**
+ * Locks on modules, so that tests bootstrapping overlapping sets of modules, and thus potentially sharing state like
+ * database tables, don't run concurrently, whereas tests of independent modules can. Locks are acquired in the order of
+ * the modules' base packages to prevent deadlocks and block in cooperation with the {@link ForkJoinPool} parallel test
+ * execution is usually based on. As that pool lets a blocked worker pick up other tests, the locks are neither
+ * reentrant nor owned by a thread, so that a test class can't slip into a module locked by another one run on the same
+ * worker and can release its locks from whatever thread its last callback is invoked on.
+ *
+ * @author Oliver Gierke
+ */
+class ModuleLocks {
+
+	private static final Map<String, Semaphore> LOCKS = new ConcurrentHashMap<>();
+
+	/**
+	 * Acquires the locks of the modules bootstrapped by the given {@link ModuleTestExecution}.
+	 *
+	 * @param execution must not be {@literal null}.
+	 * @return the {@link Locked} handle to release the locks acquired.
+	 */
+	static Locked lock(ModuleTestExecution execution) {
+
+		Assert.notNull(execution, "Module test execution must not be null!");
+
+		return lock(execution.getBasePackages().collect(Collectors.toList()));
+	}
+
+	/**
+	 * Acquires the locks of the modules with the given base packages, waiting for tests currently holding any of them to
+	 * release them.
+	 *
+	 * @param basePackages must not be {@literal null}.
+	 * @return the {@link Locked} handle to release the locks acquired.
+	 */
+	static Locked lock(Collection<String> basePackages) {
+
+		Assert.notNull(basePackages, "Base packages must not be null!");
+
+		List<Semaphore> locks = basePackages.stream() //
+				.distinct() //
+				.sorted() //
+				.map(ModuleLocks::getLock) //
+				.collect(Collectors.toList());
+
+		Locked locked = new Locked(new ArrayList<>(locks.size()));
+
+		try {
+
+			for (Semaphore lock : locks) {
+				acquire(lock);
+				locked.locks.add(lock);
+			}
+
+		} catch (InterruptedException e) {
+
+			locked.close();
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Interrupted while waiting for module locks!", e);
+		}
+
+		return locked;
+	}
+
+	private static Semaphore getLock(String basePackage) {
+		return LOCKS.computeIfAbsent(basePackage, it -> new Semaphore(1));
+	}
+
+	/**
+	 * Acquires the given {@link Semaphore}, blocking in cooperation with the {@link ForkJoinPool} the current thread might
+	 * belong to, so that the pool can compensate for the blocked worker.
+	 *
+	 * @param lock must not be {@literal null}.
+	 * @throws InterruptedException
+	 */
+	private static void acquire(Semaphore lock) throws InterruptedException {
+
+		if (lock.tryAcquire()) {
+			return;
+		}
+
+		ForkJoinPool.managedBlock(new ManagedBlocker() {
+
+			private boolean acquired = false;
+
+			@Override
+			public boolean block() throws InterruptedException {
+
+				if (!acquired) {
+					lock.acquire();
+					acquired = true;
+				}
+
+				return true;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				return acquired || (acquired = lock.tryAcquire());
+			}
+		});
+	}
+
+	/**
+	 * A handle on the module locks acquired. Can be closed by any thread.
+	 *
+	 * @author Oliver Gierke
+	 */
+	static class Locked implements AutoCloseable {
+
+		private final List<Semaphore> locks;
+
+		private Locked(List<Semaphore> locks) {
+			this.locks = locks;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.AutoCloseable#close()
+		 */
+		@Override
+		public void close() {
+
+			for (int i = locks.size() - 1; i >= 0; i--) {
+				locks.get(i).release();
+			}
+
+			locks.clear();
+		}
+	}
+}
@@ -22,12 +22,16 @@ import lombok.RequiredArgsConstructor;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.filter.TypeExcludeFilters;
 import org.springframework.boot.test.context.SpringBootTestContextBootstrapper;
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.test.context.BootstrapWith;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestExecutionListeners.MergeMode;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 /**
  * Bootstraps the module containing the package of the test class annotated with {@link ModuleTest}. Will apply the
@@ -37,6 +41,20 @@ import org.springframework.test.context.ContextConfiguration;
  * <li>
  * <li>Sets the module's package as the only auto-configuration and entity scan package.
  * <li>
+ * <li>Registers {@link PublishedEvents} to inspect and await the events published during a test method.
+ * <li>
+ * <li>Skips the test if a selection of tests for changed files is configured and the module is not affected by them
+ * (see {@link ModuleTestSelection}).
+ * <li>
+ * <li>Skips the test if it passed before for the same classes in case a result cache is configured (see
+ * {@link ModuleTestResultCache}).
+ * <li>
+ * <li>Registers the {@link SpringExtension} and the {@link ModuleTestExtension} to run the test with JUnit Jupiter,
+ * including its parallel test execution. JUnit 4 based tests still need to use {@code SpringRunner}.
+ * <li>
+ * <li>Requires the test methods to be run in the thread of their test class, as they share the application context and
+ * thus the {@link PublishedEvents} (see {@link ModuleTestExtension}).
+ * <li>
  * </ul>
  * 
  * @author Oliver Gierke
@@ -46,6 +64,11 @@ import org.springframework.test.context.ContextConfiguration;
 @TypeExcludeFilters(ModuleTypeExcludeFilter.class)
 @ContextConfiguration(loader = ModuleContextLoader.class)
 @ImportAutoConfiguration(ModuleTestAutoConfiguration.class)
+@TestExecutionListeners(
+		listeners = { PublishedEventsTestExecutionListener.class, ModuleTestSelectionTestExecutionListener.class,
+				ModuleTestResultCacheTestExecutionListener.class },
+		mergeMode = MergeMode.MERGE_WITH_DEFAULTS)
+@ExtendWith({ ModuleTestExtension.class, SpringExtension.class })
 public @interface ModuleTest {
 
 	@AliasFor("mode")
@@ -54,6 +77,15 @@ public @interface ModuleTest {
 	@AliasFor("value")
 	BootstrapMode mode() default BootstrapMode.STANDALONE;
 
+	/**
+	 * The number of levels of dependencies to bootstrap in addition to the module itself. Allows to include more
+	 * dependencies than {@link BootstrapMode#DIRECT_DEPENDENCIES} without bootstrapping all upstream modules as
+	 * {@link BootstrapMode#ALL_DEPENDENCIES} does. Overrides the {@link #mode()} if set to zero or more.
+	 *
+	 * @return
+	 */
+	int depth() default -1;
+
 	/**
 	 * Whether to automatically verify the module structure for validity.
 	 * 
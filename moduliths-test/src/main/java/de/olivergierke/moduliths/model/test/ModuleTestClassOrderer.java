@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.model.test.ModuleTestExecution.ContextKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+
+/**
+ * A JUnit Jupiter {@link ClassOrderer} to run {@link ModuleTest}s in an order that maximizes the reuse of application
+ * contexts. Test classes bootstrapping the same modules in the same way (see {@link ContextKey}) are grouped, so that
+ * they're run back to back and share the context cached by Spring. The groups are then ordered so that each group is
+ * followed by the one sharing the most modules with it. Test classes not annotated with {@link ModuleTest} are run
+ * after the module tests in their original order. Has to be registered via
+ * {@code junit.jupiter.testclass.order.default} in {@code junit-platform.properties}.
+ * <p>
+ * The order only determines the sequence in which test classes are started. It doesn't combine with test classes
+ * being run concurrently, as concurrently started groups interleave and compete for the context cache. Test classes
+ * thus have to be run in the same thread (the default) for the groups to be run back to back.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+public class ModuleTestClassOrderer implements ClassOrderer {
+
+	private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+	private static final String DEFAULT_MODE = "junit.jupiter.execution.parallel.mode.default";
+	private static final String CLASSES_MODE = "junit.jupiter.execution.parallel.mode.classes.default";
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.junit.jupiter.api.ClassOrderer#orderClasses(org.junit.jupiter.api.ClassOrdererContext)
+	 */
+	@Override
+	public void orderClasses(ClassOrdererContext context) {
+
+		if (runsClassesConcurrently(context::getConfigurationParameter)) {
+			LOG.warn("Test classes are run concurrently, so that module tests bootstrapping the same modules won't be run "
+					+ "back to back! Set {} to same_thread to benefit from the order.", CLASSES_MODE);
+		}
+
+		List<? extends ClassDescriptor> descriptors = context.getClassDescriptors();
+		List<ClassDescriptor> ordered = order(new ArrayList<>(descriptors),
+				it -> getContextKey(it.getTestClass()));
+
+		Map<ClassDescriptor, Integer> positions = new HashMap<>(ordered.size());
+
+		for (int i = 0; i < ordered.size(); i++) {
+			positions.put(ordered.get(i), i);
+		}
+
+		descriptors.sort(Comparator.comparing(positions::get));
+	}
+
+	/**
+	 * Orders the given elements by grouping the ones with the same {@link ContextKey} and placing groups sharing the most
+	 * base packages next to each other. Groups are started with the one appearing first and then continued with the
+	 * remaining group with the largest overlap, falling back to the original order for ties. Elements without a
+	 * {@link ContextKey} are appended in their original order.
+	 *
+	 * @param elements must not be {@literal null}.
+	 * @param keys must not be {@literal null}.
+	 * @return
+	 */
+	static <T> List<T> order(List<T> elements, Function<T, Optional<ContextKey>> keys) {
+
+		Assert.notNull(elements, "Elements must not be null!");
+		Assert.notNull(keys, "Key function must not be null!");
+
+		Map<ContextKey, List<T>> groups = new LinkedHashMap<>();
+		List<T> others = new ArrayList<>();
+
+		for (T element : elements) {
+
+			Optional<ContextKey> key = keys.apply(element);
+
+			if (key.isPresent()) {
+				groups.computeIfAbsent(key.get(), it -> new ArrayList<>()).add(element);
+			} else {
+				others.add(element);
+			}
+		}
+
+		List<ContextKey> remaining = new ArrayList<>(groups.keySet());
+		List<T> result = new ArrayList<>(elements.size());
+		ContextKey current = null;
+
+		while (!remaining.isEmpty()) {
+
+			ContextKey previous = current;
+
+			current = previous == null //
+					? remaining.get(0) //
+					: remaining.stream() //
+							.max(Comparator.comparingInt((ContextKey it) -> overlap(previous, it)) //
+									.thenComparing(Comparator.comparingInt(remaining::indexOf).reversed())) //
+							.orElseThrow(IllegalStateException::new);
+
+			remaining.remove(current);
+			result.addAll(groups.get(current));
+		}
+
+		result.addAll(others);
+
+		return result;
+	}
+
+	/**
+	 * Returns whether the given configuration parameters enable running test classes concurrently.
+	 *
+	 * @param parameters must not be {@literal null}.
+	 * @return
+	 */
+	static boolean runsClassesConcurrently(Function<String, Optional<String>> parameters) {
+
+		Assert.notNull(parameters, "Configuration parameters must not be null!");
+
+		boolean parallel = parameters.apply(PARALLEL_ENABLED).map(Boolean::valueOf).orElse(false);
+		String mode = parameters.apply(CLASSES_MODE) //
+				.orElseGet(() -> parameters.apply(DEFAULT_MODE).orElse("same_thread"));
+
+		return parallel && "concurrent".equalsIgnoreCase(mode.trim());
+	}
+
+	private static int overlap(ContextKey left, ContextKey right) {
+
+		Set<String> packages = right.getBasePackages();
+
+		return (int) left.getBasePackages().stream() //
+				.filter(packages::contains) //
+				.count();
+	}
+
+	private static Optional<ContextKey> getContextKey(Class<?> type) {
+
+		if (!AnnotatedElementUtils.hasAnnotation(type, ModuleTest.class)) {
+			return Optional.empty();
+		}
+
+		try {
+			return Optional.of(ModuleTestExecution.of(type).getContextKey());
+		} catch (RuntimeException e) {
+
+			LOG.debug("Couldn't resolve modules of test class {}, running it last.", type.getName(), e);
+
+			return Optional.empty();
+		}
+	}
+}
@@ -15,18 +15,28 @@
  */
 package de.olivergierke.moduliths.model.test;
 
-import de.olivergierke.moduliths.model.JavaPackage;
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
 import de.olivergierke.moduliths.model.Module;
 import de.olivergierke.moduliths.model.Modules;
 import de.olivergierke.moduliths.model.test.ModuleTest.BootstrapMode;
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,45 +51,127 @@ import com.tngtech.archunit.thirdparty.com.google.common.base.Suppliers;
 @Slf4j
 public class ModuleTestExecution implements Iterable<Module> {
 
-	private static Map<Class<?>, ModuleTestExecution> EXECUTIONS = new HashMap<>();
+	/**
+	 * The name of the system property to enable the detached model mode. If set to {@literal true}, executions only keep
+	 * a {@link CondensedModules} around and release the imported ArchUnit class graph. {@link #getModules()} will then
+	 * re-import the class graph on demand.
+	 */
+	public static final String DETACHED_MODEL_PROPERTY = "moduliths.test.detached-model";
+
+	/**
+	 * The name of the system property to configure a directory to keep {@link CondensedModules} snapshots in. If set, the
+	 * first execution writes the model to a snapshot file that's keyed by the {@link BytecodeFingerprint} of the
+	 * application's classes. Subsequent executions, also the ones in other JVMs, map that snapshot into memory instead of
+	 * importing the classes. JVMs started concurrently wait for the first one to write the snapshot (see
+	 * {@link ModelSnapshot}). The ArchUnit class graph is then only imported on demand, i.e. on calls to
+	 * {@link #getModules()}. A snapshot of a model that hasn't been verified is only used by executions that don't verify
+	 * the model either. Others import and fully verify the model and replace the snapshot with a verified one.
+	 */
+	public static final String SNAPSHOT_DIRECTORY_PROPERTY = "moduliths.test.snapshot-directory";
+
+	private static Map<Class<?>, ModuleTestExecution> EXECUTIONS = new ConcurrentHashMap<>();
+	private static Map<Class<?>, BytecodeFingerprint> FINGERPRINTS = new ConcurrentHashMap<>();
 
 	private final @Getter BootstrapMode bootstrapMode;
-	private final @Getter Module module;
-	private final @Getter Modules modules;
+	private final int dependencyLevels;
+	private final @Getter CondensedModule condensedModule;
+	private final Supplier<Modules> modules;
 
-	private final Supplier<List<JavaPackage>> basePackages;
-	private final Supplier<List<Module>> dependencies;
+	private final List<String> basePackages;
+	private final Set<CondensedModule> includedModules;
+	private final CondensedModules model;
+	private final Supplier<BytecodeFingerprint> closureFingerprint;
+	private final ContextKey contextKey;
 
 	private ModuleTestExecution(Class<?> type) {
 
 		ModuleTest annotation = AnnotatedElementUtils.findMergedAnnotation(type, ModuleTest.class);
 		String packageName = type.getPackage().getName();
+		Class<?> modulithType = new ModulithConfigurationFinder().findFromClass(type);
+
+		String snapshotDirectory = System.getProperty(SNAPSHOT_DIRECTORY_PROPERTY);
+
+		if (snapshotDirectory == null) {
+
+			Modules modules = importModules(modulithType, annotation);
+
+			this.model = modules.condense();
+			this.modules = Boolean.getBoolean(DETACHED_MODEL_PROPERTY) //
+					? new SoftlyReferencedModules(modulithType, modules) //
+					: () -> modules;
+
+		} else {
+
+			Path snapshot = Paths.get(snapshotDirectory, modulithType.getName().concat(".snapshot"));
+			BytecodeFingerprint fingerprint = FINGERPRINTS.computeIfAbsent(modulithType, BytecodeFingerprint::forModulith);
+			AtomicReference<Modules> imported = new AtomicReference<>();
+
+			this.model = new ModelSnapshot(snapshot, fingerprint).readOrCreate(annotation.verifyAutomatically(), () -> {
+
+				imported.set(importModules(modulithType, annotation));
+
+				return imported.get().condense();
+			});
+			this.modules = new SoftlyReferencedModules(modulithType, imported.get());
+		}
 
-		this.modules = Modules.of(new ModulithConfigurationFinder().findFromClass(type));
 		this.bootstrapMode = annotation.mode();
-		this.module = modules.getModuleByBasePackage(packageName) //
+		this.dependencyLevels = annotation.depth() < 0 ? bootstrapMode.getDepth().getLevels() : annotation.depth();
+		this.condensedModule = model.getModuleByBasePackage(packageName) //
 				.orElseThrow(
 						() -> new IllegalStateException(String.format("Couldn't find module for package '%s'!", packageName)));
 
-		this.basePackages = Suppliers.memoize(() -> {
+		Stream<CondensedModule> dependencies = condensedModule.getDependencies(dependencyLevels).stream();
+		Stream<CondensedModule> extraIncludes = Arrays.stream(annotation.extraIncludes()) //
+				.map(model::getModuleByName) //
+				.flatMap(it -> it.map(Stream::of).orElseGet(Stream::empty));
+
+		this.includedModules = Stream.concat(Stream.concat(Stream.of(condensedModule), dependencies), extraIncludes) //
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		this.basePackages = includedModules.stream() //
+				.map(CondensedModule::getBasePackage) //
+				.collect(Collectors.toList());
+		this.closureFingerprint = Suppliers.memoize(() -> BytecodeFingerprint.forModules(modulithType, basePackages));
+		this.contextKey = new ContextKey(condensedModule.getName(), bootstrapMode, dependencyLevels,
+				new TreeSet<>(basePackages));
+	}
 
-			Stream<JavaPackage> moduleBasePackages = module.getBasePackages(modules, bootstrapMode.getDepth());
-			Stream<JavaPackage> extraPackages = Arrays.stream(annotation.extraIncludes()) //
-					.map(modules::getModuleByName).flatMap(it -> it.map(Stream::of).orElseGet(Stream::empty)) //
-					.map(Module::getBasePackage);
+	public static ModuleTestExecution of(Class<?> type) {
+		return EXECUTIONS.computeIfAbsent(type, ModuleTestExecution::new);
+	}
 
-			return Stream.concat(moduleBasePackages, extraPackages).collect(Collectors.toList());
-		});
+	private static Modules importModules(Class<?> modulithType, ModuleTest annotation) {
 
-		this.dependencies = Suppliers.memoize(() -> module.getDependencies(modules, bootstrapMode.getDepth()));
+		Modules modules = Modules.of(modulithType);
 
 		if (annotation.verifyAutomatically()) {
-			verify();
+			modules.verify();
 		}
+
+		return modules;
 	}
 
-	public static ModuleTestExecution of(Class<?> type) {
-		return EXECUTIONS.computeIfAbsent(type, ModuleTestExecution::new);
+	/**
+	 * Returns the {@link Modules} of the application the module under test is part of. In detached model mode, this
+	 * might trigger a re-import of the application's types.
+	 *
+	 * @return
+	 * @see #DETACHED_MODEL_PROPERTY
+	 */
+	public Modules getModules() {
+		return modules.get();
+	}
+
+	/**
+	 * Returns the {@link Module} under test.
+	 *
+	 * @return
+	 */
+	public Module getModule() {
+
+		return getModules().getModuleByName(condensedModule.getName()) //
+				.orElseThrow(() -> new IllegalStateException(
+						String.format("Couldn't find module with name '%s'!", condensedModule.getName())));
 	}
 
 	/**
@@ -88,13 +180,33 @@ public class ModuleTestExecution implements Iterable<Module> {
 	 * @return
 	 */
 	public Stream<String> getBasePackages() {
-		return basePackages.get().stream().map(JavaPackage::getName);
+		return basePackages.stream();
+	}
+
+	/**
+	 * Returns the {@link BytecodeFingerprint} of the classes bootstrapped by the current execution, i.e. the ones of the
+	 * module under test, the included dependencies and the types residing in the root packages. Calculated on first
+	 * access.
+	 *
+	 * @return
+	 */
+	public BytecodeFingerprint getClosureFingerprint() {
+		return closureFingerprint.get();
+	}
+
+	/**
+	 * Returns the {@link ContextKey} identifying the application context bootstrapped for the current execution.
+	 *
+	 * @return
+	 */
+	ContextKey getContextKey() {
+		return contextKey;
 	}
 
 	public boolean includes(String className) {
 
-		boolean result = modules.withinRootPackages(className) //
-				|| basePackages.get().stream().anyMatch(it -> it.contains(className));
+		boolean result = model.withinRootPackages(className) //
+				|| model.getModuleByType(className).filter(includedModules::contains).isPresent();
 
 		if (result) {
 			LOG.debug("Including class {}.", className);
@@ -104,19 +216,56 @@ public class ModuleTestExecution implements Iterable<Module> {
 	}
 
 	/**
-	 * Returns all module dependencies, based on the current {@link BootstrapMode}.
+	 * Returns the number of levels of dependencies bootstrapped, either derived from the {@link BootstrapMode} or as
+	 * explicitly configured via {@link ModuleTest#depth()}.
+	 *
+	 * @return
+	 */
+	public int getDependencyLevels() {
+		return dependencyLevels;
+	}
+
+	/**
+	 * Returns all module dependencies, based on the current {@link BootstrapMode} or configured depth.
 	 * 
 	 * @return
 	 */
 	public List<Module> getDependencies() {
-		return dependencies.get();
+
+		Modules modules = getModules();
+
+		return getCondensedDependencies().stream() //
+				.map(it -> modules.getModuleByName(it.getName())) //
+				.flatMap(it -> it.map(Stream::of).orElseGet(Stream::empty)) //
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns all module dependencies as {@link CondensedModule}s, based on the current {@link BootstrapMode} or
+	 * configured depth.
+	 *
+	 * @return
+	 */
+	public List<CondensedModule> getCondensedDependencies() {
+		return condensedModule.getDependencies(dependencyLevels);
+	}
+
+	/**
+	 * Returns whether the module under test is affected by the changed files configured via
+	 * {@value ModuleTestSelection#CHANGED_FILES_PROPERTY} or {@value ModuleTestSelection#CHANGED_SINCE_PROPERTY}, i.e.
+	 * whether it or any of its dependencies changed. Always {@literal true} if no changes are configured.
+	 *
+	 * @return
+	 */
+	public boolean isAffectedByChanges() {
+		return ModuleTestSelection.forConfiguredChanges(model).includes(condensedModule);
 	}
 
 	/**
 	 * Explicitly trigger the module structure verification.
 	 */
 	public void verify() {
-		modules.verify();
+		getModules().verify();
 	}
 
 	/* 
@@ -125,6 +274,60 @@ public class ModuleTestExecution implements Iterable<Module> {
 	 */
 	@Override
 	public Iterator<Module> iterator() {
-		return modules.iterator();
+		return getModules().iterator();
+	}
+
+	/**
+	 * Identifies the application context bootstrapped for a {@link ModuleTestExecution}, i.e. the module under test, the
+	 * way its dependencies are resolved and the base packages eventually included. Executions of different test classes
+	 * with the same key can share their application context.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@Value
+	static class ContextKey {
+
+		String module;
+		BootstrapMode bootstrapMode;
+		int dependencyLevels;
+		Set<String> basePackages;
+	}
+
+	/**
+	 * A {@link Supplier} of {@link Modules} that only keeps a soft reference to them and (re-)imports them in case they
+	 * have been garbage collected or were not imported in the first place.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class SoftlyReferencedModules implements Supplier<Modules> {
+
+		private final Class<?> modulithType;
+		private SoftReference<Modules> reference;
+
+		SoftlyReferencedModules(Class<?> modulithType, Modules modules) {
+
+			this.modulithType = modulithType;
+			this.reference = new SoftReference<>(modules);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.tngtech.archunit.thirdparty.com.google.common.base.Supplier#get()
+		 */
+		@Override
+		public synchronized Modules get() {
+
+			Modules modules = reference.get();
+
+			if (modules == null) {
+
+				LOG.debug("Importing modules for {}.", modulithType.getName());
+
+				modules = Modules.of(modulithType);
+				reference = new SoftReference<>(modules);
+			}
+
+			return modules;
+		}
 	}
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.model.test.ModuleLocks.Locked;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+
+/**
+ * JUnit Jupiter extension for {@link ModuleTest}s that allows them to be run using Jupiter's parallel test execution:
+ * <ul>
+ * <li>Test classes acquire the {@link ModuleLocks} of all modules they bootstrap before their application context is
+ * created, so that tests of independent modules run concurrently but the ones of modules sharing state don't.</li>
+ * <li>Test methods have to be run in the thread of their test class, as they share the application context and thus
+ * the {@link PublishedEvents}. Parallel test execution thus has to be configured to only run test classes concurrently
+ * ({@value #CLASSES_MODE} set to {@code concurrent}, {@value #DEFAULT_MODE} to {@code same_thread}).</li>
+ * <li>Nested test classes run with the locks acquired by their enclosing test class, as the locks aren't
+ * reentrant.</li>
+ * <li>Test classes not affected by the configured changes (see {@link ModuleTestSelection}) or that passed before for
+ * the same classes (see {@link ModuleTestResultCache}) are disabled before any of their callbacks are invoked.</li>
+ * </ul>
+ *
+ * @author Oliver Gierke
+ */
+public class ModuleTestExtension implements ExecutionCondition, BeforeAllCallback, AfterAllCallback {
+
+	private static final Namespace NAMESPACE = Namespace.create(ModuleTestExtension.class);
+	private static final String MODULE_LOCKS = "moduleLocks";
+	private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+	private static final String DEFAULT_MODE = "junit.jupiter.execution.parallel.mode.default";
+	private static final String CLASSES_MODE = "junit.jupiter.execution.parallel.mode.classes.default";
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.junit.jupiter.api.extension.ExecutionCondition#evaluateExecutionCondition(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+
+		if (context.getTestMethod().isPresent() || !context.getTestClass().isPresent()) {
+			return ConditionEvaluationResult.enabled("Only test classes are evaluated.");
+		}
+
+		Class<?> testClass = context.getRequiredTestClass();
+
+		if (ModuleTestSelection.isEnabled() && !ModuleTestExecution.of(testClass).isAffectedByChanges()) {
+			return ConditionEvaluationResult.disabled("Module is not affected by the changed files.");
+		}
+
+		Optional<ModuleTestResultCache> cache = ModuleTestResultCache.fromSystemProperties();
+
+		if (cache.isPresent()
+				&& cache.get().hasPassed(testClass, ModuleTestExecution.of(testClass).getClosureFingerprint())) {
+			return ConditionEvaluationResult.disabled("Passed before for the same module classes.");
+		}
+
+		return ConditionEvaluationResult.enabled("Module test needs to run.");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.junit.jupiter.api.extension.BeforeAllCallback#beforeAll(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void beforeAll(ExtensionContext context) {
+
+		Store store = context.getStore(NAMESPACE);
+
+		// Locks held by an enclosing test class
+		if (store.get(MODULE_LOCKS) != null) {
+			return;
+		}
+
+		assertTestMethodsRunInTestClassThread(context);
+
+		store.put(MODULE_LOCKS, ModuleLocks.lock(ModuleTestExecution.of(context.getRequiredTestClass())));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.junit.jupiter.api.extension.AfterAllCallback#afterAll(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void afterAll(ExtensionContext context) {
+
+		Locked locked = context.getStore(NAMESPACE).remove(MODULE_LOCKS, Locked.class);
+
+		if (locked != null) {
+			locked.close();
+		}
+	}
+
+	private static void assertTestMethodsRunInTestClassThread(ExtensionContext context) {
+
+		boolean parallel = context.getConfigurationParameter(PARALLEL_ENABLED).map(Boolean::valueOf).orElse(false);
+		boolean concurrentMethods = context.getConfigurationParameter(DEFAULT_MODE) //
+				.map("concurrent"::equalsIgnoreCase) //
+				.orElse(false);
+
+		if (parallel && concurrentMethods) {
+			throw new IllegalStateException(String.format("Test methods of module tests share their application context! "
+					+ "Set %s to same_thread and run test classes concurrently via %s instead.", DEFAULT_MODE, CLASSES_MODE));
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A local cache of the test classes that passed for a particular {@link BytecodeFingerprint} of the classes they
+ * bootstrap (see {@link ModuleTestExecution#getClosureFingerprint()}). Keeps a file per test class in the directory
+ * configured via {@value #CACHE_DIRECTORY_PROPERTY} that contains the fingerprint of the last successful run. Problems
+ * accessing the cache are logged and treated like a cache miss so that they never fail a test run.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+class ModuleTestResultCache {
+
+	/**
+	 * The name of the system property to configure the directory to keep the results of passed module tests in.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY = "moduliths.test.result-cache";
+
+	private final Path directory;
+
+	/**
+	 * Creates a new {@link ModuleTestResultCache} keeping the results in the given directory.
+	 *
+	 * @param directory must not be {@literal null}.
+	 */
+	ModuleTestResultCache(Path directory) {
+
+		Assert.notNull(directory, "Directory must not be null!");
+
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the {@link ModuleTestResultCache} for the directory configured via {@value #CACHE_DIRECTORY_PROPERTY} if
+	 * set.
+	 *
+	 * @return
+	 */
+	static Optional<ModuleTestResultCache> fromSystemProperties() {
+
+		return Optional.ofNullable(System.getProperty(CACHE_DIRECTORY_PROPERTY)) //
+				.filter(StringUtils::hasText) //
+				.map(it -> new ModuleTestResultCache(Paths.get(it)));
+	}
+
+	/**
+	 * Returns whether the given test class has passed before for the given {@link BytecodeFingerprint}.
+	 *
+	 * @param testClass must not be {@literal null}.
+	 * @param fingerprint must not be {@literal null}.
+	 * @return
+	 */
+	boolean hasPassed(Class<?> testClass, BytecodeFingerprint fingerprint) {
+
+		Assert.notNull(testClass, "Test class must not be null!");
+		Assert.notNull(fingerprint, "Fingerprint must not be null!");
+
+		Path file = getFile(testClass);
+
+		try {
+
+			return Files.exists(file) //
+					&& fingerprint.toString().equals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+
+		} catch (IOException e) {
+
+			LOG.warn("Couldn't read test result {}! {}", file, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Records that the given test class has passed for the given {@link BytecodeFingerprint}.
+	 *
+	 * @param testClass must not be {@literal null}.
+	 * @param fingerprint must not be {@literal null}.
+	 */
+	void recordPass(Class<?> testClass, BytecodeFingerprint fingerprint) {
+
+		Assert.notNull(testClass, "Test class must not be null!");
+		Assert.notNull(fingerprint, "Fingerprint must not be null!");
+
+		Path file = getFile(testClass);
+
+		try {
+
+			Files.createDirectories(directory);
+
+			Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			Files.write(temporary, fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+
+			try {
+				Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+		} catch (IOException e) {
+			LOG.warn("Couldn't record test result {}! {}", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes the recorded result of the given test class.
+	 *
+	 * @param testClass must not be {@literal null}.
+	 */
+	void evict(Class<?> testClass) {
+
+		Assert.notNull(testClass, "Test class must not be null!");
+
+		Path file = getFile(testClass);
+
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			LOG.warn("Couldn't remove test result {}! {}", file, e.getMessage());
+		}
+	}
+
+	private Path getFile(Class<?> testClass) {
+		return directory.resolve(testClass.getName());
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.model.BytecodeFingerprint;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.junit.Assume;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.runner.RunWith;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link TestExecutionListener} to skip test classes that have passed before for the very same classes bootstrapped,
+ * as recorded in the {@link ModuleTestResultCache}. Records test classes in that cache once all of their test methods
+ * have passed and removes them on a failure. Test classes whose test methods might be invoked multiple times (test
+ * templates like parameterized tests, test factories or JUnit 4 runners other than Spring's) are never recorded, as it
+ * can't be told whether all of their invocations have been run.
+ *
+ * @author Oliver Gierke
+ * @see ModuleTestResultCache
+ * @see ModuleTestExecution#getClosureFingerprint()
+ */
+class ModuleTestResultCacheTestExecutionListener extends AbstractTestExecutionListener {
+
+	private static final String PASSED = ModuleTestResultCacheTestExecutionListener.class.getName().concat(".passed");
+	private static final String FAILED = ModuleTestResultCacheTestExecutionListener.class.getName().concat(".failed");
+	private static final boolean JUPITER_PRESENT = ClassUtils.isPresent("org.junit.jupiter.api.Test",
+			ModuleTestResultCacheTestExecutionListener.class.getClassLoader());
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#beforeTestClass(org.springframework.test.context.TestContext)
+	 */
+	@Override
+	public void beforeTestClass(TestContext testContext) {
+
+		Optional<ModuleTestResultCache> cache = ModuleTestResultCache.fromSystemProperties();
+
+		if (!cache.isPresent()) {
+			return;
+		}
+
+		Class<?> testClass = testContext.getTestClass();
+		BytecodeFingerprint fingerprint = ModuleTestExecution.of(testClass).getClosureFingerprint();
+
+		Assume.assumeFalse(String.format("%s passed before for the same module classes.", testClass.getName()),
+				cache.get().hasPassed(testClass, fingerprint));
+
+		if (hasRepeatedInvocations(testClass)) {
+			return;
+		}
+
+		testContext.setAttribute(PASSED, ConcurrentHashMap.newKeySet());
+		testContext.setAttribute(FAILED, false);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#afterTestMethod(org.springframework.test.context.TestContext)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void afterTestMethod(TestContext testContext) {
+
+		if (!testContext.hasAttribute(PASSED)) {
+			return;
+		}
+
+		if (testContext.getTestException() == null) {
+			((Set<Method>) testContext.getAttribute(PASSED)).add(testContext.getTestMethod());
+		} else {
+			testContext.setAttribute(FAILED, true);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#afterTestClass(org.springframework.test.context.TestContext)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void afterTestClass(TestContext testContext) {
+
+		if (!testContext.hasAttribute(PASSED)) {
+			return;
+		}
+
+		Class<?> testClass = testContext.getTestClass();
+		Set<Method> passed = (Set<Method>) testContext.removeAttribute(PASSED);
+		boolean failed = (Boolean) testContext.removeAttribute(FAILED);
+
+		ModuleTestResultCache.fromSystemProperties().ifPresent(it -> {
+
+			if (failed) {
+				it.evict(testClass);
+			} else if (!passed.isEmpty() && passed.equals(getTestMethods(testClass))) {
+				it.recordPass(testClass, ModuleTestExecution.of(testClass).getClosureFingerprint());
+			}
+		});
+	}
+
+	/**
+	 * Returns the test methods that are expected to run, so that test classes that were run only partially, e.g. due to
+	 * a filter, are not recorded as passed.
+	 *
+	 * @param testClass must not be {@literal null}.
+	 * @return
+	 */
+	private static Set<Method> getTestMethods(Class<?> testClass) {
+
+		return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(testClass)) //
+				.filter(it -> isJUnit4Test(it) || JUPITER_PRESENT && isJupiterTest(it)) //
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Returns whether the given test class might invoke its test methods multiple times, i.e. it declares Jupiter test
+	 * templates or test factories or it's run by a JUnit 4 runner other than Spring's.
+	 *
+	 * @param testClass must not be {@literal null}.
+	 * @return
+	 */
+	private static boolean hasRepeatedInvocations(Class<?> testClass) {
+
+		RunWith runWith = AnnotatedElementUtils.findMergedAnnotation(testClass, RunWith.class);
+
+		if (runWith != null && !SpringJUnit4ClassRunner.class.isAssignableFrom(runWith.value())) {
+			return true;
+		}
+
+		return JUPITER_PRESENT && Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(testClass)) //
+				.anyMatch(it -> AnnotatedElementUtils.hasAnnotation(it, TestTemplate.class)
+						|| AnnotatedElementUtils.hasAnnotation(it, TestFactory.class));
+	}
+
+	private static boolean isJUnit4Test(Method method) {
+		return method.isAnnotationPresent(Test.class) && !method.isAnnotationPresent(Ignore.class);
+	}
+
+	private static boolean isJupiterTest(Method method) {
+
+		return AnnotatedElementUtils.hasAnnotation(method, org.junit.jupiter.api.Test.class)
+				&& !AnnotatedElementUtils.hasAnnotation(method, Disabled.class);
+	}
+}
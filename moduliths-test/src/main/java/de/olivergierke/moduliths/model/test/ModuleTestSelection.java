@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.model.CondensedModules;
+import de.olivergierke.moduliths.model.CondensedModules.CondensedModule;
+import de.olivergierke.moduliths.model.Module.DependencyDepth;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Selects the modules whose tests need to run for a set of changed files. Files are attributed to the module whose base
+ * package contains the package they're located in. The selection then consists of all modules changed as well as all
+ * modules depending on them, directly or transitively. If a file can't be attributed to any module, e.g. a build file
+ * or a type in the root package, all modules are selected.
+ * <p>
+ * The changed files are either given explicitly via {@value #CHANGED_FILES_PROPERTY} or determined by a
+ * {@code git diff} of the working tree against the revision given via {@value #CHANGED_SINCE_PROPERTY}. If neither
+ * property is set, all modules are selected.
+ *
+ * @author Oliver Gierke
+ */
+@Slf4j
+class ModuleTestSelection {
+
+	/**
+	 * The name of the system property to configure a comma-separated list of changed files.
+	 */
+	public static final String CHANGED_FILES_PROPERTY = "moduliths.test.changed-files";
+
+	/**
+	 * The name of the system property to configure a Git revision to determine the changed files against.
+	 */
+	public static final String CHANGED_SINCE_PROPERTY = "moduliths.test.changed-since";
+
+	private static final Pattern SOURCE_FILE = Pattern.compile("(?:.*/)?src/[^/]+/[^/]+/(.+)/[^/]+");
+	private static final ConcurrentMap<String, Optional<List<String>>> CHANGED_FILES = new ConcurrentHashMap<>();
+
+	private static final ModuleTestSelection ALL = new ModuleTestSelection(Collections.emptySet(), true);
+
+	private final Set<String> modules;
+	private final boolean all;
+
+	private ModuleTestSelection(Set<String> modules, boolean all) {
+
+		this.modules = modules;
+		this.all = all;
+	}
+
+	/**
+	 * Returns whether a selection of module tests has been requested via {@value #CHANGED_FILES_PROPERTY} or
+	 * {@value #CHANGED_SINCE_PROPERTY}.
+	 *
+	 * @return
+	 */
+	static boolean isEnabled() {
+		return getProperty(CHANGED_FILES_PROPERTY).isPresent() || getProperty(CHANGED_SINCE_PROPERTY).isPresent();
+	}
+
+	/**
+	 * Creates a {@link ModuleTestSelection} for the changed files configured via system properties. Selects all modules
+	 * in case none are configured or they couldn't be determined.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @return
+	 */
+	static ModuleTestSelection forConfiguredChanges(CondensedModules modules) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+
+		Optional<List<String>> changedFiles = getProperty(CHANGED_FILES_PROPERTY) //
+				.map(it -> Optional.of(Arrays.asList(StringUtils.commaDelimitedListToStringArray(it)))) //
+				.orElseGet(() -> getProperty(CHANGED_SINCE_PROPERTY) //
+						.flatMap(it -> CHANGED_FILES.computeIfAbsent(it, ModuleTestSelection::getChangedFilesSince)));
+
+		return changedFiles.map(it -> of(modules, it)).orElse(ALL);
+	}
+
+	/**
+	 * Creates a {@link ModuleTestSelection} for the given changed files.
+	 *
+	 * @param modules must not be {@literal null}.
+	 * @param changedFiles must not be {@literal null}.
+	 * @return
+	 */
+	static ModuleTestSelection of(CondensedModules modules, Collection<String> changedFiles) {
+
+		Assert.notNull(modules, "Modules must not be null!");
+		Assert.notNull(changedFiles, "Changed files must not be null!");
+
+		Set<String> selected = new HashSet<>();
+
+		for (String file : changedFiles) {
+
+			if (!StringUtils.hasText(file)) {
+				continue;
+			}
+
+			Optional<CondensedModule> module = getModule(modules, file.trim());
+
+			if (!module.isPresent()) {
+
+				LOG.debug("Selecting all modules as changed file {} doesn't belong to any module.", file);
+
+				return ALL;
+			}
+
+			selected.add(module.get().getName());
+			module.get().getDependents(DependencyDepth.ALL).forEach(it -> selected.add(it.getName()));
+		}
+
+		return new ModuleTestSelection(selected, false);
+	}
+
+	/**
+	 * Returns whether the tests of the given module need to run.
+	 *
+	 * @param module must not be {@literal null}.
+	 * @return
+	 */
+	boolean includes(CondensedModule module) {
+
+		Assert.notNull(module, "Module must not be null!");
+
+		return all || modules.contains(module.getName());
+	}
+
+	private static Optional<CondensedModule> getModule(CondensedModules modules, String file) {
+
+		Matcher matcher = SOURCE_FILE.matcher(file.replace('\\', '/'));
+
+		if (!matcher.matches()) {
+			return Optional.empty();
+		}
+
+		String packageName = matcher.group(1).replace('/', '.');
+
+		while (true) {
+
+			Optional<CondensedModule> module = modules.getModuleByBasePackage(packageName);
+
+			if (module.isPresent()) {
+				return module;
+			}
+
+			int index = packageName.lastIndexOf('.');
+
+			if (index < 0) {
+				return Optional.empty();
+			}
+
+			packageName = packageName.substring(0, index);
+		}
+	}
+
+	private static Optional<List<String>> getChangedFilesSince(String revision) {
+
+		List<String> result = new ArrayList<>();
+
+		try {
+
+			result.addAll(git("diff", "--name-only", revision));
+			result.addAll(git("ls-files", "--others", "--exclude-standard"));
+
+		} catch (IOException e) {
+
+			LOG.warn("Couldn't determine files changed since {}, running all module tests! {}", revision, e.getMessage());
+			return Optional.empty();
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			return Optional.empty();
+		}
+
+		LOG.info("Selecting module tests for {} files changed since {}.", result.size(), revision);
+
+		return Optional.of(result);
+	}
+
+	private static List<String> git(String... arguments) throws IOException, InterruptedException {
+
+		List<String> command = new ArrayList<>();
+		command.add("git");
+		command.addAll(Arrays.asList(arguments));
+
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+
+			List<String> lines = reader.lines().collect(Collectors.toList());
+
+			if (process.waitFor() != 0) {
+				throw new IOException(String.format("%s exited with %s!", String.join(" ", command), process.exitValue()));
+			}
+
+			return lines;
+		}
+	}
+
+	private static Optional<String> getProperty(String name) {
+		return Optional.ofNullable(System.getProperty(name)).filter(StringUtils::hasText);
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import org.junit.Assume;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * {@link TestExecutionListener} to skip the test classes of modules that are not affected by the changed files
+ * configured for the {@link ModuleTestSelection}. Skips the test class before its application context is bootstrapped.
+ *
+ * @author Oliver Gierke
+ * @see ModuleTestSelection
+ */
+class ModuleTestSelectionTestExecutionListener extends AbstractTestExecutionListener {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#beforeTestClass(org.springframework.test.context.TestContext)
+	 */
+	@Override
+	public void beforeTestClass(TestContext testContext) {
+
+		if (!ModuleTestSelection.isEnabled()) {
+			return;
+		}
+
+		ModuleTestExecution execution = ModuleTestExecution.of(testContext.getTestClass());
+
+		Assume.assumeTrue(String.format("Module %s is not affected by the changed files.",
+				execution.getCondensedModule().getDisplayName()), execution.isAffectedByChanges());
+	}
+}
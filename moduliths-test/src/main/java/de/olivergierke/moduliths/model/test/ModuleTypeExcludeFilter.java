@@ -15,8 +15,6 @@
  */
 package de.olivergierke.moduliths.model.test;
 
-import lombok.EqualsAndHashCode;
-
 import java.io.IOException;
 
 import org.springframework.boot.context.TypeExcludeFilter;
@@ -24,9 +22,12 @@ import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 
 /**
+ * A {@link TypeExcludeFilter} excluding all types not included in the {@link ModuleTestExecution} of the test class.
+ * Instances are considered equal if the executions bootstrap the same {@link ModuleTestExecution.ContextKey}, so that
+ * test classes bootstrapping the same modules share their application context via Spring's test context cache.
+ *
  * @author Oliver Gierke
  */
-@EqualsAndHashCode(callSuper = false)
 class ModuleTypeExcludeFilter extends TypeExcludeFilter {
 
 	private final Class<?> testClass;
@@ -45,4 +46,34 @@ class ModuleTypeExcludeFilter extends TypeExcludeFilter {
 		return ModuleTestExecution.of(testClass) //
 				.includes(metadataReader.getClassMetadata().getClassName());
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.boot.context.TypeExcludeFilter#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof ModuleTypeExcludeFilter)) {
+			return false;
+		}
+
+		ModuleTypeExcludeFilter that = (ModuleTypeExcludeFilter) obj;
+
+		return ModuleTestExecution.of(testClass).getContextKey() //
+				.equals(ModuleTestExecution.of(that.testClass).getContextKey());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.boot.context.TypeExcludeFilter#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return ModuleTestExecution.of(testClass).getContextKey().hashCode();
+	}
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import de.olivergierke.moduliths.events.ModuleAwareApplicationEventMulticaster;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The events published within the application context of a {@link ModuleTest}, available for injection into the test
+ * instance. Events are captured in a lock-free buffer. Tests can block on events to be published and on asynchronous
+ * listeners to complete using the {@code await…} methods, which wait on latches instead of polling. The buffer is
+ * cleared before each test method.
+ *
+ * @author Oliver Gierke
+ */
+public class PublishedEvents implements ApplicationListener<ApplicationEvent> {
+
+	private static final boolean EVENTS_PRESENT = ClassUtils.isPresent(
+			"de.olivergierke.moduliths.events.ModuleAwareApplicationEventMulticaster", PublishedEvents.class.getClassLoader());
+
+	private final ListableBeanFactory beanFactory;
+	private final Queue<Object> events;
+	private final Queue<Waiter<?>> waiters;
+
+	/**
+	 * Creates a new {@link PublishedEvents} for the given {@link ListableBeanFactory}.
+	 *
+	 * @param beanFactory must not be {@literal null}.
+	 */
+	PublishedEvents(ListableBeanFactory beanFactory) {
+
+		Assert.notNull(beanFactory, "BeanFactory must not be null!");
+
+		this.beanFactory = beanFactory;
+		this.events = new ConcurrentLinkedQueue<>();
+		this.waiters = new ConcurrentLinkedQueue<>();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.ApplicationListener#onApplicationEvent(org.springframework.context.ApplicationEvent)
+	 */
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+
+		Object payload = event instanceof PayloadApplicationEvent //
+				? ((PayloadApplicationEvent<?>) event).getPayload() //
+				: event;
+
+		events.add(payload);
+		waiters.forEach(it -> it.offer(payload));
+	}
+
+	/**
+	 * Returns all events of the given type published so far.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return
+	 */
+	public <T> List<T> ofType(Class<T> type) {
+		return stream(type).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns whether an event of the given type matching the given {@link Predicate} has been published so far.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @param predicate must not be {@literal null}.
+	 * @return
+	 */
+	public <T> boolean contains(Class<T> type, Predicate<? super T> predicate) {
+		return stream(type).anyMatch(predicate);
+	}
+
+	/**
+	 * Blocks until an event of the given type was published and returns it.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @param timeout must not be {@literal null}.
+	 * @return
+	 * @throws AssertionError in case no such event was published within the given timeout.
+	 */
+	public <T> T await(Class<T> type, Duration timeout) {
+		return await(type, it -> true, timeout);
+	}
+
+	/**
+	 * Blocks until an event of the given type matching the given {@link Predicate} was published and returns it.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @param predicate must not be {@literal null}.
+	 * @param timeout must not be {@literal null}.
+	 * @return
+	 * @throws AssertionError in case no such event was published within the given timeout.
+	 */
+	public <T> T await(Class<T> type, Predicate<? super T> predicate, Duration timeout) {
+
+		Assert.notNull(type, "Event type must not be null!");
+		Assert.notNull(predicate, "Predicate must not be null!");
+		Assert.notNull(timeout, "Timeout must not be null!");
+
+		Waiter<T> waiter = new Waiter<>(type, predicate);
+
+		// Register before inspecting the events captured so far to not miss one published concurrently
+		waiters.add(waiter);
+
+		try {
+
+			Optional<T> existing = stream(type).filter(predicate).findFirst();
+
+			if (existing.isPresent()) {
+				return existing.get();
+			}
+
+			return waiter.await(timeout).orElseThrow(() -> new AssertionError(
+					String.format("No event of type %s matching the given predicate published within %s!", type.getName(),
+							timeout)));
+
+		} finally {
+			waiters.remove(waiter);
+		}
+	}
+
+	/**
+	 * Blocks until all listener invocations dispatched asynchronously between modules so far have completed. Returns
+	 * immediately if events are dispatched synchronously.
+	 *
+	 * @param timeout must not be {@literal null}.
+	 * @throws AssertionError in case the listener invocations didn't complete within the given timeout.
+	 */
+	public void awaitListenerCompletion(Duration timeout) {
+
+		Assert.notNull(timeout, "Timeout must not be null!");
+
+		if (!EVENTS_PRESENT) {
+			return;
+		}
+
+		try {
+
+			if (!AsyncListeners.awaitCompletion(beanFactory, timeout)) {
+				throw new AssertionError(String.format("Event listeners did not complete within %s!", timeout));
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new AssertionError("Interrupted while waiting for event listeners to complete!", e);
+		}
+	}
+
+	/**
+	 * Removes all events captured so far.
+	 */
+	public void clear() {
+		events.clear();
+	}
+
+	private <T> Stream<T> stream(Class<T> type) {
+
+		return events.stream() //
+				.filter(type::isInstance) //
+				.map(type::cast);
+	}
+
+	/**
+	 * A test waiting for an event of a particular type matching a {@link Predicate}.
+	 *
+	 * @author Oliver Gierke
+	 */
+	@RequiredArgsConstructor
+	private static class Waiter<T> {
+
+		private final Class<T> type;
+		private final Predicate<? super T> predicate;
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private final AtomicReference<T> match = new AtomicReference<>();
+
+		void offer(Object event) {
+
+			if (!type.isInstance(event)) {
+				return;
+			}
+
+			T candidate = type.cast(event);
+
+			if (predicate.test(candidate) && match.compareAndSet(null, candidate)) {
+				latch.countDown();
+			}
+		}
+
+		Optional<T> await(Duration timeout) {
+
+			try {
+				latch.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			return Optional.ofNullable(match.get());
+		}
+	}
+
+	/**
+	 * Guards the access to the types of {@code moduliths-events}, which is an optional dependency.
+	 *
+	 * @author Oliver Gierke
+	 */
+	private static class AsyncListeners {
+
+		static boolean awaitCompletion(ListableBeanFactory beanFactory, Duration timeout) throws InterruptedException {
+
+			String name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+
+			if (!beanFactory.containsBean(name)) {
+				return true;
+			}
+
+			Object multicaster = beanFactory.getBean(name);
+
+			return !(multicaster instanceof ModuleAwareApplicationEventMulticaster) //
+					|| ((ModuleAwareApplicationEventMulticaster) multicaster).awaitListenerCompletion(timeout.toNanos(),
+							TimeUnit.NANOSECONDS);
+		}
+	}
+}
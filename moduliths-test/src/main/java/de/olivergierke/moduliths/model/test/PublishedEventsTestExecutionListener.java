@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.olivergierke.moduliths.model.test;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * {@link TestExecutionListener} to clear the {@link PublishedEvents} before each test method, so that the events of
+ * one test method don't leak into the next one sharing the same application context.
+ *
+ * @author Oliver Gierke
+ */
+class PublishedEventsTestExecutionListener extends AbstractTestExecutionListener {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#beforeTestMethod(org.springframework.test.context.TestContext)
+	 */
+	@Override
+	public void beforeTestMethod(TestContext testContext) {
+
+		ApplicationContext context = testContext.getApplicationContext();
+
+		context.getBeansOfType(PublishedEvents.class).values().forEach(PublishedEvents::clear);
+	}
+}